@@ -4,12 +4,57 @@ public class Constants {
     
     // ==================== HTTP Settings ====================
     
-    /** HTTP request timeout in milliseconds (used by BaseDownloader, TopicsListExtractor) */
+    /** HTTP request timeout in milliseconds when the site sets none (used by HttpFetchClient) */
     public static final int DEFAULT_HTTP_TIMEOUT_MS = 30000;
     
-    /** Delay between HTTP requests to avoid rate limiting (used by BaseDownloader) */
+    /** User agent when the site sets none (used by HttpFetchClient) */
+    public static final String DEFAULT_HTTP_USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    
+    /** Historical fixed delay between HTTP requests; sets the default starting request rate */
     public static final int DEFAULT_REQUEST_DELAY_MS = 1500;
     
+    /** Topic download workers, also the listing pages fetched at once; more than one selects ConcurrentDownloader, used by RuntimeConfiguration */
+    public static final int DEFAULT_DOWNLOAD_WORKERS = 1;
+    
+    /** Per-host request rate for the token bucket (same pace as DEFAULT_REQUEST_DELAY_MS), used by RuntimeConfiguration */
+    public static final double DEFAULT_REQUESTS_PER_SECOND = 1000.0 / DEFAULT_REQUEST_DELAY_MS;
+    
+    /** Cap on concurrent HTTP requests across all workers, used by RuntimeConfiguration */
+    public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 4;
+    
+    /** Floor for the adaptive request rate (used by AimdRateController) */
+    public static final double AIMD_MIN_REQUESTS_PER_SECOND = 0.1;
+    
+    /** Default ceiling for the adaptive rate as a multiple of requestsPerSecond, used by RuntimeConfiguration */
+    public static final double AIMD_MAX_RATE_MULTIPLIER = 4.0;
+    
+    /** Rate added after each healthy response, req/s (used by AimdRateController) */
+    public static final double AIMD_INCREASE_STEP = 0.02;
+    
+    /** Rate multiplier applied on 429/503, timeouts or latency spikes (used by AimdRateController) */
+    public static final double AIMD_DECREASE_FACTOR = 0.5;
+    
+    /** Latency above this multiple of the running baseline counts as congestion (used by AimdRateController) */
+    public static final double AIMD_LATENCY_FACTOR = 2.0;
+    
+    /** First retry delay for a failed topic; doubles per attempt (used by BaseDownloader) */
+    public static final long RETRY_BASE_DELAY_MS = 2000;
+    
+    /** Upper bound for a retry delay, including server Retry-After values */
+    public static final long RETRY_MAX_DELAY_MS = 5 * 60 * 1000;
+    
+    /** Token bucket capacity: requests a host may receive back-to-back (used by TokenBucketRateLimiter) */
+    public static final int DEFAULT_RATE_LIMIT_BURST = 2;
+    
+    /** Workers extracting metadata and cleaning HTML between fetch and label (used by ConcurrentDownloader) */
+    public static final int DEFAULT_CLEAN_WORKERS = 2;
+    
+    /** Capacity of each bounded queue between pipeline stages, used by RuntimeConfiguration */
+    public static final int DEFAULT_PIPELINE_QUEUE_CAPACITY = 16;
+    
+    /** How often the pipeline prints per-stage queue depth and throughput (used by ConcurrentDownloader) */
+    public static final long PIPELINE_METRICS_INTERVAL_MS = 10_000;
+    
     
     // ==================== Memory Settings ====================
     
@@ -52,6 +97,21 @@ public class Constants {
     /** Subdirectory for labeled output data */
     public static final String LABELED_DIR = "labeled";
     
+    /** Subdirectory of a source's raw path holding cached topic pages (used by PageCache) */
+    public static final String PAGE_CACHE_DIR = "pages";
+    
+    /** Subdirectory of a source's raw path holding archived topic segments (used by TopicArchiveWriter) */
+    public static final String ARCHIVE_DIR = "archive";
+    
+    /** Size after which the archive rolls over to a new segment file */
+    public static final long ARCHIVE_SEGMENT_MAX_BYTES = 256L * 1024 * 1024;
+    
+    /** Per-source file with the incremental crawl state (used by CrawlStateStore) */
+    public static final String CRAWL_STATE_FILE = "crawl_state.json";
+    
+    /** Crawl state is written to disk after this many topic updates */
+    public static final int CRAWL_STATE_SAVE_INTERVAL = 25;
+    
     /** Default output directory for labeled files */
     public static final String OUTPUT_DIR = "output";
     
@@ -148,4 +208,40 @@ Otherwise → FALSE
     
     /** URL for the lemmatization service */
     public static final String LEMMA_SERVICE_URL = "http://127.0.0.1:5000/lemma";
+    
+    /** Russian lemmatizer backend: AUTO, EMBEDDED or HTTP (used by LabelerConfiguration) */
+    public static final String DEFAULT_LEMMA_BACKEND = "AUTO";
+    
+    /** Python interpreter that runs the lemma service (used by LabelerMain) */
+    public static final String DEFAULT_LEMMA_SERVICE_PYTHON = "python";
+    
+    /** Script of the HTTP lemma service, relative to the working directory (used by LabelerMain) */
+    public static final String DEFAULT_LEMMA_SERVICE_SCRIPT = "tools/FlaskService/lemma_service.py";
+    
+    /** LemmaGen model file for the embedded Russian lemmatizer (used by EmbeddedRussianLemmatizer) */
+    public static final String RU_LEMMA_MODEL_PATH = "data/models/ru.lem";
+    
+    /** Word-to-lemma store file under the data directory (used by SentencesLabeler) */
+    public static final String LEMMA_CACHE_FILE = "lemma_cache.tsv";
+    
+    /** Lemmatized forms kept in memory (used by CachingLemmatizer) */
+    public static final int LEMMA_CACHE_MAX_ENTRIES = 200_000;
+    
+    /** LLM answer store file under the data directory (used by SentencesLabeler) */
+    public static final String LLM_VERDICT_CACHE_FILE = "llm_verdicts.tsv";
+    
+    /** Days an LLM answer is reused before it is asked again; 0 keeps answers forever (used by SentencesLabeler) */
+    public static final int LLM_VERDICT_TTL_DAYS = 0;
+    
+    /** Journal entries below which a seen-terms journal is never compacted (used by CacheManager) */
+    public static final int SEEN_CACHE_COMPACT_MIN_ENTRIES = 1_000;
+    
+    /** Bulk endpoint of the lemmatization service (used by RussianLemmatizer) */
+    public static final String LEMMA_SERVICE_BULK_URL = "http://127.0.0.1:5000/lemmas";
+    
+    /** Default words per bulk lemma request (used by LabelerConfiguration) */
+    public static final int DEFAULT_LEMMA_BATCH_SIZE = 200;
+    
+    /** Default bulk lemma requests in flight at once (used by LabelerConfiguration) */
+    public static final int DEFAULT_LEMMA_CONCURRENT_REQUESTS = 4;
 }
@@ -18,8 +18,40 @@ public record LabelerConfiguration(
     @JsonProperty(value = "language") String language,
     @JsonProperty(value = "forumName") String forumName,
     @JsonProperty(value = "maxSentences", defaultValue = "0") int maxSentences,
-    @JsonProperty(value = "siteId") String siteId
+    @JsonProperty(value = "siteId") String siteId,
+    @JsonProperty(value = "lemmaBatchSize", defaultValue = "200") int lemmaBatchSize,
+    @JsonProperty(value = "lemmaConcurrentRequests", defaultValue = "4") int lemmaConcurrentRequests,
+    @JsonProperty(value = "lemmaBackend", defaultValue = "AUTO") String lemmaBackend,
+    @JsonProperty(value = "lemmaServicePython", defaultValue = "python") String lemmaServicePython,
+    @JsonProperty(value = "lemmaServiceScript") String lemmaServiceScript
 ) {
+    public LabelerConfiguration {
+        if (lemmaBatchSize <= 0) {
+            lemmaBatchSize = Constants.DEFAULT_LEMMA_BATCH_SIZE;
+        }
+        if (lemmaConcurrentRequests <= 0) {
+            lemmaConcurrentRequests = Constants.DEFAULT_LEMMA_CONCURRENT_REQUESTS;
+        }
+        if (lemmaBackend == null || lemmaBackend.isBlank()) {
+            lemmaBackend = Constants.DEFAULT_LEMMA_BACKEND;
+        }
+        if (lemmaServicePython == null || lemmaServicePython.isBlank()) {
+            lemmaServicePython = Constants.DEFAULT_LEMMA_SERVICE_PYTHON;
+        }
+        if (lemmaServiceScript == null || lemmaServiceScript.isBlank()) {
+            lemmaServiceScript = Constants.DEFAULT_LEMMA_SERVICE_SCRIPT;
+        }
+    }
+    
+    public LabelerConfiguration(boolean enabled, int minSentenceLength, int maxSentenceLengthForContext,
+                                double minLanguageRatio, double maxSpecialCharRatio, List<String> dictionaryPaths,
+                                Path dataDirectory, Path outputDirectory, String outputFileName, String language,
+                                String forumName, int maxSentences, String siteId) {
+        this(enabled, minSentenceLength, maxSentenceLengthForContext, minLanguageRatio, maxSpecialCharRatio,
+             dictionaryPaths, dataDirectory, outputDirectory, outputFileName, language, forumName, maxSentences,
+             siteId, 0, 0, null, null, null);
+    }
+    
     public static LabelerConfiguration defaults() {
         return new LabelerConfiguration(
             true,
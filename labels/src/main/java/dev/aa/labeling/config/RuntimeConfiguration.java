@@ -5,8 +5,42 @@ import dev.aa.labeling.Constants;
 
 public record RuntimeConfiguration(
     @JsonProperty(value = "memoryThreshold", defaultValue = "0.8") double memoryThreshold,
-    @JsonProperty(value = "maxRetries", defaultValue = "3") int maxRetries
+    @JsonProperty(value = "maxRetries", defaultValue = "3") int maxRetries,
+    @JsonProperty(value = "downloadWorkers", defaultValue = "1") int downloadWorkers,
+    @JsonProperty(value = "requestsPerSecond", defaultValue = "0.67") double requestsPerSecond,
+    @JsonProperty(value = "maxInFlightRequests", defaultValue = "4") int maxInFlightRequests,
+    @JsonProperty(value = "cleanWorkers", defaultValue = "2") int cleanWorkers,
+    @JsonProperty(value = "queueCapacity", defaultValue = "16") int queueCapacity,
+    @JsonProperty(value = "archiveRawHtml", defaultValue = "false") boolean archiveRawHtml,
+    @JsonProperty(value = "pageCache", defaultValue = "false") boolean pageCache,
+    @JsonProperty(value = "incrementalCrawl", defaultValue = "false") boolean incrementalCrawl,
+    @JsonProperty(value = "maxRequestsPerSecond") double maxRequestsPerSecond
 ) {
+    public RuntimeConfiguration {
+        if (downloadWorkers <= 0) {
+            downloadWorkers = Constants.DEFAULT_DOWNLOAD_WORKERS;
+        }
+        if (requestsPerSecond <= 0) {
+            requestsPerSecond = Constants.DEFAULT_REQUESTS_PER_SECOND;
+        }
+        if (maxRequestsPerSecond <= 0) {
+            maxRequestsPerSecond = requestsPerSecond * Constants.AIMD_MAX_RATE_MULTIPLIER;
+        }
+        if (maxInFlightRequests <= 0) {
+            maxInFlightRequests = Constants.DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+        }
+        if (cleanWorkers <= 0) {
+            cleanWorkers = Constants.DEFAULT_CLEAN_WORKERS;
+        }
+        if (queueCapacity <= 0) {
+            queueCapacity = Constants.DEFAULT_PIPELINE_QUEUE_CAPACITY;
+        }
+    }
+    
+    public RuntimeConfiguration(double memoryThreshold, int maxRetries) {
+        this(memoryThreshold, maxRetries, 0, 0, 0, 0, 0, false, false, false, 0);
+    }
+    
     public static RuntimeConfiguration defaults() {
         return new RuntimeConfiguration(
             Constants.DEFAULT_MEMORY_THRESHOLD,
@@ -0,0 +1,156 @@
+package dev.aa.labeling.engine;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Additive-increase / multiplicative-decrease control of the request rate. Every healthy
+ * response raises the token bucket rate by a small step; a 429/503, a timeout or a latency spike
+ * well above the running baseline cuts it by a factor (at most once per cooldown). Latency is
+ * time to headers, and the baseline is a slow average of all samples.
+ * Retry-After pauses all requests until the server's deadline.
+ */
+public class AimdRateController {
+    
+    private static final double FAST_ALPHA = 0.3;
+    private static final double BASELINE_ALPHA = 0.05;
+    
+    private final TokenBucketRateLimiter limiter;
+    private final double minRate;
+    private final double maxRate;
+    private final double increaseStep;
+    private final double decreaseFactor;
+    private final double latencyFactor;
+    
+    private double rate;
+    private double latencyEwmaMs;
+    private double latencyBaselineMs;
+    private long lastDecreaseNanos;
+    private volatile long pausedUntilNanos;
+    
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong throttles = new AtomicLong();
+    private final AtomicLong increases = new AtomicLong();
+    private final AtomicLong decreases = new AtomicLong();
+    
+    public AimdRateController(TokenBucketRateLimiter limiter, double minRate, double maxRate,
+                              double increaseStep, double decreaseFactor, double latencyFactor) {
+        this.limiter = limiter;
+        this.minRate = minRate;
+        this.maxRate = Math.max(minRate, maxRate);
+        this.increaseStep = increaseStep;
+        this.decreaseFactor = decreaseFactor;
+        this.latencyFactor = latencyFactor;
+        this.rate = Math.max(minRate, Math.min(this.maxRate, limiter.getPermitsPerSecond()));
+        limiter.setPermitsPerSecond(rate);
+    }
+    
+    /** Waits out any Retry-After pause, then takes a token for the URL's host. */
+    public void acquire(String url) throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = pausedUntilNanos - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        limiter.acquireForUrl(url);
+    }
+    
+    public synchronized void onSuccess(long latencyMs) {
+        successes.incrementAndGet();
+        if (latencyBaselineMs == 0) {
+            latencyBaselineMs = latencyMs;
+            latencyEwmaMs = latencyMs;
+        } else {
+            latencyEwmaMs += FAST_ALPHA * (latencyMs - latencyEwmaMs);
+            // The baseline follows every sample slowly, so an unlucky first sample or a server that
+            // settles at a slower pace becomes the new normal instead of a spike that never ends
+            latencyBaselineMs += BASELINE_ALPHA * (latencyMs - latencyBaselineMs);
+        }
+        
+        if (latencyEwmaMs > latencyBaselineMs * latencyFactor) {
+            decrease("latency " + Math.round(latencyEwmaMs) + "ms vs baseline " + Math.round(latencyBaselineMs) + "ms");
+            return;
+        }
+        
+        if (rate < maxRate) {
+            setRate(Math.min(maxRate, rate + increaseStep));
+            increases.incrementAndGet();
+        }
+    }
+    
+    /** The server pushed back (429/503) or timed out; {@code retryAfterMs} 0 means no Retry-After. */
+    public synchronized void onThrottle(long retryAfterMs) {
+        throttles.incrementAndGet();
+        if (retryAfterMs > 0) {
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfterMs);
+            if (until > pausedUntilNanos) {
+                pausedUntilNanos = until;
+                System.err.println("Server asked to retry after " + retryAfterMs + "ms, pausing requests");
+            }
+        }
+        decrease("throttled");
+    }
+    
+    private void decrease(String reason) {
+        long now = System.nanoTime();
+        // One cut per cooldown, so a burst of errors from requests already in flight counts once
+        long cooldownNanos = (long) (TimeUnit.SECONDS.toNanos(1) * Math.max(1.0, 1.0 / rate));
+        if (lastDecreaseNanos != 0 && now - lastDecreaseNanos < cooldownNanos) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        double newRate = Math.max(minRate, rate * decreaseFactor);
+        if (newRate < rate) {
+            System.err.printf("Reducing request rate %.2f -> %.2f req/s (%s)%n", rate, newRate, reason);
+            setRate(newRate);
+            decreases.incrementAndGet();
+        }
+        // Start a fresh latency window at the new rate
+        latencyEwmaMs = latencyBaselineMs;
+    }
+    
+    private void setRate(double newRate) {
+        rate = newRate;
+        limiter.setPermitsPerSecond(newRate);
+    }
+    
+    public synchronized double getRate() { return rate; }
+    public synchronized double getLatencyEwmaMs() { return latencyEwmaMs; }
+    public synchronized double getLatencyBaselineMs() { return latencyBaselineMs; }
+    public long getSuccesses() { return successes.get(); }
+    public long getThrottles() { return throttles.get(); }
+    public long getIncreases() { return increases.get(); }
+    public long getDecreases() { return decreases.get(); }
+    
+    public boolean isPaused() {
+        return pausedUntilNanos - System.nanoTime() > 0;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return String.format("rate[%.2f req/s (%.2f..%.2f), latency=%.0fms baseline=%.0fms, ok=%d, throttled=%d, +%d/-%d%s]",
+            rate, minRate, maxRate, latencyEwmaMs, latencyBaselineMs, successes.get(), throttles.get(),
+            increases.get(), decreases.get(), isPaused() ? ", paused" : "");
+    }
+    
+    /** Retry-After as delta-seconds or an HTTP date; 0 when absent or unparseable. */
+    public static long parseRetryAfterMs(String header) {
+        if (header == null || header.isBlank()) {
+            return 0;
+        }
+        String value = header.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            // Not delta-seconds, try HTTP date
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package dev.aa.labeling.engine;
+
+import dev.aa.labeling.config.ForumConfiguration;
+import dev.aa.labeling.extractors.TopicMetadataExtractor;
+import dev.aa.labeling.labeler.MaxSentencesReachedException;
+import dev.aa.labeling.model.Topic;
+import org.jsoup.Jsoup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds the labeler from a topic archive instead of the network: no HTTP, no politeness
+ * delay. Only the newest copy of each topic is replayed, and only for enabled forums of the
+ * configuration. Used to re-label a corpus after a dictionary or prompt change and for
+ * reproducible benchmarks.
+ */
+public class ArchiveReplayDownloader extends BaseDownloader {
+    
+    private final Path archiveDir;
+    
+    /** @param archiveDir archive to replay; null uses the site's default archive directory */
+    public ArchiveReplayDownloader(Path archiveDir) {
+        this.archiveDir = archiveDir;
+    }
+    
+    @Override
+    public void download() {
+        if (config == null || extractor == null) {
+            throw new IllegalStateException("Configuration and TopicExtractor must be set");
+        }
+        
+        Path directory = archiveDir != null ? archiveDir : archiveDirectory(config);
+        Map<String, ForumConfiguration> forumsByUrl = new HashMap<>();
+        for (ForumConfiguration forum : config.forums()) {
+            if (forum != null && forum.enabled()) {
+                forumsByUrl.put(forum.url(), forum);
+            }
+        }
+        if (forumsByUrl.isEmpty()) {
+            System.out.println("No forums to process");
+            return;
+        }
+        
+        Map<String, TopicMetadataExtractor> extractorsByType = new HashMap<>();
+        long started = System.nanoTime();
+        int replayed = 0;
+        
+        try (TopicArchiveReader reader = new TopicArchiveReader(directory)) {
+            List<TopicArchiveReader.IndexEntry> entries = reader.latestEntries();
+            System.out.println("Replaying archive " + directory + " (" + entries.size() + " topics)");
+            
+            for (TopicArchiveReader.IndexEntry entry : entries) {
+                if (shouldSkip(entry.topicUrl())) {
+                    continue;
+                }
+                ArchivedTopic archived = reader.read(entry);
+                ForumConfiguration forum = forumsByUrl.get(archived.forumUrl());
+                if (forum == null) {
+                    continue;
+                }
+                
+                metadataExtractor = extractorsByType.computeIfAbsent(forum.forumType(), this::createMetadataExtractor);
+                forumProfile = forumProfile(forum.forumType());
+                Topic topic = archived.toTopic();
+                topic.setLanguage(forum.language());
+                replayTopic(topic, archived.html());
+                replayed++;
+                
+                if (extractor.isStopped()) {
+                    System.out.println("Labeler stopped, exiting replay");
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read topic archive: " + directory, e);
+        }
+        
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        System.out.printf("Replayed %d topics in %.1fs (%.1f topics/s)%n", replayed, seconds, seconds > 0 ? replayed / seconds : 0.0);
+    }
+    
+    private void replayTopic(Topic topic, String html) {
+        try {
+            topic.setDocument(Jsoup.parse(html, topic.getTopicUrl()));
+            topic.setProcessingStatus(Topic.ProcessingStatus.DOWNLOADED);
+            prepareTopic(topic);
+            labelTopic(topic);
+            topic.setProcessingStatus(Topic.ProcessingStatus.PROCESSED);
+        } catch (MaxSentencesReachedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            failTopic(topic, e);
+        }
+    }
+}
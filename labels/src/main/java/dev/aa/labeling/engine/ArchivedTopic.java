@@ -0,0 +1,26 @@
+package dev.aa.labeling.engine;
+
+import dev.aa.labeling.model.Topic;
+
+public record ArchivedTopic(
+    String sourceName,
+    String siteName,
+    String forumName,
+    String forumUrl,
+    String topicUrl,
+    String topicId,
+    String language,
+    long fetchedAt,
+    String html
+) {
+    public static ArchivedTopic of(Topic topic, String html) {
+        return new ArchivedTopic(topic.getSourceName(), topic.getSiteName(), topic.getForumName(), topic.getForumUrl(),
+            topic.getTopicUrl(), topic.getTopicId(), topic.getLanguage(), System.currentTimeMillis(), html);
+    }
+    
+    public Topic toTopic() {
+        Topic topic = new Topic(sourceName, siteName, forumName, forumUrl, topicUrl, topicId);
+        topic.setLanguage(language);
+        return topic;
+    }
+}
@@ -2,31 +2,62 @@ package dev.aa.labeling.engine;
 
 import dev.aa.labeling.config.Configuration;
 import dev.aa.labeling.config.ForumConfiguration;
+import dev.aa.labeling.config.RuntimeConfiguration;
 import dev.aa.labeling.interfaces.IfDownloader;
 import dev.aa.labeling.interfaces.IfTopicLabeler;
 import dev.aa.labeling.extractors.TopicsListExtractor;
+import dev.aa.labeling.extractors.ForumProfile;
 import dev.aa.labeling.extractors.ForumType;
 import dev.aa.labeling.extractors.TopicMetadataExtractor;
 import dev.aa.labeling.extractors.PhpBBTopicMetadataExtractor;
 import dev.aa.labeling.extractors.VBulletinTopicMetadataExtractor;
 import dev.aa.labeling.labeler.MaxSentencesReachedException;
+import dev.aa.labeling.model.Post;
 import dev.aa.labeling.model.Topic;
+import dev.aa.labeling.model.TopicListing;
 import dev.aa.labeling.Constants;
 import dev.aa.labeling.util.HtmlCleaner;
+import dev.aa.labeling.util.HttpFetchClient;
+import dev.aa.labeling.util.PathsManager;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ThreadLocalRandom;
 
 
 public class BaseDownloader implements IfDownloader {
     
     private final Runtime runtime = Runtime.getRuntime();
-    private TopicsListExtractor topicsListExtractor;
-    private TopicMetadataExtractor metadataExtractor;
-    private IfTopicLabeler extractor;
-    private Configuration config;
-    private java.util.Set<String> skipTopicUrls = java.util.Collections.emptySet();
+    protected TopicsListExtractor topicsListExtractor;
+    protected TopicMetadataExtractor metadataExtractor;
+    protected ForumProfile forumProfile;
+    private final Map<ForumType, ForumProfile> forumProfiles = new ConcurrentHashMap<>();
+    protected IfTopicLabeler extractor;
+    protected Configuration config;
+    protected java.util.Set<String> skipTopicUrls = java.util.Collections.emptySet();
+    protected PageCache pageCache;
+    protected TopicArchiveWriter archiveWriter;
+    protected CrawlStateStore crawlState;
+    protected AimdRateController rateController;
+    protected HttpFetchClient httpClient;
+    protected final Map<String, TopicListing> listingsByUrl = new ConcurrentHashMap<>();
+    private TopicsListExtractor.ListingIterator listings;
+    private int listedTopics;
+    private int unchangedTopics;
     
     @Override
     public void bindAdapter(TopicsListExtractor topicsListExtractor) {
@@ -55,6 +86,33 @@ public class BaseDownloader implements IfDownloader {
         if (topicsListExtractor == null) {
             topicsListExtractor = new TopicsListExtractor(config.site().baseUrl());
         }
+        topicsListExtractor.setParallelism(config.runtime().downloadWorkers());
+        
+        if (httpClient == null) {
+            httpClient = new HttpFetchClient(config.site());
+        }
+        topicsListExtractor.setFetchClient(httpClient);
+        // Listing pages share the topic requests' pacing, in-flight cap, throttle feedback and retries
+        topicsListExtractor.setPageFetcher(this::fetchListingPage);
+        
+        if (rateController == null) {
+            RuntimeConfiguration runtime = config.runtime();
+            TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(runtime.requestsPerSecond(), Constants.DEFAULT_RATE_LIMIT_BURST);
+            rateController = new AimdRateController(limiter, Constants.AIMD_MIN_REQUESTS_PER_SECOND, runtime.maxRequestsPerSecond(),
+                Constants.AIMD_INCREASE_STEP, Constants.AIMD_DECREASE_FACTOR, Constants.AIMD_LATENCY_FACTOR);
+        }
+        
+        if (crawlState == null && config.runtime().incrementalCrawl()) {
+            crawlState = new CrawlStateStore(
+                PathsManager.getSourcePath(config.site().siteId()).resolve(Constants.CRAWL_STATE_FILE),
+                Constants.CRAWL_STATE_SAVE_INTERVAL);
+            System.out.println("Incremental crawl: " + crawlState.size() + " known topics in " + crawlState.getFile());
+        }
+        
+        if (pageCache == null && config.runtime().pageCache()) {
+            pageCache = new PageCache(PathsManager.getSourcePath(config.site().siteId()).resolve(Constants.PAGE_CACHE_DIR));
+            System.out.println("Using page cache: " + pageCache.getRoot());
+        }
         
         List<ForumConfiguration> forums = config.forums();
         
@@ -63,93 +121,253 @@ public class BaseDownloader implements IfDownloader {
             return;
         }
         
-        for (ForumConfiguration forum : forums) {
-            if (forum == null) {
-                continue;
+        openArchive();
+        try {
+            for (ForumConfiguration forum : forums) {
+                if (forum == null) {
+                    continue;
+                }
+                
+                if (!forum.enabled()) {
+                    continue;
+                }
+                
+                processForum(forum);
             }
-            
-            if (!forum.enabled()) {
-                continue;
+        } finally {
+            closeArchive();
+            if (crawlState != null) {
+                crawlState.save();
             }
-            
-            processForum(forum);
         }
+        
+        System.out.println(httpClient.stats());
+        if (pageCache != null) {
+            System.out.println(pageCache.stats());
+        }
+    }
+    
+    private void openArchive() {
+        if (!config.runtime().archiveRawHtml() || archiveWriter != null) {
+            return;
+        }
+        Path archiveDir = archiveDirectory(config);
+        try {
+            archiveWriter = new TopicArchiveWriter(archiveDir, Constants.ARCHIVE_SEGMENT_MAX_BYTES);
+            System.out.println("Archiving topic pages to: " + archiveDir);
+        } catch (IOException e) {
+            System.err.println("Failed to open topic archive " + archiveDir + ": " + e.getMessage());
+        }
+    }
+    
+    private void closeArchive() {
+        if (archiveWriter == null) {
+            return;
+        }
+        try {
+            System.out.println("Archived " + archiveWriter.getRecordsWritten() + " topics");
+            archiveWriter.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close topic archive: " + e.getMessage());
+        }
+        archiveWriter = null;
+    }
+    
+    public static Path archiveDirectory(Configuration config) {
+        return PathsManager.getSourcePath(config.site().siteId()).resolve(Constants.ARCHIVE_DIR);
+    }
+    
+    protected void processForum(ForumConfiguration forum) {
+        Iterator<String> topicUrls = listTopics(forum);
+        DelayQueue<TopicAttempt> retries = new DelayQueue<>();
+        
+        try {
+            while (!extractor.isStopped()) {
+                // Due retries first, then new topics; wait for pending retries only at the end
+                TopicAttempt attempt = retries.poll();
+                if (attempt == null) {
+                    if (topicUrls.hasNext()) {
+                        String topicUrl = topicUrls.next();
+                        if (shouldSkip(topicUrl)) {
+                            System.out.println("Skipping already completed topic: " + topicUrl);
+                            continue;
+                        }
+                        attempt = TopicAttempt.first(topicUrl);
+                    } else if (!retries.isEmpty()) {
+                        attempt = retries.take();
+                    } else {
+                        break;
+                    }
+                }
+                
+                long retryDelayMs = attemptTopic(attempt.topicUrl(), forum, attempt.attempt());
+                if (retryDelayMs >= 0) {
+                    retries.add(attempt.retryAfter(retryDelayMs));
+                }
+            }
+            if (extractor.isStopped()) {
+                System.out.println("Labeler stopped, exiting topic loop");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeListing();
+        }
+        printListingSummary();
+        System.out.println("Request " + rateController);
     }
     
-    private void processForum(ForumConfiguration forum) {
+    /**
+     * Topic URLs of the forum as the listing pages arrive, so downloads can start before
+     * the whole listing is known. Topics unchanged since the last run are left out.
+     */
+    protected Iterator<String> listTopics(ForumConfiguration forum) {
         System.out.println("Processing forum: " + forum.forumName());
         
         this.metadataExtractor = createMetadataExtractor(forum.forumType());
+        this.forumProfile = forumProfile(forum.forumType());
+        this.listedTopics = 0;
+        this.unchangedTopics = 0;
         
-        List<String> topicUrls = topicsListExtractor.getTopicsList(
+        closeListing();
+        TopicsListExtractor.ListingIterator listings = topicsListExtractor.iterateTopicListings(
             ForumType.fromValue(forum.forumType()), 
             forum.url()
         );
-        System.out.println("Found " + topicUrls.size() + " topics");
+        this.listings = listings;
         
-        try {
-            for (String topicUrl : topicUrls) {
-                if (!skipTopicUrls.isEmpty() && skipTopicUrls.contains(topicUrl)) {
-                    System.out.println("Skipping already completed topic: " + topicUrl);
-                    continue;
+        return new Iterator<>() {
+            private String next;
+            
+            @Override
+            public boolean hasNext() {
+                while (next == null && listings.hasNext()) {
+                    TopicListing listing = listings.next();
+                    listedTopics++;
+                    listingsByUrl.put(listing.topicUrl(), listing);
+                    if (crawlState != null && crawlState.isUnchanged(listing)) {
+                        unchangedTopics++;
+                        continue;
+                    }
+                    next = listing.topicUrl();
                 }
-                processTopicWithRetry(topicUrl, forum);
-                if (extractor.isStopped()) {
-                    System.out.println("Labeler stopped, exiting topic loop");
-                    break;
+                return next != null;
+            }
+            
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String topicUrl = next;
+                next = null;
+                return topicUrl;
+            }
+        };
+    }
+    
+    /** Stops listing pages still being fetched for the forum, e.g. when the labeler stopped early. */
+    protected void closeListing() {
+        if (listings != null) {
+            listings.close();
+            listings = null;
+        }
+    }
+    
+    protected void printListingSummary() {
+        System.out.println("Listed " + listedTopics + " topics" +
+            (unchangedTopics > 0 ? ", skipped " + unchangedTopics + " unchanged since the last run" : ""));
+    }
+    
+    protected boolean shouldSkip(String topicUrl) {
+        return !skipTopicUrls.isEmpty() && skipTopicUrls.contains(topicUrl);
+    }
+    
+    /**
+     * Runs one attempt at a topic. Returns the delay before the next attempt when the fetch failed
+     * with a retryable error and retries remain, otherwise -1 (processed or given up).
+     */
+    protected long attemptTopic(String topicUrl, ForumConfiguration forum, int attempt) {
+        System.out.println("Processing topic: " + topicUrl);
+        
+        Topic topic = newTopic(topicUrl, forum);
+        
+        try {
+            try {
+                if (!fetchTopic(topic)) {
+                    return -1;
                 }
-                try {
-                    Thread.sleep(Constants.DEFAULT_REQUEST_DELAY_MS);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            } catch (Exception e) {
+                long retryDelayMs = retryDelayMs(e, attempt);
+                if (retryDelayMs >= 0) {
+                    System.err.println("Retry " + (attempt + 1) + "/" + config.runtime().maxRetries() + " in " + retryDelayMs +
+                        "ms for topic: " + topicUrl + " - " + e.getMessage());
+                    return retryDelayMs;
                 }
+                failTopic(topic, e);
+                return -1;
             }
+            prepareTopic(topic);
+            
+            labelTopic(topic);
+            topic.setProcessingStatus(Topic.ProcessingStatus.PROCESSED);
+            recordState(topic);
+            
         } catch (MaxSentencesReachedException e) {
             throw new RuntimeException(e);
+        } catch (Exception e) {
+            failTopic(topic, e);
         }
+        return -1;
     }
     
-    private void processTopicWithRetry(String topicUrl, ForumConfiguration forum) {
-        int maxRetries = config.runtime().maxRetries();
-        int attempt = 0;
-        
-        while (attempt <= maxRetries) {
+    /**
+     * Fetches a forum listing page, retrying retryable failures with the topics' backoff. Runs on the
+     * listing fetch threads, so it waits out the delay in place rather than in the retry queue.
+     */
+    protected Document fetchListingPage(String url) throws Exception {
+        for (int attempt = 0; ; attempt++) {
             try {
-                processTopic(topicUrl, forum);
-                return;
-            } catch (MaxSentencesReachedException e) {
-                System.out.println("MaxSentencesReachedException caught, rethrowing");
+                return downloadDocument(url);
+            } catch (InterruptedException e) {
                 throw e;
             } catch (Exception e) {
-                if (e instanceof MaxSentencesReachedException) {
-                    System.out.println("MaxSentencesReachedException instanceof caught, rethrowing");
-                    throw (MaxSentencesReachedException) e;
-                }
-                String errorMsg = e.getMessage();
-                boolean isRetryable = isRetryableError(errorMsg);
-                
-                if (!isRetryable) {
-                    System.err.println("Skipping topic due to non-retryable error: " + topicUrl + " - " + errorMsg);
-                    return;
-                }
-                
-                attempt++;
-                if (attempt > maxRetries) {
-                    System.err.println("Failed to process topic after " + maxRetries + " retries: " + topicUrl + " - " + errorMsg);
-                } else {
-                    System.err.println("Retry " + attempt + "/" + maxRetries + " for topic: " + topicUrl);
-                    try {
-                        Thread.sleep(1000L * attempt);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        return;
-                    }
+                long retryDelayMs = retryDelayMs(e, attempt);
+                if (retryDelayMs < 0) {
+                    throw e;
                 }
+                System.err.println("Retry " + (attempt + 1) + "/" + config.runtime().maxRetries() + " in " + retryDelayMs +
+                    "ms for listing page: " + url + " - " + e.getMessage());
+                Thread.sleep(retryDelayMs);
             }
         }
     }
     
-    private boolean isRetryableError(String errorMsg) {
+    /** Backoff before the next attempt, or -1 when the error is not retryable or retries are used up. */
+    protected long retryDelayMs(Exception e, int attempt) {
+        if (attempt >= config.runtime().maxRetries() || !isRetryable(e)) {
+            return -1;
+        }
+        long backoff = Constants.RETRY_BASE_DELAY_MS << Math.min(attempt, 16);
+        long retryAfter = e instanceof FetchException fetch ? fetch.getRetryAfterMs() : 0;
+        long jitter = ThreadLocalRandom.current().nextLong(Constants.RETRY_BASE_DELAY_MS / 2 + 1);
+        return Math.min(Constants.RETRY_MAX_DELAY_MS, Math.max(backoff, retryAfter) + jitter);
+    }
+    
+    protected boolean isRetryable(Exception e) {
+        if (e instanceof FetchException fetch) {
+            return fetch.isRetryable();
+        }
+        if (e instanceof SocketTimeoutException || e instanceof HttpTimeoutException || e instanceof ConnectException) {
+            return true;
+        }
+        return isRetryableError(e.getMessage());
+    }
+    
+    protected boolean isRetryableError(String errorMsg) {
         if (errorMsg == null) return false;
         String lower = errorMsg.toLowerCase();
         return lower.contains("status=429") || 
@@ -162,9 +380,7 @@ public class BaseDownloader implements IfDownloader {
                lower.contains("temporary failure");
     }
     
-    private void processTopic(String topicUrl, ForumConfiguration forum) {
-        System.out.println("Processing topic: " + topicUrl);
-        
+    protected Topic newTopic(String topicUrl, ForumConfiguration forum) {
         Topic topic = new Topic(
             config.site().siteId(),
             config.site().name(),
@@ -174,49 +390,104 @@ public class BaseDownloader implements IfDownloader {
             extractTopicId(topicUrl)
         );
         topic.setLanguage(forum.language());
+        return topic;
+    }
+    
+    /** Downloads the topic page; returns false when the topic was dropped for lack of memory. */
+    protected boolean fetchTopic(Topic topic) throws Exception {
+        Document document = downloadDocument(topic.getTopicUrl());
         
-        try {
-            String rawContent = downloadContent(topicUrl);
-            
-            if (!checkMemoryThreshold()) {
-                topic.addErrorFlag(Topic.ErrorFlag.MEMORY_THRESHOLD_EXCEEDED);
-                topic.setProcessingStatus(Topic.ProcessingStatus.ERROR);
-                System.out.println("Skipping topic - insufficient memory after download: " + topicUrl);
-                return;
-            }
-            
-            topic.setContent(rawContent);
-            topic.setProcessingStatus(Topic.ProcessingStatus.DOWNLOADED);
-            
-            extractMetadata(topic, rawContent);
-            
-            String cleanedContent = HtmlCleaner.cleanHtml(rawContent);
-            topic.setCleanedContent(cleanedContent);
-            topic.setProcessingStatus(Topic.ProcessingStatus.CLEANED);
-            
-            extractor.processTopic(topic);
-            topic.setProcessingStatus(Topic.ProcessingStatus.PROCESSED);
-            
-        } catch (MaxSentencesReachedException e) {
-            throw new RuntimeException(e);
-        } catch (Exception e) {
-            topic.addErrorFlag(Topic.ErrorFlag.DOWNLOAD_FAILED);
+        if (!checkMemoryThreshold()) {
+            topic.addErrorFlag(Topic.ErrorFlag.MEMORY_THRESHOLD_EXCEEDED);
             topic.setProcessingStatus(Topic.ProcessingStatus.ERROR);
-            String errorDetail = e.getMessage();
-            if (errorDetail == null) {
-                errorDetail = e.getClass().getSimpleName();
+            System.out.println("Skipping topic - insufficient memory after download: " + topic.getTopicUrl());
+            return false;
+        }
+        
+        topic.setDocument(document);
+        if (config.runtime().archiveRawHtml()) {
+            String html = document.html();
+            topic.setContent(html);
+            if (archiveWriter != null) {
+                archiveWriter.append(ArchivedTopic.of(topic, html));
             }
-            System.err.println("Error processing topic " + topicUrl + ": " + errorDetail);
         }
+        topic.setProcessingStatus(Topic.ProcessingStatus.DOWNLOADED);
+        return true;
     }
     
-    private void extractMetadata(Topic topic, String content) {
+    protected void prepareTopic(Topic topic) {
+        Document document = topic.getDocument();
+        if (document == null) {
+            document = Jsoup.parse(topic.getContent() != null ? topic.getContent() : "");
+        }
+        extractMetadata(topic, document);
+        
+        List<Post> posts = HtmlCleaner.extractPosts(document, forumProfile != null ? forumProfile : ForumProfile.generic());
+        topic.setDocument(null);
+        topic.setPosts(posts);
+        topic.setProcessingStatus(Topic.ProcessingStatus.CLEANED);
+    }
+    
+    protected void failTopic(Topic topic, Exception e) {
+        topic.addErrorFlag(Topic.ErrorFlag.DOWNLOAD_FAILED);
+        topic.setProcessingStatus(Topic.ProcessingStatus.ERROR);
+        String errorDetail = e.getMessage();
+        if (errorDetail == null) {
+            errorDetail = e.getClass().getSimpleName();
+        }
+        System.err.println("Error processing topic " + topic.getTopicUrl() + ": " + errorDetail);
+        recordState(topic);
+    }
+    
+    protected void recordState(Topic topic) {
+        // A stopped labeler may have dropped part of the topic; leave it for the next run
+        if (crawlState != null && !extractor.isStopped()) {
+            crawlState.record(topic, listingsByUrl.get(topic.getTopicUrl()));
+        }
+    }
+    
+    protected void labelTopic(Topic topic) {
+        skipLabeledPosts(topic);
+        extractor.processTopic(topic);
+    }
+    
+    /** On an incremental crawl, leaves only the posts that earlier runs have not labeled. */
+    private void skipLabeledPosts(Topic topic) {
+        if (crawlState == null || topic.getPosts() == null) {
+            return;
+        }
+        Set<String> labeled = crawlState.labeledPostIds(stateKey(topic));
+        if (labeled.isEmpty()) {
+            return;
+        }
+        List<Post> newPosts = topic.getPosts().stream()
+            .filter(post -> !labeled.contains(post.postId()))
+            .toList();
+        if (newPosts.size() < topic.getPosts().size()) {
+            System.out.println("Skipping " + (topic.getPosts().size() - newPosts.size()) + " already labeled posts, " +
+                newPosts.size() + " new: " + topic.getTopicUrl());
+            topic.setPosts(newPosts);
+        }
+    }
+    
+    private String stateKey(Topic topic) {
+        TopicListing listing = listingsByUrl.get(topic.getTopicUrl());
+        return (listing != null ? listing : TopicListing.of(topic.getTopicUrl())).key();
+    }
+    
+    private void extractMetadata(Topic topic, Document document) {
         if (metadataExtractor != null) {
-            metadataExtractor.extractMetadata(topic, content);
+            metadataExtractor.extractDocumentMetadata(topic, document);
         }
     }
     
-    private TopicMetadataExtractor createMetadataExtractor(String forumType) {
+    /** The site's profile for the forum type, shared by its forums so the learned post selector carries over. */
+    protected ForumProfile forumProfile(String forumType) {
+        return forumProfiles.computeIfAbsent(ForumType.fromValue(forumType), ForumProfile::forType);
+    }
+    
+    protected TopicMetadataExtractor createMetadataExtractor(String forumType) {
         ForumType type = ForumType.fromValue(forumType);
         return switch (type) {
             case PHPBB -> new PhpBBTopicMetadataExtractor();
@@ -224,13 +495,57 @@ public class BaseDownloader implements IfDownloader {
         };
     }
     
-    private String downloadContent(String url) throws Exception {
-        Document doc = Jsoup.connect(url)
-            .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-            .timeout(Constants.DEFAULT_HTTP_TIMEOUT_MS)
-            .followRedirects(true)
-            .get();
-        return doc.html();
+    /**
+     * Paces the request through the adaptive rate controller, then fetches the page. Throttles
+     * and timeouts are reported here; fetchDocument reports healthy responses.
+     */
+    protected Document downloadDocument(String url) throws Exception {
+        rateController.acquire(url);
+        try {
+            return fetchDocument(url);
+        } catch (FetchException e) {
+            if (e.isThrottle()) {
+                rateController.onThrottle(e.getRetryAfterMs());
+            }
+            throw e;
+        } catch (SocketTimeoutException | HttpTimeoutException e) {
+            rateController.onThrottle(0);
+            throw e;
+        }
+    }
+    
+    protected Document fetchDocument(String url) throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        PageCache.CachedPage cached = pageCache != null ? pageCache.get(url) : null;
+        if (cached != null && cached.hasValidators()) {
+            if (cached.etag() != null) {
+                headers.put("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                headers.put("If-Modified-Since", cached.lastModified());
+            }
+        }
+        
+        HttpFetchClient.Response response = httpClient.get(url, headers);
+        if (response.statusCode() >= 400) {
+            response.discard();
+            throw new FetchException(response.statusCode(),
+                AimdRateController.parseRetryAfterMs(response.header("Retry-After")), url);
+        }
+        // Time to headers is the server's share; body size and parsing would read as load
+        rateController.onSuccess(response.headersMs());
+        if (response.statusCode() == 304 && cached != null) {
+            response.discard();
+            pageCache.recordRevalidated(cached);
+            return Jsoup.parse(new ByteArrayInputStream(cached.body()), cached.charset(), url);
+        }
+        if (pageCache == null) {
+            return response.parse();
+        }
+        
+        byte[] body = response.bodyAsBytes();
+        pageCache.put(url, body, response.charset(), response.header("ETag"), response.header("Last-Modified"));
+        return Jsoup.parse(new ByteArrayInputStream(body), response.charset(), response.url());
     }
     
     private boolean checkMemoryThreshold() {
@@ -240,19 +555,6 @@ public class BaseDownloader implements IfDownloader {
     }
     
     private String extractTopicId(String topicUrl) {
-        // Match t=123 (topic) or p=123 (post) - prefer t over p
-        String[] parts = topicUrl.split("[?&]");
-        for (String part : parts) {
-            if (part.startsWith("t=")) {
-                return part.substring(2);
-            }
-        }
-        // If no t= found, check for p= (post ID - less ideal)
-        for (String part : parts) {
-            if (part.startsWith("p=")) {
-                return part.substring(2);
-            }
-        }
-        return "";
+        return TopicListing.topicIdOf(topicUrl);
     }
 }
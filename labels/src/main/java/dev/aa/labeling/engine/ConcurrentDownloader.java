@@ -0,0 +1,222 @@
+package dev.aa.labeling.engine;
+
+import dev.aa.labeling.Constants;
+import dev.aa.labeling.config.ForumConfiguration;
+import dev.aa.labeling.config.RuntimeConfiguration;
+import dev.aa.labeling.labeler.MaxSentencesReachedException;
+import dev.aa.labeling.model.Topic;
+import org.jsoup.nodes.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs each forum through a fetch → clean → label pipeline joined by bounded queues.
+ * Fetch workers are paced by the adaptive rate controller and capped by an in-flight semaphore;
+ * failed fetches wait in a delayed retry queue while other topics keep moving;
+ * clean workers do metadata extraction and HTML cleaning; a single label worker feeds the
+ * labeler, which also writes its output and is not thread-safe.
+ */
+public class ConcurrentDownloader extends BaseDownloader {
+    
+    private Semaphore inFlight;
+    private volatile List<StageMetrics> stageMetrics = List.of();
+    
+    @Override
+    protected void processForum(ForumConfiguration forum) {
+        RuntimeConfiguration runtime = config.runtime();
+        this.inFlight = new Semaphore(runtime.maxInFlightRequests(), true);
+        
+        Iterator<String> topicUrls = listTopics(forum);
+        System.out.println("Pipeline: " + runtime.downloadWorkers() + " fetch, " + runtime.cleanWorkers() +
+            " clean, 1 label worker(s); " + runtime.requestsPerSecond() + ".." + runtime.maxRequestsPerSecond() + " req/s per host, max " +
+            runtime.maxInFlightRequests() + " in flight, queue capacity " + runtime.queueCapacity());
+        
+        int capacity = runtime.queueCapacity();
+        BlockingQueue<TopicAttempt> urls = new ArrayBlockingQueue<>(capacity);
+        DelayQueue<TopicAttempt> retries = new DelayQueue<>();
+        // Topics handed to the fetch stage and not yet fetched or given up, including pending retries
+        AtomicInteger outstanding = new AtomicInteger();
+        BlockingQueue<Topic> fetched = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<Topic> cleaned = new ArrayBlockingQueue<>(capacity);
+        AtomicInteger completed = new AtomicInteger();
+        
+        PipelineStage<TopicAttempt, Topic> fetch = new PipelineStage<>("fetch", runtime.downloadWorkers(), urls, fetched,
+            attempt -> fetchStage(attempt, forum, retries, outstanding));
+        PipelineStage<Topic, Topic> clean = new PipelineStage<>("clean", runtime.cleanWorkers(), fetched, cleaned,
+            this::cleanStage);
+        PipelineStage<Topic, Topic> label = new PipelineStage<>("label", 1, cleaned, null, topic -> {
+            labelStage(topic);
+            completed.incrementAndGet();
+            return topic;
+        });
+        List<PipelineStage<?, ?>> stages = List.of(fetch, clean, label);
+        this.stageMetrics = Collections.unmodifiableList(new ArrayList<>(
+            List.of(fetch.metrics(), clean.metrics(), label.metrics())));
+        
+        AtomicBoolean sourceDone = new AtomicBoolean(false);
+        fetch.start(sourceDone::get);
+        clean.start(fetch::isFinished);
+        label.start(clean::isFinished);
+        
+        try {
+            long nextReport = System.currentTimeMillis() + Constants.PIPELINE_METRICS_INTERVAL_MS;
+            boolean halted = false;
+            while (!halted) {
+                // Due retries go first; new topics keep flowing while other retries wait
+                TopicAttempt attempt = retries.poll();
+                if (attempt == null && topicUrls.hasNext()) {
+                    String topicUrl = topicUrls.next();
+                    if (shouldSkip(topicUrl)) {
+                        System.out.println("Skipping already completed topic: " + topicUrl);
+                        continue;
+                    }
+                    attempt = TopicAttempt.first(topicUrl);
+                    outstanding.incrementAndGet();
+                }
+                if (attempt == null) {
+                    if (outstanding.get() == 0) {
+                        break;
+                    }
+                    attempt = retries.poll(1, TimeUnit.SECONDS);
+                }
+                if (attempt != null) {
+                    while (!urls.offer(attempt, 1, TimeUnit.SECONDS)) {
+                        if (isHalted(stages)) {
+                            break;
+                        }
+                    }
+                }
+                halted = isHalted(stages);
+                if (System.currentTimeMillis() >= nextReport) {
+                    printMetrics();
+                    nextReport = System.currentTimeMillis() + Constants.PIPELINE_METRICS_INTERVAL_MS;
+                }
+            }
+            sourceDone.set(true);
+            
+            while (!label.awaitFinished(1, TimeUnit.SECONDS)) {
+                if (isHalted(stages)) {
+                    break;
+                }
+                if (System.currentTimeMillis() >= nextReport) {
+                    printMetrics();
+                    nextReport = System.currentTimeMillis() + Constants.PIPELINE_METRICS_INTERVAL_MS;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sourceDone.set(true);
+            stages.forEach(PipelineStage::cancel);
+            closeListing();
+        }
+        
+        printMetrics();
+        printListingSummary();
+        System.out.println("Completed " + completed.get() + " topics");
+        
+        for (PipelineStage<?, ?> stage : stages) {
+            Throwable error = stage.getFatalError();
+            if (error instanceof MaxSentencesReachedException) {
+                throw new RuntimeException(error);
+            }
+            if (error != null) {
+                System.err.println("Pipeline stage " + stage.metrics().getName() + " stopped: " + error);
+            }
+        }
+    }
+    
+    private boolean isHalted(List<PipelineStage<?, ?>> stages) {
+        if (extractor.isStopped()) {
+            System.out.println("Labeler stopped, cancelling remaining topics");
+            return true;
+        }
+        return stages.stream().anyMatch(stage -> stage.getFatalError() != null);
+    }
+    
+    private Topic fetchStage(TopicAttempt attempt, ForumConfiguration forum, DelayQueue<TopicAttempt> retries,
+                             AtomicInteger outstanding) throws InterruptedException {
+        String topicUrl = attempt.topicUrl();
+        System.out.println("Processing topic: " + topicUrl);
+        Topic topic = newTopic(topicUrl, forum);
+        boolean rescheduled = false;
+        
+        try {
+            return fetchTopic(topic) ? topic : null;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            long retryDelayMs = retryDelayMs(e, attempt.attempt());
+            if (retryDelayMs >= 0) {
+                System.err.println("Retry " + (attempt.attempt() + 1) + "/" + config.runtime().maxRetries() + " in " +
+                    retryDelayMs + "ms for topic: " + topicUrl + " - " + e.getMessage());
+                retries.add(attempt.retryAfter(retryDelayMs));
+                rescheduled = true;
+                return null;
+            }
+            failTopic(topic, e);
+            return null;
+        } finally {
+            if (!rescheduled) {
+                outstanding.decrementAndGet();
+            }
+        }
+    }
+    
+    private Topic cleanStage(Topic topic) {
+        try {
+            prepareTopic(topic);
+            return topic;
+        } catch (Exception e) {
+            failTopic(topic, e);
+            return null;
+        }
+    }
+    
+    private void labelStage(Topic topic) {
+        if (extractor.isStopped()) {
+            return;
+        }
+        try {
+            labelTopic(topic);
+            topic.setProcessingStatus(Topic.ProcessingStatus.PROCESSED);
+            recordState(topic);
+        } catch (MaxSentencesReachedException e) {
+            throw e;
+        } catch (Exception e) {
+            failTopic(topic, e);
+        }
+    }
+    
+    /** Metrics of the stages of the forum being processed (or the last one). */
+    public List<StageMetrics> getStageMetrics() {
+        return stageMetrics;
+    }
+    
+    private void printMetrics() {
+        for (StageMetrics metrics : stageMetrics) {
+            System.out.println("  " + metrics);
+        }
+        System.out.println("  " + rateController);
+    }
+    
+    @Override
+    protected Document fetchDocument(String url) throws Exception {
+        inFlight.acquire();
+        try {
+            return super.fetchDocument(url);
+        } finally {
+            inFlight.release();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package dev.aa.labeling.engine;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.aa.labeling.model.Topic;
+import dev.aa.labeling.model.TopicListing;
+import dev.aa.labeling.util.FingerprintUtil;
+import dev.aa.labeling.util.PathsManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent per-topic crawl state, keyed by topic id. Remembers what the forum listing showed
+ * (reply count, last post) when the topic was last processed, plus the cleaned-content
+ * fingerprint, status and the ids of labeled posts, so later runs can skip topics whose listing
+ * has not changed and label only the new posts of those that grew.
+ */
+public class CrawlStateStore {
+    
+    public record TopicState(
+        String topicId,
+        String topicUrl,
+        int replyCount,
+        String lastPost,
+        long fingerprint,
+        String status,
+        long updatedAt,
+        Set<String> postIds
+    ) {}
+    
+    private final Path file;
+    private final int saveInterval;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<String, TopicState> states = new ConcurrentHashMap<>();
+    private final AtomicInteger unsavedChanges = new AtomicInteger();
+    
+    public CrawlStateStore(Path file, int saveInterval) {
+        this.file = file;
+        this.saveInterval = saveInterval;
+        load();
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    public int size() {
+        return states.size();
+    }
+    
+    public TopicState get(String key) {
+        return states.get(key);
+    }
+    
+    /**
+     * True when the topic was processed successfully before and the listing still shows the
+     * same reply count and last post. Listings without either value are never considered unchanged.
+     */
+    public boolean isUnchanged(TopicListing listing) {
+        if (listing == null || !listing.hasActivity()) {
+            return false;
+        }
+        TopicState state = states.get(listing.key());
+        return state != null
+            && Topic.ProcessingStatus.PROCESSED.name().equals(state.status())
+            && state.replyCount() == listing.replyCount()
+            && Objects.equals(state.lastPost(), listing.lastPost());
+    }
+    
+    /** Ids of posts labeled by earlier runs; empty when unknown. */
+    public Set<String> labeledPostIds(String key) {
+        TopicState state = states.get(key);
+        return state != null && state.postIds() != null ? state.postIds() : Set.of();
+    }
+    
+    /** Records the topic; on success its current posts are added to the posts labeled before. */
+    public void record(Topic topic, TopicListing listing) {
+        if (listing == null) {
+            listing = TopicListing.of(topic.getTopicUrl());
+        }
+        Set<String> postIds = new TreeSet<>(labeledPostIds(listing.key()));
+        if (topic.getProcessingStatus() == Topic.ProcessingStatus.PROCESSED && topic.getPosts() != null) {
+            topic.getPosts().forEach(post -> postIds.add(post.postId()));
+        }
+        TopicState state = new TopicState(
+            listing.key(),
+            topic.getTopicUrl(),
+            listing.replyCount(),
+            listing.lastPost(),
+            FingerprintUtil.computeFingerprint(topic.getCleanedContent()),
+            topic.getProcessingStatus().name(),
+            System.currentTimeMillis(),
+            postIds
+        );
+        states.put(listing.key(), state);
+        
+        if (unsavedChanges.incrementAndGet() >= saveInterval) {
+            save();
+        }
+    }
+    
+    public synchronized void save() {
+        unsavedChanges.set(0);
+        try {
+            PathsManager.ensureDirectoryExists(file.toAbsolutePath().getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), new java.util.TreeMap<>(states));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to save crawl state " + file + ": " + e.getMessage());
+        }
+    }
+    
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            Map<String, TopicState> loaded = objectMapper.readValue(file.toFile(), new TypeReference<Map<String, TopicState>>() {});
+            states.putAll(loaded);
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable crawl state " + file + ": " + e.getMessage());
+        }
+    }
+}
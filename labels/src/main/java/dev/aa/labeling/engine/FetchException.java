@@ -0,0 +1,34 @@
+package dev.aa.labeling.engine;
+
+import java.io.IOException;
+
+/** HTTP error response for a topic or listing request, with the server's Retry-After if any. */
+public class FetchException extends IOException {
+    private static final long serialVersionUID = 1L;
+    private final int statusCode;
+    private final long retryAfterMs;
+    
+    public FetchException(int statusCode, long retryAfterMs, String url) {
+        super("HTTP " + statusCode + " fetching " + url);
+        this.statusCode = statusCode;
+        this.retryAfterMs = retryAfterMs;
+    }
+    
+    public int getStatusCode() {
+        return statusCode;
+    }
+    
+    /** Delay requested by Retry-After, or 0 when the response had none. */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+    
+    /** 429 and 503 mean the server wants us to slow down. */
+    public boolean isThrottle() {
+        return statusCode == 429 || statusCode == 503;
+    }
+    
+    public boolean isRetryable() {
+        return isThrottle() || statusCode == 502 || statusCode == 504;
+    }
+}
@@ -0,0 +1,173 @@
+package dev.aa.labeling.engine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.aa.labeling.util.PathsManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk cache of raw topic pages keyed by canonical URL. Each page is stored as a gzipped
+ * body plus a small JSON file with its ETag/Last-Modified, so later runs can revalidate with
+ * a conditional request and reuse the body on 304 Not Modified.
+ */
+public class PageCache {
+    
+    public record CachedPage(String url, byte[] body, String charset, String etag, String lastModified) {
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+    }
+    
+    private record PageMeta(String url, String charset, String etag, String lastModified, long fetchedAt) {}
+    
+    private final Path root;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong revalidated = new AtomicLong();
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong bytesReused = new AtomicLong();
+    
+    public PageCache(Path root) {
+        this.root = root;
+    }
+    
+    public Path getRoot() {
+        return root;
+    }
+    
+    public CachedPage get(String url) {
+        Path bodyPath = bodyPath(url);
+        Path metaPath = metaPath(url);
+        if (!Files.exists(bodyPath) || !Files.exists(metaPath)) {
+            return null;
+        }
+        try {
+            PageMeta meta = objectMapper.readValue(metaPath.toFile(), PageMeta.class);
+            byte[] body;
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(bodyPath))) {
+                body = in.readAllBytes();
+            }
+            return new CachedPage(meta.url(), body, meta.charset(), meta.etag(), meta.lastModified());
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable page cache entry for " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    public void put(String url, byte[] body, String charset, String etag, String lastModified) {
+        Path bodyPath = bodyPath(url);
+        Path metaPath = metaPath(url);
+        PathsManager.ensureDirectoryExists(bodyPath.getParent());
+        try {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (OutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(body);
+            }
+            writeAtomically(bodyPath, compressed.toByteArray());
+            PageMeta meta = new PageMeta(canonicalUrl(url), charset, etag, lastModified, System.currentTimeMillis());
+            writeAtomically(metaPath, objectMapper.writeValueAsBytes(meta));
+            stored.incrementAndGet();
+        } catch (IOException e) {
+            System.err.println("Failed to cache page " + url + ": " + e.getMessage());
+        }
+    }
+    
+    /** Records a 304 answered from the cache. */
+    public void recordRevalidated(CachedPage page) {
+        revalidated.incrementAndGet();
+        bytesReused.addAndGet(page.body().length);
+    }
+    
+    public long getRevalidatedCount() { return revalidated.get(); }
+    public long getStoredCount() { return stored.get(); }
+    public long getBytesReused() { return bytesReused.get(); }
+    
+    public String stats() {
+        return "Page cache: " + revalidated.get() + " not modified (" + bytesReused.get() / 1024 + " KB reused), " +
+            stored.get() + " stored";
+    }
+    
+    private static void writeAtomically(Path target, byte[] data) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, data);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+    
+    private Path bodyPath(String url) {
+        String key = key(url);
+        return root.resolve(key.substring(0, 2)).resolve(key + ".html.gz");
+    }
+    
+    private Path metaPath(String url) {
+        String key = key(url);
+        return root.resolve(key.substring(0, 2)).resolve(key + ".json");
+    }
+    
+    static String key(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(digest.digest(canonicalUrl(url).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+    
+    /**
+     * Lower-cases scheme and host, drops the fragment, default port and phpBB session id,
+     * and sorts query parameters so equivalent topic URLs share one cache entry.
+     */
+    public static String canonicalUrl(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url.trim());
+        } catch (IllegalArgumentException e) {
+            return url.trim();
+        }
+        if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+            return url.trim();
+        }
+        
+        String scheme = uri.getScheme().toLowerCase();
+        StringBuilder canonical = new StringBuilder(scheme).append("://");
+        canonical.append(uri.getHost() != null ? uri.getHost().toLowerCase() : uri.getRawAuthority().toLowerCase());
+        int port = uri.getPort();
+        if (port != -1 && !(port == 80 && scheme.equals("http")) && !(port == 443 && scheme.equals("https"))) {
+            canonical.append(':').append(port);
+        }
+        canonical.append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+        
+        if (uri.getRawQuery() != null) {
+            List<String> params = new ArrayList<>();
+            for (String param : uri.getRawQuery().split("&")) {
+                if (param.isEmpty() || param.startsWith("sid=")) {
+                    continue;
+                }
+                params.add(param);
+            }
+            params.sort(null);
+            if (!params.isEmpty()) {
+                canonical.append('?').append(String.join("&", params));
+            }
+        }
+        return canonical.toString();
+    }
+}
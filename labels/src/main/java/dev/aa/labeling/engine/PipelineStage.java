@@ -0,0 +1,124 @@
+package dev.aa.labeling.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One stage of the download pipeline: a fixed set of worker threads taking items from a bounded
+ * input queue and putting results on the next stage's queue. A full output queue blocks the
+ * workers, which is what propagates backpressure upstream. A task returning null drops the item;
+ * a checked exception fails just that item, an unchecked one stops the stage.
+ */
+class PipelineStage<I, O> {
+    
+    @FunctionalInterface
+    interface Task<I, O> {
+        O apply(I item) throws Exception;
+    }
+    
+    private static final long POLL_MS = 100;
+    
+    private final String name;
+    private final int workers;
+    private final BlockingQueue<I> input;
+    private final BlockingQueue<O> output;
+    private final Task<I, O> task;
+    private final StageMetrics metrics;
+    private final CountDownLatch finished;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean cancelled = false;
+    private volatile Throwable fatalError;
+    
+    PipelineStage(String name, int workers, BlockingQueue<I> input, BlockingQueue<O> output, Task<I, O> task) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Stage " + name + " needs at least one worker");
+        }
+        this.name = name;
+        this.workers = workers;
+        this.input = input;
+        this.output = output;
+        this.task = task;
+        this.metrics = new StageMetrics(name, workers, input);
+        this.finished = new CountDownLatch(workers);
+    }
+    
+    /** Starts the workers; they exit once {@code upstreamDone} reports true and the input queue is drained. */
+    void start(BooleanSupplier upstreamDone) {
+        metrics.markStarted();
+        for (int i = 1; i <= workers; i++) {
+            Thread thread = new Thread(() -> runWorker(upstreamDone), "pipeline-" + name + "-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+    
+    private void runWorker(BooleanSupplier upstreamDone) {
+        try {
+            while (!cancelled) {
+                I item = input.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (item == null) {
+                    if (upstreamDone.getAsBoolean() && input.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                
+                long started = System.nanoTime();
+                O result;
+                try {
+                    result = task.apply(item);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    metrics.recordFailed(System.nanoTime() - started);
+                    fatalError = e;
+                    cancelled = true;
+                    break;
+                } catch (Exception e) {
+                    metrics.recordFailed(System.nanoTime() - started);
+                    System.err.println("Stage " + name + " failed on item: " + e.getMessage());
+                    continue;
+                }
+                metrics.recordProcessed(System.nanoTime() - started, result != null);
+                
+                if (result != null && output != null) {
+                    output.put(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finished.countDown();
+            if (finished.getCount() == 0) {
+                metrics.markFinished();
+            }
+        }
+    }
+    
+    boolean isFinished() {
+        return finished.getCount() == 0;
+    }
+    
+    boolean awaitFinished(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+    
+    void cancel() {
+        cancelled = true;
+        threads.forEach(Thread::interrupt);
+    }
+    
+    /** Unchecked exception that stopped the stage, or null. */
+    Throwable getFatalError() {
+        return fatalError;
+    }
+    
+    StageMetrics metrics() {
+        return metrics;
+    }
+}
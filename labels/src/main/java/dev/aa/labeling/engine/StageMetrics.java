@@ -0,0 +1,83 @@
+package dev.aa.labeling.engine;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters for one pipeline stage: input queue depth, items processed/dropped/failed,
+ * throughput since start and how busy the stage workers are.
+ */
+public class StageMetrics {
+    
+    private final String name;
+    private final int workers;
+    private final BlockingQueue<?> input;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private volatile long startNanos;
+    private volatile long endNanos;
+    
+    StageMetrics(String name, int workers, BlockingQueue<?> input) {
+        this.name = name;
+        this.workers = workers;
+        this.input = input;
+    }
+    
+    void markStarted() {
+        startNanos = System.nanoTime();
+    }
+    
+    void markFinished() {
+        endNanos = System.nanoTime();
+    }
+    
+    void recordProcessed(long nanos, boolean forwarded) {
+        busyNanos.addAndGet(nanos);
+        processed.incrementAndGet();
+        if (!forwarded) {
+            dropped.incrementAndGet();
+        }
+    }
+    
+    void recordFailed(long nanos) {
+        busyNanos.addAndGet(nanos);
+        failed.incrementAndGet();
+    }
+    
+    public String getName() { return name; }
+    public int getWorkers() { return workers; }
+    public int getQueueDepth() { return input.size(); }
+    public int getQueueCapacity() { return input.size() + input.remainingCapacity(); }
+    public long getProcessed() { return processed.get(); }
+    public long getDropped() { return dropped.get(); }
+    public long getFailed() { return failed.get(); }
+    
+    /** Items per second since the stage started. */
+    public double getThroughput() {
+        double seconds = elapsedNanos() / 1_000_000_000.0;
+        return seconds > 0 ? (processed.get() + failed.get()) / seconds : 0.0;
+    }
+    
+    /** Share of worker time spent inside the stage task, 0..1. */
+    public double getUtilization() {
+        long elapsed = elapsedNanos();
+        return elapsed > 0 ? Math.min(1.0, (double) busyNanos.get() / ((double) elapsed * workers)) : 0.0;
+    }
+    
+    private long elapsedNanos() {
+        if (startNanos == 0) {
+            return 0;
+        }
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return end - startNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s[workers=%d, queue=%d/%d, processed=%d, dropped=%d, failed=%d, %.2f/s, busy=%.0f%%]",
+            name, workers, getQueueDepth(), getQueueCapacity(), getProcessed(), getDropped(), getFailed(),
+            getThroughput(), getUtilization() * 100);
+    }
+}
@@ -0,0 +1,87 @@
+package dev.aa.labeling.engine;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-host token bucket. Each host refills at {@code permitsPerSecond} up to {@code burst} tokens;
+ * {@link #acquire(String)} blocks the caller until the host has a token to spend.
+ */
+public class TokenBucketRateLimiter {
+    
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private volatile double permitsPerSecond;
+    private final int burst;
+    
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1: " + burst);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+    
+    public void acquire(String host) throws InterruptedException {
+        Bucket bucket = buckets.computeIfAbsent(host != null ? host : "", k -> new Bucket(burst));
+        while (true) {
+            long waitNanos = bucket.tryTake(permitsPerSecond, burst);
+            if (waitNanos <= 0) {
+                return;
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+    
+    public void acquireForUrl(String url) throws InterruptedException {
+        acquire(hostOf(url));
+    }
+    
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+    
+    /** Changes the refill rate for every host; tokens already in the buckets are kept. */
+    public void setPermitsPerSecond(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+    }
+    
+    public static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+    
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+        
+        private Bucket(int burst) {
+            this.tokens = burst;
+            this.lastRefillNanos = System.nanoTime();
+        }
+        
+        /** Takes a token and returns 0, or returns the nanos to wait before one is available. */
+        private synchronized long tryTake(double permitsPerSecond, int burst) {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerSecond / 1_000_000_000.0);
+            lastRefillNanos = now;
+            
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return 0;
+            }
+            return Math.max(1L, (long) Math.ceil((1.0 - tokens) * 1_000_000_000.0 / permitsPerSecond));
+        }
+    }
+}
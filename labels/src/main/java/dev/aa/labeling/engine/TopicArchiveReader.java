@@ -0,0 +1,183 @@
+package dev.aa.labeling.engine;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads segments written by {@link TopicArchiveWriter}. Entries come from the index files;
+ * a segment whose index is missing is scanned record by record, stopping at a truncated tail.
+ */
+public class TopicArchiveReader implements AutoCloseable {
+    
+    public record IndexEntry(int segment, long offset, int length, String topicUrl) {}
+    
+    private final Path directory;
+    private final Map<Integer, RandomAccessFile> openSegments = new HashMap<>();
+    
+    public TopicArchiveReader(Path directory) {
+        this.directory = directory;
+    }
+    
+    /** Every record in write order, including older copies of re-fetched topics. */
+    public List<IndexEntry> entries() throws IOException {
+        List<IndexEntry> entries = new ArrayList<>();
+        for (int segment : segmentNumbers(directory)) {
+            Path indexPath = directory.resolve(indexFileName(segment));
+            if (Files.exists(indexPath)) {
+                entries.addAll(readIndex(segment, indexPath));
+            } else {
+                entries.addAll(scanSegment(segment));
+            }
+        }
+        return entries;
+    }
+    
+    /** The newest record per topic URL, in segment/offset order so reads stay sequential. */
+    public List<IndexEntry> latestEntries() throws IOException {
+        Map<String, IndexEntry> latest = new LinkedHashMap<>();
+        for (IndexEntry entry : entries()) {
+            latest.remove(entry.topicUrl());
+            latest.put(entry.topicUrl(), entry);
+        }
+        List<IndexEntry> ordered = new ArrayList<>(latest.values());
+        ordered.sort(Comparator.comparingInt(IndexEntry::segment).thenComparingLong(IndexEntry::offset));
+        return ordered;
+    }
+    
+    public ArchivedTopic read(IndexEntry entry) throws IOException {
+        RandomAccessFile file = openSegments.get(entry.segment());
+        if (file == null) {
+            file = new RandomAccessFile(directory.resolve(segmentFileName(entry.segment())).toFile(), "r");
+            openSegments.put(entry.segment(), file);
+        }
+        file.seek(entry.offset());
+        int magic = file.readInt();
+        int length = file.readInt();
+        if (magic != TopicArchiveWriter.RECORD_MAGIC || length != entry.length()) {
+            throw new IOException("Corrupt archive record at " + segmentFileName(entry.segment()) + ":" + entry.offset());
+        }
+        byte[] payload = new byte[length];
+        file.readFully(payload);
+        return decode(payload);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        for (RandomAccessFile file : openSegments.values()) {
+            file.close();
+        }
+        openSegments.clear();
+    }
+    
+    private static List<IndexEntry> readIndex(int segment, Path indexPath) throws IOException {
+        List<IndexEntry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(indexPath, StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t", 3);
+            if (parts.length < 3) {
+                continue;
+            }
+            try {
+                entries.add(new IndexEntry(segment, Long.parseLong(parts[0]), Integer.parseInt(parts[1]), parts[2]));
+            } catch (NumberFormatException e) {
+                // Partially written last line after a crash
+            }
+        }
+        return entries;
+    }
+    
+    private List<IndexEntry> scanSegment(int segment) throws IOException {
+        List<IndexEntry> entries = new ArrayList<>();
+        Path segmentPath = directory.resolve(segmentFileName(segment));
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentPath)))) {
+            long offset = 0;
+            while (true) {
+                int magic;
+                int length;
+                byte[] payload;
+                try {
+                    magic = in.readInt();
+                    length = in.readInt();
+                    if (magic != TopicArchiveWriter.RECORD_MAGIC || length < 0) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                entries.add(new IndexEntry(segment, offset, length, decode(payload).topicUrl()));
+                offset += 8 + length;
+            }
+        }
+        return entries;
+    }
+    
+    static ArchivedTopic decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            String sourceName = readString(in);
+            String siteName = readString(in);
+            String forumName = readString(in);
+            String forumUrl = readString(in);
+            String topicUrl = readString(in);
+            String topicId = readString(in);
+            String language = readString(in);
+            long fetchedAt = in.readLong();
+            String html = readString(in);
+            return new ArchivedTopic(sourceName, siteName, forumName, forumUrl, topicUrl, topicId, language, fetchedAt, html);
+        }
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+    
+    static String segmentFileName(int segment) {
+        return String.format("%s%06d%s", TopicArchiveWriter.SEGMENT_PREFIX, segment, TopicArchiveWriter.SEGMENT_SUFFIX);
+    }
+    
+    static String indexFileName(int segment) {
+        return String.format("%s%06d%s", TopicArchiveWriter.SEGMENT_PREFIX, segment, TopicArchiveWriter.INDEX_SUFFIX);
+    }
+    
+    static List<Integer> segmentNumbers(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(TopicArchiveWriter.SEGMENT_PREFIX) && name.endsWith(TopicArchiveWriter.SEGMENT_SUFFIX))
+                .map(name -> name.substring(TopicArchiveWriter.SEGMENT_PREFIX.length(), name.length() - TopicArchiveWriter.SEGMENT_SUFFIX.length()))
+                .filter(number -> number.chars().allMatch(Character::isDigit) && !number.isEmpty())
+                .map(Integer::parseInt)
+                .sorted()
+                .toList();
+        }
+    }
+    
+    static int lastSegmentNumber(Path directory) throws IOException {
+        List<Integer> numbers = segmentNumbers(directory);
+        return numbers.isEmpty() ? 0 : numbers.get(numbers.size() - 1);
+    }
+}
@@ -0,0 +1,121 @@
+package dev.aa.labeling.engine;
+
+import dev.aa.labeling.util.PathsManager;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends fetched topic pages to compressed segment files. Every record is
+ * {@code [magic][length][gzip payload]} and its offset is written to the segment's index file.
+ * Each writer starts a new segment and rolls over once the segment grows past the size limit;
+ * existing segments are never modified.
+ */
+public class TopicArchiveWriter implements AutoCloseable {
+    
+    static final int RECORD_MAGIC = 0x54415243; // "TARC"
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".arc";
+    static final String INDEX_SUFFIX = ".idx";
+    
+    private final Path directory;
+    private final long segmentMaxBytes;
+    private int segmentNumber;
+    private DataOutputStream segment;
+    private BufferedWriter index;
+    private long segmentOffset;
+    private long recordsWritten;
+    
+    public TopicArchiveWriter(Path directory, long segmentMaxBytes) throws IOException {
+        this.directory = directory;
+        this.segmentMaxBytes = segmentMaxBytes;
+        PathsManager.ensureDirectoryExists(directory);
+        this.segmentNumber = TopicArchiveReader.lastSegmentNumber(directory);
+        openNextSegment();
+    }
+    
+    public synchronized void append(ArchivedTopic topic) throws IOException {
+        byte[] payload = encode(topic);
+        if (segmentOffset > 0 && segmentOffset + payload.length + 8 > segmentMaxBytes) {
+            closeSegment();
+            openNextSegment();
+        }
+        
+        long offset = segmentOffset;
+        segment.writeInt(RECORD_MAGIC);
+        segment.writeInt(payload.length);
+        segment.write(payload);
+        segment.flush();
+        segmentOffset += 8 + payload.length;
+        
+        index.write(offset + "\t" + payload.length + "\t" + topic.topicUrl());
+        index.newLine();
+        index.flush();
+        recordsWritten++;
+    }
+    
+    public synchronized long getRecordsWritten() {
+        return recordsWritten;
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        closeSegment();
+    }
+    
+    private void openNextSegment() throws IOException {
+        segmentNumber++;
+        Path segmentPath = directory.resolve(TopicArchiveReader.segmentFileName(segmentNumber));
+        Path indexPath = directory.resolve(TopicArchiveReader.indexFileName(segmentNumber));
+        segment = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(segmentPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+        index = Files.newBufferedWriter(indexPath, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentOffset = 0;
+    }
+    
+    private void closeSegment() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+        if (index != null) {
+            index.close();
+            index = null;
+        }
+    }
+    
+    static byte[] encode(ArchivedTopic topic) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            writeString(out, topic.sourceName());
+            writeString(out, topic.siteName());
+            writeString(out, topic.forumName());
+            writeString(out, topic.forumUrl());
+            writeString(out, topic.topicUrl());
+            writeString(out, topic.topicId());
+            writeString(out, topic.language());
+            out.writeLong(topic.fetchedAt());
+            writeString(out, topic.html());
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(data.length);
+        out.write(data);
+    }
+}
@@ -0,0 +1,44 @@
+package dev.aa.labeling.engine;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/** One try at a topic; retries wait in a DelayQueue until {@code readyAtNanos}. */
+final class TopicAttempt implements Delayed {
+    
+    private final String topicUrl;
+    private final int attempt;
+    private final long readyAtNanos;
+    
+    private TopicAttempt(String topicUrl, int attempt, long readyAtNanos) {
+        this.topicUrl = topicUrl;
+        this.attempt = attempt;
+        this.readyAtNanos = readyAtNanos;
+    }
+    
+    static TopicAttempt first(String topicUrl) {
+        return new TopicAttempt(topicUrl, 0, System.nanoTime());
+    }
+    
+    TopicAttempt retryAfter(long delayMs) {
+        return new TopicAttempt(topicUrl, attempt + 1, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs));
+    }
+    
+    String topicUrl() {
+        return topicUrl;
+    }
+    
+    int attempt() {
+        return attempt;
+    }
+    
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,48 @@
+package dev.aa.labeling.extractors;
+
+import dev.aa.labeling.util.SelectorChain;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Selectors used to split a topic page into posts, parsed once per forum type. Profiles from
+ * forType have their own post content chain that remembers the selector matching the site's
+ * pages, so keep one per site; the generic profile always walks the chain in order.
+ */
+public record ForumProfile(ForumType type, SelectorChain postContent, Evaluator postAuthor, Evaluator postTime) {
+    
+    private static final SelectorChain POST_CONTENT = SelectorChain.of(
+        "div.postbody > div.content",
+        "div.postbody div.content",
+        "div.content",
+        ".postbody .content",
+        "div.postbody",
+        "div.message",
+        "article.post"
+    );
+    
+    private static final Map<ForumType, Evaluator> AUTHORS = new EnumMap<>(Map.of(
+        ForumType.PHPBB, QueryParser.parse(".author .username, .author .username-coloured, .author strong, .username, .username-coloured"),
+        ForumType.VBULLETIN, QueryParser.parse(".username, .bigusername, .postauthor")
+    ));
+    
+    private static final Evaluator ANY_AUTHOR = QueryParser.parse(
+        ".author .username, .author .username-coloured, .author strong, .username, .username-coloured, .postauthor, .bigusername");
+    
+    private static final Evaluator POST_TIME = QueryParser.parse("[datetime]");
+    
+    private static final ForumProfile GENERIC = new ForumProfile(null, POST_CONTENT, ANY_AUTHOR, POST_TIME);
+    
+    /** A new profile for one site of the given forum type. */
+    public static ForumProfile forType(ForumType type) {
+        return new ForumProfile(type, POST_CONTENT.remembering(), AUTHORS.get(type), POST_TIME);
+    }
+    
+    /** Shared profile for pages of unknown type; remembers nothing. */
+    public static ForumProfile generic() {
+        return GENERIC;
+    }
+}
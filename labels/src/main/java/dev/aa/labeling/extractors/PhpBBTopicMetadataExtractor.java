@@ -1,10 +1,11 @@
 package dev.aa.labeling.extractors;
 
 import dev.aa.labeling.model.Topic;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -20,21 +21,23 @@ public class PhpBBTopicMetadataExtractor implements TopicMetadataExtractor {
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
     
+    private static final Evaluator POST_BODY = QueryParser.parse("div.postbody");
+    private static final Evaluator STRONG = QueryParser.parse("strong");
+    private static final Evaluator TITLE = QueryParser.parse("title");
+    
     @Override
-    public void extractMetadata(Topic topic, String htmlContent) {
-        if (htmlContent == null || htmlContent.isEmpty()) {
+    public void extractDocumentMetadata(Topic topic, Document doc) {
+        if (doc == null) {
             return;
         }
         
-        Document doc = Jsoup.parse(htmlContent);
-        
-        Elements posts = doc.select("div.postbody");
+        Elements posts = doc.select(POST_BODY);
         
         if (!posts.isEmpty()) {
             Element firstPost = posts.first();
             
             if (firstPost != null) {
-                Element authorElem = firstPost.selectFirst("strong");
+                Element authorElem = firstPost.selectFirst(STRONG);
                 if (authorElem != null) {
                     topic.setAuthor(authorElem.text().trim());
                 }
@@ -55,13 +58,12 @@ public class PhpBBTopicMetadataExtractor implements TopicMetadataExtractor {
     }
     
     @Override
-    public String extractTitle(String htmlContent) {
-        if (htmlContent == null || htmlContent.isEmpty()) {
+    public String extractDocumentTitle(Document doc) {
+        if (doc == null) {
             return null;
         }
         
-        Document doc = Jsoup.parse(htmlContent);
-        Element titleElem = doc.selectFirst("title");
+        Element titleElem = doc.selectFirst(TITLE);
         
         if (titleElem != null) {
             String title = titleElem.text();
@@ -1,10 +1,27 @@
 package dev.aa.labeling.extractors;
 
 import dev.aa.labeling.model.Topic;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 
 public interface TopicMetadataExtractor {
     
-    void extractMetadata(Topic topic, String htmlContent);
+    /** Reads metadata from an already parsed page; the document is not modified. */
+    void extractDocumentMetadata(Topic topic, Document document);
     
-    String extractTitle(String htmlContent);
+    String extractDocumentTitle(Document document);
+    
+    default void extractMetadata(Topic topic, String htmlContent) {
+        if (htmlContent == null || htmlContent.isEmpty()) {
+            return;
+        }
+        extractDocumentMetadata(topic, Jsoup.parse(htmlContent));
+    }
+    
+    default String extractTitle(String htmlContent) {
+        if (htmlContent == null || htmlContent.isEmpty()) {
+            return null;
+        }
+        return extractDocumentTitle(Jsoup.parse(htmlContent));
+    }
 }
@@ -1,18 +1,81 @@
 package dev.aa.labeling.extractors;
 
 import dev.aa.labeling.Constants;
+import dev.aa.labeling.model.TopicListing;
+import dev.aa.labeling.util.HttpFetchClient;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class TopicsListExtractor {
     
     private static final String DEFAULT_BASE_URL = "https://forum.israfish.co.il";
+    // Selectors are parsed once here rather than on every select call
+    private static final Evaluator REPLIES = QueryParser.parse("dd.posts, td.posts, .replies, .threadstats li");
+    private static final Evaluator LAST_POST = QueryParser.parse("dd.lastpost, td.lastpost, .lastpost, .threadlastpost");
+    private static final Evaluator TOPIC_TITLE_LINK = QueryParser.parse("a.topictitle");
+    private static final Evaluator PAGINATION_LINK = QueryParser.parse("a[href*=viewforum][href*=start=]:not([rel])");
+    private static final Evaluator NEXT_PAGE_LINK = QueryParser.parse("a[rel='next']");
+    private static final Evaluator LINK = QueryParser.parse("a");
+    private static final Evaluator POST_DETAILS = QueryParser.parse("span.postdetails");
+    private static final Evaluator DATETIME = QueryParser.parse("time[datetime]");
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("\\d[\\d,]*");
+    private static final Pattern START_PATTERN = Pattern.compile("[?&]start=(\\d+)");
     private String baseUrl = DEFAULT_BASE_URL;
+    private int parallelism = Constants.DEFAULT_DOWNLOAD_WORKERS;
+    private HttpFetchClient fetchClient;
+    private PageFetcher pageFetcher;
+    
+    /** Fetches one listing page; lets the downloader pace listing requests like topic requests. */
+    @FunctionalInterface
+    public interface PageFetcher {
+        Document fetch(String url) throws Exception;
+    }
+    
+    /** Listing iterator that stops its outstanding page fetches when closed before the end. */
+    public interface ListingIterator extends Iterator<TopicListing>, AutoCloseable {
+        @Override
+        void close();
+        
+        /** Listings that are already in memory; closing does nothing. */
+        static ListingIterator of(Iterator<TopicListing> listings) {
+            return new ListingIterator() {
+                @Override
+                public boolean hasNext() {
+                    return listings.hasNext();
+                }
+                
+                @Override
+                public TopicListing next() {
+                    return listings.next();
+                }
+                
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
     
     public TopicsListExtractor() {}
     
@@ -21,73 +84,195 @@ public class TopicsListExtractor {
     }
     
     public List<String> getTopicsList(ForumType forumType, String forumUrl) {
+        return getTopicListings(forumType, forumUrl).stream()
+            .map(TopicListing::topicUrl)
+            .toList();
+    }
+    
+    /** Topic URLs together with the reply count / last post shown on the listing, when present. */
+    public List<TopicListing> getTopicListings(ForumType forumType, String forumUrl) {
+        List<TopicListing> listings = new ArrayList<>();
+        iterateTopicListings(forumType, forumUrl).forEachRemaining(listings::add);
+        return listings;
+    }
+    
+    /**
+     * Streams topic listings in listing order. For phpBB the first page is fetched up front;
+     * the remaining pages are then fetched concurrently while earlier pages are being consumed.
+     * Close the iterator when stopping early.
+     */
+    public ListingIterator iterateTopicListings(ForumType forumType, String forumUrl) {
         return switch (forumType) {
-            case PHPBB -> getPhpBBForumTopicsList(forumUrl);
-            case VBULLETIN -> getVBulletinForumTopicsList(forumUrl);
+            case PHPBB -> new PhpBBListingIterator(forumUrl);
+            case VBULLETIN -> ListingIterator.of(getVBulletinForumTopicsList(forumUrl).iterator());
         };
     }
     
-    protected List<String> getPhpBBForumTopicsList(String forumUrl) {
-        List<String> topicUrls = new ArrayList<>();
-        
-        int page = 0;
-        int maxPages = 10;
-        
-        while (page < maxPages) {
-            String url = forumUrl + (page == 0 ? "" : "&start=" + (page * 25));
+    /** Shares the site's HTTP client with the topic downloads. */
+    public synchronized void setFetchClient(HttpFetchClient fetchClient) {
+        this.fetchClient = fetchClient;
+    }
+    
+    /** Fetches listing pages through the given function instead of the HTTP client directly. */
+    public synchronized void setPageFetcher(PageFetcher pageFetcher) {
+        this.pageFetcher = pageFetcher;
+    }
+    
+    /** Listing pages fetched at the same time (phpBB pagination); follows downloadWorkers. */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
+    private record ListingPage(List<TopicListing> listings, List<Integer> pageStarts, String nextPageUrl) {}
+    
+    private ListingPage fetchPhpBBPage(String url) {
+        try {
+            Document document = getForumDocument(url);
             
-            try {
-                String html = getForumHtml(url);
-                Document document = parseHtml(html);
-                
-                Elements links = document.select("a.topictitle");
+            List<TopicListing> listings = new ArrayList<>();
+            for (Element link : document.select(TOPIC_TITLE_LINK)) {
+                String href = link.attr("href");
                 
-                if (links.isEmpty()) {
-                    break;
+                if (href.isEmpty()) {
+                    continue;
                 }
                 
-                for (Element link : links) {
-                    String href = link.attr("href");
-                    
-                    if (href.isEmpty()) {
-                        continue;
-                    }
-                    
-                    String absoluteUrl = makeAbsolute(baseUrl, href);
-                    absoluteUrl = absoluteUrl.replaceAll("&start=\\d+", "");
-                    absoluteUrl = absoluteUrl.replaceAll("&sid=[^&]+", "");
-                    absoluteUrl = absoluteUrl.replaceAll("#.*$", "");
-                    
-                    if (!topicUrls.contains(absoluteUrl)) {
-                        topicUrls.add(absoluteUrl);
+                String absoluteUrl = makeAbsolute(baseUrl, href);
+                absoluteUrl = absoluteUrl.replaceAll("&start=\\d+", "");
+                absoluteUrl = absoluteUrl.replaceAll("&sid=[^&]+", "");
+                absoluteUrl = absoluteUrl.replaceAll("#.*$", "");
+                
+                listings.add(toListing(absoluteUrl, link));
+            }
+            
+            // Forum pagination links (topic rows carry their own viewtopic start= links)
+            List<Integer> pageStarts = new ArrayList<>();
+            for (Element pageLink : document.select(PAGINATION_LINK)) {
+                Matcher matcher = START_PATTERN.matcher(pageLink.attr("href"));
+                if (matcher.find()) {
+                    pageStarts.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+            
+            Element next = document.selectFirst(NEXT_PAGE_LINK);
+            String nextPageUrl = next != null && !next.attr("href").isEmpty() ? makeAbsolute(baseUrl, next.attr("href")) : null;
+            return new ListingPage(listings, pageStarts, nextPageUrl);
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ListingPage(List.of(), List.of(), null);
+        } catch (Exception e) {
+            System.err.println("Error extracting topics from " + url + ": " + e.getMessage());
+            return new ListingPage(List.of(), List.of(), null);
+        }
+    }
+    
+    private final class PhpBBListingIterator implements ListingIterator {
+        private final Deque<Future<ListingPage>> pendingPages = new ArrayDeque<>();
+        private final Deque<TopicListing> buffer = new ArrayDeque<>();
+        private final Set<String> seen = new HashSet<>();
+        private ExecutorService pool;
+        private String nextPageUrl;
+        
+        private PhpBBListingIterator(String forumUrl) {
+            ListingPage first = fetchPhpBBPage(forumUrl);
+            accept(first);
+            if (first.listings().isEmpty()) {
+                return;
+            }
+            
+            int step = first.pageStarts().stream().filter(start -> start > 0).min(Integer::compare).orElse(0);
+            int lastStart = first.pageStarts().stream().max(Integer::compare).orElse(0);
+            if (step == 0) {
+                // No page count in the pagination block: follow rel=next one page at a time
+                nextPageUrl = first.nextPageUrl();
+                return;
+            }
+            
+            System.out.println("Listing has " + (lastStart / step + 1) + " pages");
+            pool = Executors.newFixedThreadPool(parallelism, r -> {
+                Thread thread = new Thread(r, "listing-fetcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (int start = step; start <= lastStart; start += step) {
+                String url = forumUrl + "&start=" + start;
+                pendingPages.add(pool.submit(() -> fetchPhpBBPage(url)));
+            }
+            pool.shutdown();
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (buffer.isEmpty()) {
+                if (!pendingPages.isEmpty()) {
+                    ListingPage page = awaitPage(pendingPages.poll());
+                    if (pendingPages.isEmpty()) {
+                        // Pagination may not show every page; keep following rel=next past the last known one
+                        nextPageUrl = page.listings().isEmpty() ? null : page.nextPageUrl();
                     }
+                    accept(page);
+                } else if (nextPageUrl != null) {
+                    ListingPage page = fetchPhpBBPage(nextPageUrl);
+                    nextPageUrl = page.listings().isEmpty() ? null : page.nextPageUrl();
+                    accept(page);
+                } else {
+                    return false;
                 }
-                
-                Elements nextPage = document.select("a[rel='next']");
-                if (nextPage.isEmpty()) {
-                    break;
+            }
+            return true;
+        }
+        
+        @Override
+        public TopicListing next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer.poll();
+        }
+        
+        /** Cancels the pages not yet consumed; hasNext() is false afterwards. */
+        @Override
+        public void close() {
+            pendingPages.forEach(pending -> pending.cancel(true));
+            pendingPages.clear();
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+            buffer.clear();
+            nextPageUrl = null;
+        }
+        
+        private void accept(ListingPage page) {
+            for (TopicListing listing : page.listings()) {
+                if (seen.add(listing.topicUrl())) {
+                    buffer.add(listing);
                 }
-                
-                page++;
-                
-            } catch (Exception e) {
-                System.err.println("Error extracting topics from page " + page + ": " + e.getMessage());
-                break;
             }
         }
         
-        topicUrls = removeDuplicates(topicUrls);
-        return topicUrls;
+        private ListingPage awaitPage(Future<ListingPage> page) {
+            try {
+                return page.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+            } catch (CancellationException e) {
+                // Closed while waiting
+            } catch (ExecutionException e) {
+                System.err.println("Error extracting topics: " + e.getCause());
+            }
+            return new ListingPage(List.of(), List.of(), null);
+        }
     }
     
-    protected List<String> getVBulletinForumTopicsList(String forumUrl) {
-        List<String> topicUrls = new ArrayList<>();
+    protected List<TopicListing> getVBulletinForumTopicsList(String forumUrl) {
+        Map<String, TopicListing> topics = new LinkedHashMap<>();
         
         try {
-            String html = getForumHtml(forumUrl);
-            Document document = parseHtml(html);
+            Document document = getForumDocument(forumUrl);
             
-            Elements links = document.select("a");
+            Elements links = document.select(LINK);
             
             for (Element link : links) {
                 String href = link.attr("href");
@@ -99,14 +284,14 @@ public class TopicsListExtractor {
                 // Detect classic pattern: showthread.php?t=
                 if (href.contains("showthread.php?t=")) {
                     String absoluteUrl = makeAbsolute(baseUrl, href);
-                    topicUrls.add(absoluteUrl);
+                    topics.putIfAbsent(absoluteUrl, toListing(absoluteUrl, link));
                     continue;
                 }
                 
                 // Detect SEO pattern: /threads/.*\.[0-9]+/?$
                 if (href.matches(".*/threads/.*\\.\\d+/?.*")) {
                     String absoluteUrl = makeAbsolute(baseUrl, href);
-                    topicUrls.add(absoluteUrl);
+                    topics.putIfAbsent(absoluteUrl, toListing(absoluteUrl, link));
                 }
             }
             
@@ -114,16 +299,77 @@ public class TopicsListExtractor {
             System.err.println("Error extracting topics from " + forumUrl + ": " + e.getMessage());
         }
         
-        topicUrls = removeDuplicates(topicUrls);
-        return topicUrls;
+        return new ArrayList<>(topics.values());
+    }
+    
+    /** Reads reply count and last-post text from the listing row that contains the topic link. */
+    protected TopicListing toListing(String topicUrl, Element link) {
+        Element row = link.closest("li.row, li.threadbit, tr, dl");
+        if (row == null) {
+            return TopicListing.of(topicUrl);
+        }
+        
+        int replies = -1;
+        Element repliesElem = row.selectFirst(REPLIES);
+        if (repliesElem != null) {
+            replies = firstNumber(repliesElem.text());
+        } else {
+            // phpBB2 rows: replies is the first numeric "postdetails" cell
+            for (Element detail : row.select(POST_DETAILS)) {
+                if (detail.text().trim().matches("\\d+")) {
+                    replies = Integer.parseInt(detail.text().trim());
+                    break;
+                }
+            }
+        }
+        
+        String lastPost = null;
+        Element lastPostElem = row.selectFirst(LAST_POST);
+        if (lastPostElem != null) {
+            Element time = lastPostElem.selectFirst(DATETIME);
+            lastPost = time != null ? time.attr("datetime") : lastPostElem.text().trim();
+        } else {
+            Elements details = row.select(POST_DETAILS);
+            if (details.size() > 1) {
+                lastPost = details.last().text().trim();
+            }
+        }
+        if (lastPost != null && lastPost.isEmpty()) {
+            lastPost = null;
+        }
+        
+        return new TopicListing(topicUrl, TopicListing.topicIdOf(topicUrl), replies, lastPost);
     }
     
-    protected String getForumHtml(String url) throws Exception {
-        return Jsoup.connect(url)
-            .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-            .timeout(Constants.DEFAULT_HTTP_TIMEOUT_MS)
-            .get()
-            .html();
+    private static int firstNumber(String text) {
+        Matcher matcher = NUMBER_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(matcher.group().replace(",", ""));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Fetches and parses a listing page through the page fetcher when one is set, otherwise through
+     * the shared client, streaming the body into the parser.
+     */
+    protected Document getForumDocument(String url) throws Exception {
+        PageFetcher fetcher;
+        synchronized (this) {
+            fetcher = pageFetcher;
+        }
+        return fetcher != null ? fetcher.fetch(url) : fetchClient().getDocument(url);
+    }
+    
+    private synchronized HttpFetchClient fetchClient() {
+        if (fetchClient == null) {
+            fetchClient = new HttpFetchClient(null);
+        }
+        return fetchClient;
     }
     
     protected Document parseHtml(String html) {
@@ -148,8 +394,4 @@ public class TopicsListExtractor {
         
         return base + href;
     }
-    
-    protected List<String> removeDuplicates(List<String> urls) {
-        return new ArrayList<>(new HashSet<>(urls));
-    }
 }
@@ -1,10 +1,11 @@
 package dev.aa.labeling.extractors;
 
 import dev.aa.labeling.model.Topic;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 
 import java.time.LocalDateTime;
 import java.util.regex.Matcher;
@@ -12,25 +13,24 @@ import java.util.regex.Pattern;
 
 public class VBulletinTopicMetadataExtractor implements TopicMetadataExtractor {
     
-    private static final Pattern DATE_PATTERN = Pattern.compile(
-        "datetime=\"([^\"]+)\"",
-        Pattern.CASE_INSENSITIVE
-    );
+    private static final String ISO_DATE_TIME = "\\d{4}-\\d{2}-\\d{2}[T\\s]\\d{2}:\\d{2}:\\d{2}";
     
-    private static final Pattern DATE_PATTERN2 = Pattern.compile(
-        "(\\d{4}-\\d{2}-\\d{2}[T\\s]\\d{2}:\\d{2}:\\d{2})",
-        Pattern.CASE_INSENSITIVE
-    );
+    private static final Pattern DATE_PATTERN2 = Pattern.compile("(" + ISO_DATE_TIME + ")", Pattern.CASE_INSENSITIVE);
+
+    private static final Evaluator USERNAME_LINK = QueryParser.parse("a.username");
+    private static final Evaluator DATETIME = QueryParser.parse("[datetime]");
+    private static final Evaluator TITLE = QueryParser.parse("title");
+    /** Elements whose own text or title attribute holds an ISO-like timestamp, in document order */
+    private static final Evaluator DATED = QueryParser.parse(
+        ":matchesOwn(" + ISO_DATE_TIME + "), [title~=" + ISO_DATE_TIME + "]");
     
     @Override
-    public void extractMetadata(Topic topic, String htmlContent) {
-        if (htmlContent == null || htmlContent.isEmpty()) {
+    public void extractDocumentMetadata(Topic topic, Document doc) {
+        if (doc == null) {
             return;
         }
         
-        Document doc = Jsoup.parse(htmlContent);
-        
-        Elements usernameLinks = doc.select("a.username");
+        Elements usernameLinks = doc.select(USERNAME_LINK);
         if (!usernameLinks.isEmpty()) {
             Element authorElem = usernameLinks.first();
             if (authorElem != null) {
@@ -38,10 +38,10 @@ public class VBulletinTopicMetadataExtractor implements TopicMetadataExtractor {
             }
         }
         
-        Matcher dateMatcher = DATE_PATTERN.matcher(htmlContent);
-        if (dateMatcher.find()) {
+        Element timeElem = doc.selectFirst(DATETIME);
+        if (timeElem != null) {
             try {
-                String dateStr = dateMatcher.group(1).replace(" ", "T");
+                String dateStr = timeElem.attr("datetime").replace(" ", "T");
                 topic.setCreationDate(LocalDateTime.parse(dateStr));
             } catch (Exception e) {
                 System.err.println("Failed to parse date: " + e.getMessage());
@@ -49,26 +49,30 @@ public class VBulletinTopicMetadataExtractor implements TopicMetadataExtractor {
         }
         
         if (topic.getCreationDate() == null) {
-            Matcher dateMatcher2 = DATE_PATTERN2.matcher(htmlContent);
-            if (dateMatcher2.find()) {
-                try {
-                    String dateStr = dateMatcher2.group(1).replace(" ", "T");
-                    topic.setCreationDate(LocalDateTime.parse(dateStr));
-                } catch (Exception e) {
-                    System.err.println("Failed to parse date: " + e.getMessage());
+            // Rare fallback: the first element showing an ISO-like timestamp in its text or title
+            Element dated = doc.selectFirst(DATED);
+            if (dated != null) {
+                String text = DATE_PATTERN2.matcher(dated.ownText()).find() ? dated.ownText() : dated.attr("title");
+                Matcher dateMatcher2 = DATE_PATTERN2.matcher(text);
+                if (dateMatcher2.find()) {
+                    try {
+                        String dateStr = dateMatcher2.group(1).replace(" ", "T");
+                        topic.setCreationDate(LocalDateTime.parse(dateStr));
+                    } catch (Exception e) {
+                        System.err.println("Failed to parse date: " + e.getMessage());
+                    }
                 }
             }
         }
     }
     
     @Override
-    public String extractTitle(String htmlContent) {
-        if (htmlContent == null || htmlContent.isEmpty()) {
+    public String extractDocumentTitle(Document doc) {
+        if (doc == null) {
             return null;
         }
         
-        Document doc = Jsoup.parse(htmlContent);
-        Element titleElem = doc.selectFirst("title");
+        Element titleElem = doc.selectFirst(TITLE);
         
         if (titleElem != null) {
             return titleElem.text().trim();
@@ -1,21 +1,38 @@
 package dev.aa.labeling.factory;
 
 import dev.aa.labeling.config.Configuration;
+import dev.aa.labeling.engine.ArchiveReplayDownloader;
 import dev.aa.labeling.engine.BaseDownloader;
+import dev.aa.labeling.engine.ConcurrentDownloader;
 import dev.aa.labeling.extractors.TopicsListExtractor;
 import dev.aa.labeling.interfaces.IfDownloader;
 import dev.aa.labeling.interfaces.IfTopicLabeler;
 
+import java.nio.file.Path;
+
 public class DownloaderFactory {
     
     public static IfDownloader create(Configuration config, IfTopicLabeler labeler) {
         TopicsListExtractor topicsListExtractor = new TopicsListExtractor();
         
-        BaseDownloader downloader = new BaseDownloader();
+        BaseDownloader downloader = isConcurrent(config) ? new ConcurrentDownloader() : new BaseDownloader();
         downloader.bindAdapter(topicsListExtractor);
         downloader.bindExtractor(labeler);
         downloader.setConfiguration(config);
         
         return downloader;
     }
+    
+    /** Replays an archive written with runtime.archiveRawHtml; null uses the site's default archive. */
+    public static IfDownloader createReplay(Configuration config, IfTopicLabeler labeler, Path archiveDir) {
+        ArchiveReplayDownloader downloader = new ArchiveReplayDownloader(archiveDir);
+        downloader.bindExtractor(labeler);
+        downloader.setConfiguration(config);
+        
+        return downloader;
+    }
+    
+    private static boolean isConcurrent(Configuration config) {
+        return config != null && config.runtime() != null && config.runtime().downloadWorkers() > 1;
+    }
 }
@@ -0,0 +1,110 @@
+package dev.aa.labeling.labeler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A file of tab-separated rows that only grows between compactions. Rows added since the last
+ * save are kept in memory and appended in one write; rewrite replaces the whole file through a
+ * temp file and an atomic rename, so a crash leaves either the old or the new contents. Not
+ * thread-safe: owners call it under their own lock. Used by the lemma, LLM verdict and seen caches.
+ */
+final class AppendOnlyStore {
+
+    private final Path path;
+    private final List<String> pending = new ArrayList<>();
+
+    AppendOnlyStore(Path path) {
+        this.path = path;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    boolean exists() {
+        return Files.exists(path);
+    }
+
+    /**
+     * Hands each row with the given number of fields to the consumer, in file order, and returns
+     * how many there were. Blank lines, "#" comments and rows of another width are skipped.
+     */
+    int read(int fields, Consumer<String[]> row) throws IOException {
+        if (!exists()) {
+            return 0;
+        }
+        int rows = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\t", -1);
+            if (parts.length == fields) {
+                row.accept(parts);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /** Queues a row for the next save. */
+    void add(String... fields) {
+        pending.add(String.join("\t", fields));
+    }
+
+    int pendingRows() {
+        return pending.size();
+    }
+
+    /** Appends the rows added since the last save and returns how many were written. */
+    int save() throws IOException {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        createParent();
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (String line : pending) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        int written = pending.size();
+        pending.clear();
+        return written;
+    }
+
+    /** Replaces the file with the given rows; rows still pending are kept for the next save. */
+    void rewrite(Iterable<String[]> rows) throws IOException {
+        createParent();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (String[] row : rows) {
+                writer.write(String.join("\t", row));
+                writer.newLine();
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Compaction rule of the caches that rewrite on load: more than twice the rows that are still live. */
+    static boolean isBloated(int rowsRead, int rowsKept) {
+        return rowsRead > 2 * rowsKept;
+    }
+
+    private void createParent() throws IOException {
+        Path parent = path.getParent();
+        if (parent != null && !Files.exists(parent)) {
+            Files.createDirectories(parent);
+        }
+    }
+}
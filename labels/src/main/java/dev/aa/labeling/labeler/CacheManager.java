@@ -1,93 +1,205 @@
 package dev.aa.labeling.labeler;
 
+import dev.aa.labeling.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Seen terms and lemmas, each stored as a sorted snapshot file plus an append-only journal next
+ * to it (snapshot name + ".journal"). save() appends the entries added since the previous save to
+ * the journal in one write; once a journal holds as many entries as its snapshot, it is set aside
+ * and a background thread writes a new snapshot (temp file + atomic rename) and drops it. load()
+ * replays the snapshot and the journals; close() leaves only the snapshot.
+ */
 public class CacheManager {
     private static final Logger logger = LoggerFactory.getLogger(CacheManager.class);
-    
-    private final Path termsSeenPath;
-    private final Path lemmasSeenPath;
-    
-    private Set<String> termsSeen;
-    private Set<String> lemmasSeen;
-    
+
+    private final SeenFile terms;
+    private final SeenFile lemmas;
+    private ExecutorService compactor;
+
     public CacheManager(Path termsSeenPath, Path lemmasSeenPath) {
-        this.termsSeenPath = termsSeenPath;
-        this.lemmasSeenPath = lemmasSeenPath;
-        this.termsSeen = new HashSet<>();
-        this.lemmasSeen = new HashSet<>();
+        this.terms = new SeenFile(termsSeenPath);
+        this.lemmas = new SeenFile(lemmasSeenPath);
     }
-    
+
     public void load() throws IOException {
-        termsSeen = loadSetFile(termsSeenPath);
-        lemmasSeen = loadSetFile(lemmasSeenPath);
-        logger.info("Cache loaded: termsSeen={}, lemmasSeen={}", termsSeen.size(), lemmasSeen.size());
+        terms.load();
+        lemmas.load();
+        logger.info("Cache loaded: termsSeen={}, lemmasSeen={}", terms.entries.size(), lemmas.entries.size());
     }
-    
+
     public void save() throws IOException {
-        saveSetFile(termsSeenPath, termsSeen);
-        saveSetFile(lemmasSeenPath, lemmasSeen);
-        logger.info("Cache saved: termsSeen={}, lemmasSeen={}", termsSeen.size(), lemmasSeen.size());
-    }
-    
-    private Set<String> loadSetFile(Path path) {
-        Set<String> set = new HashSet<>();
-        if (Files.exists(path)) {
-            try {
-                List<String> lines = Files.readAllLines(path);
-                for (String line : lines) {
-                    String trimmed = line.trim();
-                    if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
-                        set.add(trimmed);
-                    }
-                }
-                logger.debug("Loaded {} entries from {}", set.size(), path);
-            } catch (IOException e) {
-                logger.warn("Failed to load cache file {}: {}", path, e.getMessage());
-            }
-        }
-        return set;
+        terms.append();
+        lemmas.append();
+        logger.info("Cache saved: termsSeen={}, lemmasSeen={}", terms.entries.size(), lemmas.entries.size());
     }
-    
-    private void saveSetFile(Path path, Set<String> set) throws IOException {
-        Path parent = path.getParent();
-        if (parent != null && !Files.exists(parent)) {
-            Files.createDirectories(parent);
+
+    /** Saves, compacts what is left in the journals into the snapshots and stops the compaction thread. */
+    public void close() throws IOException {
+        terms.close();
+        lemmas.close();
+        logger.info("Cache saved: termsSeen={}, lemmasSeen={}", terms.entries.size(), lemmas.entries.size());
+        if (compactor != null) {
+            compactor.shutdown();
+            compactor = null;
         }
-        List<String> lines = new ArrayList<>(set.stream().sorted().toList());
-        Files.write(path, lines);
     }
-    
+
     public boolean containsTerm(String term) {
-        return termsSeen.contains(term);
+        return terms.entries.contains(term);
     }
-    
+
     public boolean containsLemma(String lemma) {
-        return lemmasSeen.contains(lemma);
+        return lemmas.entries.contains(lemma);
     }
-    
+
     public void addTerm(String term) {
-        termsSeen.add(term);
+        terms.add(term);
     }
-    
+
     public void addLemma(String lemma) {
-        lemmasSeen.add(lemma);
+        lemmas.add(lemma);
     }
-    
+
     public int getTermsSeenCount() {
-        return termsSeen.size();
+        return terms.entries.size();
     }
-    
+
     public int getLemmasSeenCount() {
-        return lemmasSeen.size();
+        return lemmas.entries.size();
+    }
+
+    private ExecutorService compactor() {
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "seen-cache-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return compactor;
+    }
+
+    /** One seen set with its snapshot, journal and the journal being compacted away. */
+    private final class SeenFile {
+        private final AppendOnlyStore snapshot;
+        private final AppendOnlyStore journal;
+        private final AppendOnlyStore compacting;
+        private Set<String> entries = new HashSet<>();
+        private int snapshotEntries;
+        private int journalEntries;
+        private Future<?> compaction;
+
+        private SeenFile(Path snapshot) {
+            this.snapshot = new AppendOnlyStore(snapshot);
+            this.journal = new AppendOnlyStore(snapshot.resolveSibling(snapshot.getFileName() + ".journal"));
+            this.compacting = new AppendOnlyStore(snapshot.resolveSibling(snapshot.getFileName() + ".journal.compacting"));
+        }
+
+        /** Null and blank entries are ignored: they could not be stored as a line. */
+        private void add(String entry) {
+            if (entry == null || entry.isBlank()) {
+                return;
+            }
+            if (entries.add(entry)) {
+                journal.add(entry);
+            }
+        }
+
+        private void load() {
+            Set<String> loaded = new HashSet<>();
+            snapshotEntries = readLines(snapshot, loaded);
+            journalEntries = readLines(compacting, loaded) + readLines(journal, loaded);
+            entries = loaded;
+            logger.debug("Loaded {} entries from {} ({} journaled)", loaded.size(), snapshot.path(), journalEntries);
+        }
+
+        /** Group commit: everything added since the last call goes to the journal in one write. */
+        private void append() throws IOException {
+            int written = journal.save();
+            if (written == 0) {
+                return;
+            }
+            journalEntries += written;
+
+            if (journalEntries >= Math.max(Constants.SEEN_CACHE_COMPACT_MIN_ENTRIES, snapshotEntries)
+                    && (compaction == null || compaction.isDone())) {
+                startCompaction();
+            }
+        }
+
+        /** Leaves a complete snapshot and no journal behind. */
+        private void close() throws IOException {
+            append();
+            awaitCompaction();
+            if (journalEntries > 0 || !snapshot.exists()) {
+                startCompaction();
+                awaitCompaction();
+            }
+        }
+
+        private void startCompaction() throws IOException {
+            if (journal.exists() && compacting.exists()) {
+                // A previous compaction failed: keep its entries until a snapshot holds them
+                Files.write(compacting.path(), Files.readAllLines(journal.path(), StandardCharsets.UTF_8),
+                    StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+                Files.delete(journal.path());
+            } else if (journal.exists()) {
+                Files.move(journal.path(), compacting.path(), StandardCopyOption.ATOMIC_MOVE);
+            }
+            List<String> copy = new ArrayList<>(entries);
+            snapshotEntries = copy.size();
+            journalEntries = 0;
+            compaction = compactor().submit(() -> writeSnapshot(copy));
+        }
+
+        private void writeSnapshot(List<String> copy) {
+            try {
+                copy.sort(null);
+                snapshot.rewrite(copy.stream().map(entry -> new String[] {entry}).toList());
+                Files.deleteIfExists(compacting.path());
+                logger.debug("Compacted {} into {} entries", snapshot.path(), copy.size());
+            } catch (IOException e) {
+                logger.warn("Failed to compact cache file {}: {}", snapshot.path(), e.getMessage());
+            }
+        }
+
+        private void awaitCompaction() {
+            if (compaction == null) {
+                return;
+            }
+            try {
+                compaction.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.warn("Cache compaction failed for {}: {}", snapshot.path(), e.getCause().getMessage());
+            }
+        }
+
+        private int readLines(AppendOnlyStore store, Set<String> into) {
+            try {
+                return store.read(1, parts -> into.add(parts[0].trim()));
+            } catch (IOException e) {
+                logger.warn("Failed to load cache file {}: {}", store.path(), e.getMessage());
+                return 0;
+            }
+        }
     }
 }
@@ -0,0 +1,37 @@
+package dev.aa.labeling.labeler;
+
+import java.util.Locale;
+
+/** Hit and miss counts of an in-memory cache. Not thread-safe: owners update it under their own lock. */
+final class CacheStats {
+
+    private long hits;
+    private long misses;
+
+    void hit() {
+        hits++;
+    }
+
+    void miss() {
+        misses++;
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /** "name: N entries, H hits, M misses (R% hit rate)". */
+    String describe(String name, int entries) {
+        return String.format(Locale.ROOT, "%s: %d entries, %d hits, %d misses (%.1f%% hit rate)",
+            name, entries, hits, misses, getHitRate() * 100);
+    }
+}
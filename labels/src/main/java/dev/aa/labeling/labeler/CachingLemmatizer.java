@@ -0,0 +1,161 @@
+package dev.aa.labeling.labeler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Remembers word → lemma results of another lemmatizer, keyed by language and lowercase word.
+ * At most maxEntries results are held in memory (least recently used are dropped first). The
+ * store file holds one "language TAB word TAB lemma" line per result; it is read at startup and
+ * new results are appended on save, so forms seen in earlier runs are not lemmatized again.
+ * Failed lookups (null lemma) are not remembered.
+ */
+public class CachingLemmatizer implements Lemmatizer {
+
+    private final Lemmatizer delegate;
+    private final String language;
+    private final AppendOnlyStore store;
+    private final int maxEntries;
+    private final LinkedHashMap<String, String> entries;
+    private final CacheStats stats = new CacheStats();
+    private long evictions;
+
+    public CachingLemmatizer(Lemmatizer delegate, String language, Path storePath, int maxEntries) {
+        this.delegate = delegate;
+        this.language = language.toLowerCase(Locale.ROOT);
+        this.store = storePath != null ? new AppendOnlyStore(storePath) : null;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                if (size() > CachingLemmatizer.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Reads the store file; later lines win. Rewrites the file when it holds more than twice
+     * the lines kept, so repeated runs do not grow it without bound.
+     */
+    public synchronized void load() throws IOException {
+        if (store == null || !store.exists()) {
+            return;
+        }
+        int rows = store.read(3, parts -> {
+            if (!parts[1].isEmpty()) {
+                entries.put(key(parts[0], parts[1]), parts[2]);
+            }
+        });
+        evictions = 0;
+        if (AppendOnlyStore.isBloated(rows, entries.size())) {
+            compact();
+        }
+        System.out.println("Lemma cache loaded: " + entries.size() + " entries from " + store.path());
+    }
+
+    @Override
+    public String lemmatize(String word) {
+        if (word == null || word.isEmpty()) {
+            return word;
+        }
+        String lower = word.toLowerCase(Locale.ROOT);
+        String key = key(language, lower);
+        synchronized (this) {
+            String lemma = entries.get(key);
+            if (lemma != null) {
+                stats.hit();
+                return lemma;
+            }
+            stats.miss();
+        }
+        String lemma = delegate.lemmatize(lower);
+        if (lemma != null) {
+            synchronized (this) {
+                if (entries.put(key, lemma) == null && store != null) {
+                    store.add(language, lower, lemma);
+                }
+            }
+        }
+        return lemma;
+    }
+
+    /** Serves remembered words from memory and passes only the rest to the delegate, in one call. */
+    @Override
+    public Map<String, String> lemmatizeAll(Collection<String> words) {
+        Map<String, String> lemmas = new LinkedHashMap<>();
+        Map<String, String> missing = new LinkedHashMap<>();
+        synchronized (this) {
+            for (String word : words) {
+                if (word == null || word.isEmpty() || lemmas.containsKey(word) || missing.containsKey(word)) {
+                    continue;
+                }
+                String lower = word.toLowerCase(Locale.ROOT);
+                String lemma = entries.get(key(language, lower));
+                if (lemma != null) {
+                    stats.hit();
+                    lemmas.put(word, lemma);
+                } else {
+                    stats.miss();
+                    missing.put(word, lower);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return lemmas;
+        }
+        Map<String, String> resolved = delegate.lemmatizeAll(new LinkedHashSet<>(missing.values()));
+        synchronized (this) {
+            for (Map.Entry<String, String> entry : missing.entrySet()) {
+                String lower = entry.getValue();
+                String lemma = resolved.get(lower);
+                if (lemma == null) {
+                    continue;
+                }
+                lemmas.put(entry.getKey(), lemma);
+                if (entries.put(key(language, lower), lemma) == null && store != null) {
+                    store.add(language, lower, lemma);
+                }
+            }
+        }
+        return lemmas;
+    }
+
+    /** Appends results added since the last save to the store file. */
+    public synchronized void save() throws IOException {
+        if (store != null) {
+            store.save();
+        }
+    }
+
+    private void compact() throws IOException {
+        store.rewrite(entries.entrySet().stream()
+            .map(entry -> new String[] {entry.getKey(), entry.getValue()})
+            .toList());
+    }
+
+    private static String key(String language, String word) {
+        return language + '\t' + word;
+    }
+
+    public synchronized long getHits() { return stats.getHits(); }
+    public synchronized long getMisses() { return stats.getMisses(); }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized int size() { return entries.size(); }
+
+    public synchronized double getHitRate() {
+        return stats.getHitRate();
+    }
+
+    public synchronized String stats() {
+        return stats.describe("Lemma cache", entries.size()) + ", " + evictions + " evicted";
+    }
+}
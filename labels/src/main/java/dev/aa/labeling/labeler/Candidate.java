@@ -6,5 +6,6 @@ public record Candidate(
     int end,
     String canonical,
     String entryType,
-    DictValue dictValue
+    DictValue dictValue,
+    String dictionary
 ) {}
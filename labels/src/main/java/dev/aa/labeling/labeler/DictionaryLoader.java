@@ -22,30 +22,54 @@ public class DictionaryLoader {
 
     public List<DictionaryEntry> loadDictionaries(List<String> paths, String language) {
         List<DictionaryEntry> entries = new ArrayList<>();
+        for (LoadedDictionary dictionary : loadDictionarySet(paths, language)) {
+            entries.addAll(dictionary.entries());
+        }
+        return entries;
+    }
+
+    public List<LoadedDictionary> loadDictionarySet(List<String> paths, String language) {
+        List<LoadedDictionary> dictionaries = new ArrayList<>();
 
         if (paths == null || paths.isEmpty()) {
             System.err.println("No dictionary paths configured");
-            return entries;
+            return dictionaries;
         }
+        rejectDuplicateNames(paths);
 
+        int totalEntries = 0;
         for (String path : paths) {
             try {
-                List<DictionaryEntry> loaded = loadDictionary(path, language);
-                entries.addAll(loaded);
-                System.err.println("Loaded " + loaded.size() + " entries from " + path + " (lang: " + language + ")");
+                LoadedDictionary loaded = loadDictionary(path, language);
+                dictionaries.add(loaded);
+                totalEntries += loaded.entries().size();
+                System.err.println("Loaded " + loaded.entries().size() + " entries from " + path + 
+                    " (lang: " + language + ", type: " + loaded.entryType() + ")");
             } catch (Exception e) {
                 System.err.println("Error loading dictionary " + path + ": " + e.getMessage());
             }
         }
 
-        if (entries.isEmpty()) {
+        if (totalEntries == 0) {
             throw new RuntimeException("No dictionaries loaded - fatal error, cannot continue");
         }
 
-        return entries;
+        return dictionaries;
+    }
+
+    /** Outputs and counters are keyed by dictionary name, so two files with one name would overwrite each other. */
+    private static void rejectDuplicateNames(List<String> paths) {
+        Map<String, String> pathsByName = new HashMap<>();
+        for (String path : paths) {
+            String other = pathsByName.putIfAbsent(LoadedDictionary.nameFromPath(path), path);
+            if (other != null) {
+                throw new IllegalArgumentException("Dictionaries " + other + " and " + path + " have the same name '" +
+                    LoadedDictionary.nameFromPath(path) + "'; rename one so their outputs do not overwrite each other");
+            }
+        }
     }
 
-    private List<DictionaryEntry> loadDictionary(String pathStr, String language) throws Exception {
+    private LoadedDictionary loadDictionary(String pathStr, String language) throws Exception {
         InputStream inputStream = null;
         
         Path path = Path.of(pathStr);
@@ -62,10 +86,13 @@ public class DictionaryLoader {
         try (InputStream is = inputStream) {
             JsonNode root = objectMapper.readTree(is);
             
-            // Extract entry_type from metadata
+            // Extract entry_type from metadata, falling back to the dictionary name
+            String name = LoadedDictionary.nameFromPath(pathStr);
+            String dictionaryType = name;
             JsonNode metadata = root.get("metadata");
             if (metadata != null && metadata.has("entry_type")) {
-                this.entryType = metadata.get("entry_type").asText();
+                dictionaryType = metadata.get("entry_type").asText();
+                this.entryType = dictionaryType;
             }
             
             JsonNode data = root.get("data");
@@ -115,7 +142,7 @@ public class DictionaryLoader {
                 }
             }
 
-            return entries;
+            return new LoadedDictionary(pathStr, name, dictionaryType, entries);
         }
     }
 }
@@ -0,0 +1,182 @@
+package dev.aa.labeling.labeler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over every dictionary value.
+ * Built once per dictionary load, then finds all hits in a sentence with a single pass.
+ * Several dictionaries can share one automaton; each hit carries its dictionary name and entry type.
+ * Matching is case-insensitive; candidate surfaces are expanded to full word boundaries
+ * exactly as the old per-value indexOf scan did.
+ */
+public class DictionaryMatcher {
+
+    private record Target(String canonical, String entryType, String dictionary, DictValue dictValue, int length) {}
+
+    private record Hit(int target, int start) {}
+
+    private final List<Target> targets = new ArrayList<>();
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private int[] fail;
+    private int[][] outputs;
+
+    public DictionaryMatcher(List<DictionaryEntry> entries, String entryType) {
+        this(List.of(new LoadedDictionary(null, null, entryType, entries != null ? entries : List.of())));
+    }
+
+    public DictionaryMatcher(List<LoadedDictionary> dictionaries) {
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        newNode(nodeOutputs);
+
+        for (LoadedDictionary dictionary : dictionaries) {
+            for (DictionaryEntry entry : dictionary.entries()) {
+                String canonical = entry.getCanonical();
+                if (canonical == null) continue;
+
+                for (DictValue dictValue : entry.values()) {
+                    String value = dictValue.value();
+                    int node = 0;
+                    for (int i = 0; i < value.length(); i++) {
+                        char c = Character.toLowerCase(value.charAt(i));
+                        Integer next = transitions.get(node).get(c);
+                        if (next == null) {
+                            next = newNode(nodeOutputs);
+                            transitions.get(node).put(c, next);
+                        }
+                        node = next;
+                    }
+                    nodeOutputs.get(node).add(targets.size());
+                    targets.add(new Target(canonical, dictionary.entryType(), dictionary.name(), dictValue, value.length()));
+                }
+            }
+        }
+
+        buildFailureLinks(nodeOutputs);
+    }
+
+    private int newNode(List<List<Integer>> nodeOutputs) {
+        transitions.add(new HashMap<>());
+        nodeOutputs.add(new ArrayList<>());
+        return transitions.size() - 1;
+    }
+
+    private void buildFailureLinks(List<List<Integer>> nodeOutputs) {
+        int size = transitions.size();
+        fail = new int[size];
+        outputs = new int[size][];
+
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : transitions.get(0).values()) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+        outputs[0] = toArray(nodeOutputs.get(0));
+
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            List<Integer> merged = new ArrayList<>(nodeOutputs.get(node));
+            int[] inherited = outputs[fail[node]];
+            for (int target : inherited) {
+                merged.add(target);
+            }
+            outputs[node] = toArray(merged);
+
+            for (Map.Entry<Character, Integer> edge : transitions.get(node).entrySet()) {
+                int child = edge.getValue();
+                int state = fail[node];
+                while (state != 0 && !transitions.get(state).containsKey(edge.getKey())) {
+                    state = fail[state];
+                }
+                Integer link = transitions.get(state).get(edge.getKey());
+                fail[child] = link != null && link != child ? link : 0;
+                queue.add(child);
+            }
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    public int size() {
+        return targets.size();
+    }
+
+    public boolean isEmpty() {
+        return targets.isEmpty();
+    }
+
+    /**
+     * Returns every dictionary hit in the sentence, ordered by dictionary value then position.
+     * Occurrences of the same value never overlap, matching the previous scan semantics.
+     */
+    public List<Candidate> findCandidates(String sentence) {
+        if (sentence == null || sentence.isEmpty() || targets.isEmpty()) {
+            return List.of();
+        }
+        return findCandidatesIn(SentenceTokens.of(sentence));
+    }
+
+    /** As findCandidates(String), over a sentence whose tokens are already built. */
+    public List<Candidate> findCandidatesIn(SentenceTokens sentence) {
+        if (sentence.length() == 0 || targets.isEmpty()) {
+            return List.of();
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        int[] lastEnd = null;
+        int state = 0;
+
+        for (int i = 0; i < sentence.length(); i++) {
+            char c = sentence.lowerCharAt(i);
+            Integer next;
+            while ((next = transitions.get(state).get(c)) == null && state != 0) {
+                state = fail[state];
+            }
+            state = next != null ? next : 0;
+
+            for (int target : outputs[state]) {
+                int start = i + 1 - targets.get(target).length();
+                if (lastEnd == null) {
+                    lastEnd = new int[targets.size()];
+                }
+                if (start < lastEnd[target]) {
+                    continue;
+                }
+                lastEnd[target] = i + 1;
+                hits.add(new Hit(target, start));
+            }
+        }
+
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Hit[] ordered = hits.toArray(new Hit[0]);
+        Arrays.sort(ordered, (a, b) -> a.target() != b.target()
+            ? Integer.compare(a.target(), b.target())
+            : Integer.compare(a.start(), b.start()));
+
+        List<Candidate> candidates = new ArrayList<>(ordered.length);
+        for (Hit hit : ordered) {
+            Target target = targets.get(hit.target());
+            int wordStart = sentence.wordStart(hit.start());
+            int wordEnd = sentence.wordEnd(hit.start() + target.length());
+
+            String surface = sentence.text().substring(wordStart, wordEnd);
+            candidates.add(new Candidate(surface, wordStart, wordEnd, target.canonical(), target.entryType(), 
+                target.dictValue(), target.dictionary()));
+        }
+        return candidates;
+    }
+}
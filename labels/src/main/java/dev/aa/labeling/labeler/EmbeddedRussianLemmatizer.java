@@ -0,0 +1,54 @@
+package dev.aa.labeling.labeler;
+
+import dev.aa.labeling.Constants;
+import eu.hlavki.text.lemmagen.LemmatizerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Russian lemmatizer running in the JVM on a LemmaGen model held in memory, so a word costs a
+ * suffix-tree lookup instead of an HTTP round trip to the Python service. The model is read-only
+ * once loaded and one instance can be shared by all labeler threads.
+ */
+public class EmbeddedRussianLemmatizer implements Lemmatizer {
+
+    private final eu.hlavki.text.lemmagen.api.Lemmatizer model;
+
+    public EmbeddedRussianLemmatizer(eu.hlavki.text.lemmagen.api.Lemmatizer model) {
+        this.model = model;
+    }
+
+    /** Loads a model written by LemmaGen (gzip-serialized .lem file). */
+    public static EmbeddedRussianLemmatizer load(Path modelFile) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(modelFile))) {
+            return new EmbeddedRussianLemmatizer(LemmatizerFactory.read(in));
+        }
+    }
+
+    /** Loads the model from Constants.RU_LEMMA_MODEL_PATH; null when there is none or it cannot be read. */
+    public static EmbeddedRussianLemmatizer loadDefault() {
+        Path modelFile = Path.of(Constants.RU_LEMMA_MODEL_PATH);
+        if (!Files.isRegularFile(modelFile)) {
+            return null;
+        }
+        try {
+            return load(modelFile);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Cannot read Russian lemma model " + modelFile + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public String lemmatize(String word) {
+        if (word == null || word.isEmpty()) {
+            return word;
+        }
+        CharSequence lemma = model.lemmatize(word);
+        return lemma == null || lemma.length() == 0 ? word : lemma.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package dev.aa.labeling.labeler;
 
 import dev.aa.labeling.Constants;
+import dev.aa.labeling.llm.LLMProviderConfig;
 import dev.aa.labeling.llm.LLMProviderManager;
 import dev.aa.labeling.llm.LLMResponse;
 import org.slf4j.Logger;
@@ -12,6 +13,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.stream.Collectors;
 
 public class LLMAdapterImpl implements LLMAdapter {
     private static final Logger logger = LoggerFactory.getLogger(LLMAdapterImpl.class);
@@ -19,18 +21,29 @@ public class LLMAdapterImpl implements LLMAdapter {
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     private final LLMProviderManager manager;
+    private final LLMVerdictCache verdictCache;
+    private final String formOfVersion;
+    private final String dualityVersion;
     
     public LLMAdapterImpl(Path llmConfigDir) throws Exception {
+        this(llmConfigDir, null);
+    }
+    
+    /** Answers are looked up in, and added to, verdictCache when it is not null. */
+    public LLMAdapterImpl(Path llmConfigDir, LLMVerdictCache verdictCache) throws Exception {
         this.manager = new LLMProviderManager(llmConfigDir);
+        this.verdictCache = verdictCache;
+        String models = manager.getProviderConfigs().stream()
+            .map(LLMProviderConfig::getModel)
+            .map(String::valueOf)
+            .sorted()
+            .collect(Collectors.joining(","));
+        this.formOfVersion = version(Constants.RU_IS_FORM_OF_PROMPT, models);
+        this.dualityVersion = version(Constants.DUALITY_CHECK_PROMPT, models);
     }
     
     @Override
     public boolean isFormOf(String key, String candidate, String language, String entryType) {
-        if (!manager.hasProviders()) {
-            logger.warn("No LLM providers available");
-            return false;
-        }
-        
         String promptTemplate;
         if ("ru".equals(language)) {
             promptTemplate = Constants.RU_IS_FORM_OF_PROMPT;
@@ -38,6 +51,16 @@ public class LLMAdapterImpl implements LLMAdapter {
             throw new IllegalArgumentException("Language not supported: " + language + ". Only Russian (ru) is currently supported.");
         }
         
+        Boolean cached = verdictCache != null ? verdictCache.get("isFormOf", formOfVersion, candidate, key, entryType) : null;
+        if (cached != null) {
+            return cached;
+        }
+        
+        if (!manager.hasProviders()) {
+            logger.warn("No LLM providers available");
+            return false;
+        }
+        
         try {
             String prompt = String.format(promptTemplate, entryType, key, candidate);
             LLMResponse response = manager.chat(null, prompt);
@@ -46,6 +69,9 @@ public class LLMAdapterImpl implements LLMAdapter {
             boolean result = "TRUE".equals(content) || content.startsWith("TRUE");
             
             logToFile("isFormOf", key, candidate, null, prompt, result ? "TRUE" : "FALSE");
+            if (verdictCache != null) {
+                verdictCache.put("isFormOf", formOfVersion, candidate, key, entryType, result);
+            }
             
             if (result) {
                 logger.info("LLM accept: candidate '{}' is {}", candidate, key);
@@ -63,6 +89,12 @@ public class LLMAdapterImpl implements LLMAdapter {
     
     @Override
     public boolean isRelevantType(String term, String sentence, String entryType, int start, int end) {
+        // The answer depends on the context, so the sentence is the value of the key
+        Boolean cached = verdictCache != null ? verdictCache.get("isRelevantType", dualityVersion, term, sentence, entryType) : null;
+        if (cached != null) {
+            return cached;
+        }
+        
         if (!manager.hasProviders()) {
             logger.warn("No LLM providers available");
             return false;
@@ -77,6 +109,9 @@ public class LLMAdapterImpl implements LLMAdapter {
             boolean result = "TRUE".equals(content) || content.startsWith("TRUE");
             
             logToFile("isRelevantType", term, entryType, sentence, prompt, result ? "TRUE" : "FALSE");
+            if (verdictCache != null) {
+                verdictCache.put("isRelevantType", dualityVersion, term, sentence, entryType, result);
+            }
             
             if (result) {
                 logger.info("LLM accept: candidate '{}' is {}", term, entryType);
@@ -105,6 +140,11 @@ public class LLMAdapterImpl implements LLMAdapter {
         }
     }
     
+    /** Prompt template and configured models, so editing either invalidates cached answers. */
+    private static String version(String promptTemplate, String models) {
+        return Integer.toHexString((promptTemplate + '\n' + models).hashCode());
+    }
+    
     public void close() {
         manager.close();
     }
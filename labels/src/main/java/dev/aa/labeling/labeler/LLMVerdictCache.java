@@ -0,0 +1,133 @@
+package dev.aa.labeling.labeler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers TRUE and FALSE answers of the LLM, keyed by question kind, prompt/model version,
+ * surface, value and entry type, so a question is sent to a provider once across runs. The store
+ * file holds one "kind TAB version TAB surface TAB value TAB entryType TAB verdict TAB millis"
+ * line per answer; it is read at startup and new answers are appended on save. Answers older than
+ * the TTL (when one is set) are treated as missing. Failed calls are not remembered.
+ */
+public class LLMVerdictCache {
+
+    private final AppendOnlyStore store;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Verdict> entries = new HashMap<>();
+    private final CacheStats stats = new CacheStats();
+
+    /** A ttl of null or zero keeps answers forever. */
+    public LLMVerdictCache(Path storePath, Duration ttl) {
+        this(storePath, ttl, Clock.systemUTC());
+    }
+
+    LLMVerdictCache(Path storePath, Duration ttl, Clock clock) {
+        this.store = storePath != null ? new AppendOnlyStore(storePath) : null;
+        this.ttl = ttl == null || ttl.isZero() || ttl.isNegative() ? null : ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Reads the store file; later lines win and expired answers are skipped. Rewrites the file
+     * when it holds more than twice the lines kept.
+     */
+    public synchronized void load() throws IOException {
+        if (store == null || !store.exists()) {
+            return;
+        }
+        int rows = store.read(7, parts -> {
+            long createdAt;
+            try {
+                createdAt = Long.parseLong(parts[6]);
+            } catch (NumberFormatException e) {
+                return;
+            }
+            if (!isExpired(createdAt)) {
+                entries.put(key(parts[0], parts[1], parts[2], parts[3], parts[4]),
+                    new Verdict("TRUE".equals(parts[5]), createdAt));
+            }
+        });
+        if (AppendOnlyStore.isBloated(rows, entries.size())) {
+            compact();
+        }
+        System.out.println("LLM verdict cache loaded: " + entries.size() + " entries from " + store.path());
+    }
+
+    /** The remembered answer, or null when there is none or it has expired. */
+    public synchronized Boolean get(String kind, String version, String surface, String value, String entryType) {
+        Verdict verdict = entries.get(key(kind, version, surface, value, entryType));
+        if (verdict == null || isExpired(verdict.createdAt())) {
+            stats.miss();
+            return null;
+        }
+        stats.hit();
+        return verdict.value();
+    }
+
+    public synchronized void put(String kind, String version, String surface, String value, String entryType, boolean verdict) {
+        long now = clock.millis();
+        String key = key(kind, version, surface, value, entryType);
+        entries.put(key, new Verdict(verdict, now));
+        if (store != null) {
+            store.add(key, verdict ? "TRUE" : "FALSE", Long.toString(now));
+        }
+    }
+
+    /** Appends answers added since the last save to the store file. */
+    public synchronized void save() throws IOException {
+        if (store != null) {
+            store.save();
+        }
+    }
+
+    public synchronized long getHits() {
+        return stats.getHits();
+    }
+
+    public synchronized long getMisses() {
+        return stats.getMisses();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized double getHitRate() {
+        return stats.getHitRate();
+    }
+
+    public synchronized String stats() {
+        return stats.describe("LLM verdict cache", entries.size());
+    }
+
+    private boolean isExpired(long createdAt) {
+        return ttl != null && clock.millis() - createdAt >= ttl.toMillis();
+    }
+
+    private void compact() throws IOException {
+        store.rewrite(entries.entrySet().stream()
+            .map(entry -> new String[] {entry.getKey(), entry.getValue().value() ? "TRUE" : "FALSE",
+                Long.toString(entry.getValue().createdAt())})
+            .toList());
+    }
+
+    /** Tabs and line breaks would break the store line, so they become spaces. */
+    private static String key(String kind, String version, String surface, String value, String entryType) {
+        return field(kind) + '\t' + field(version) + '\t' + field(surface) + '\t' + field(value) + '\t' + field(entryType);
+    }
+
+    private static String field(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private record Verdict(boolean value, long createdAt) {}
+}
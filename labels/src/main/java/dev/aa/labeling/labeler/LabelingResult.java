@@ -2,9 +2,13 @@ package dev.aa.labeling.labeler;
 
 import java.util.List;
 
+/**
+ * Outcome of a labeling run. A streaming labeler has already written its sentences and leaves
+ * the list empty; the totals always come from the metadata.
+ */
 public record LabelingResult(List<LabeledSentence> sentences, LabelingMetadata metadata) {
     
     public int getTotalSentences() {
-        return sentences.size();
+        return metadata.getTotalSentences();
     }
 }
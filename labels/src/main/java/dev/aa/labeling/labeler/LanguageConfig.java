@@ -1,5 +1,8 @@
 package dev.aa.labeling.labeler;
 
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 public class LanguageConfig {
@@ -30,6 +33,33 @@ public class LanguageConfig {
         public String getWordPattern() {
             return wordPattern;
         }
+
+        /** The character class that must follow a sentence end in getSentencePattern. */
+        public boolean isSentenceStart(char c) {
+            return switch (this) {
+                case RU -> (c >= 'A' && c <= 'Z') || (c >= 'А' && c <= 'Я');
+                case EN -> c >= 'A' && c <= 'Z';
+                case HE -> c >= '\u0590' && c <= '\u05FF';
+            };
+        }
+
+        /** The character class of getWordPattern. */
+        public boolean isScriptChar(char c) {
+            return switch (this) {
+                case RU -> c >= '\u0400' && c <= '\u04FF';
+                case EN -> (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+                case HE -> c >= '\u0590' && c <= '\u05FF';
+            };
+        }
+    }
+
+    /** Configs with the default ratio are immutable, so one per language is shared. */
+    private static final Map<Language, LanguageConfig> DEFAULTS = new EnumMap<>(Language.class);
+
+    static {
+        for (Language language : Language.values()) {
+            DEFAULTS.put(language, new LanguageConfig(language));
+        }
     }
 
     private final Language language;
@@ -49,8 +79,7 @@ public class LanguageConfig {
     }
 
     public static LanguageConfig forLanguage(String lang) {
-        Language language = Language.valueOf(lang.toUpperCase());
-        return new LanguageConfig(language);
+        return DEFAULTS.get(Language.valueOf(lang.toUpperCase(Locale.ROOT)));
     }
 
     public Language getLanguage() {
@@ -74,15 +103,15 @@ public class LanguageConfig {
     }
 
     public boolean isTargetLanguageSentence(String sentence) {
-        if (sentence.isEmpty()) return false;
+        return isTargetLanguageSentence(sentence, 0, sentence.length());
+    }
+
+    /** Whether more than minLanguageRatio of text[start, end) is in the language's script. */
+    public boolean isTargetLanguageSentence(CharSequence text, int start, int end) {
+        if (start >= end) return false;
         if (minLanguageRatio <= 0) return true;
-        
-        int languageChars = 0;
-        java.util.regex.Matcher matcher = wordPattern.matcher(sentence);
-        while (matcher.find()) {
-            languageChars += matcher.group().length();
-        }
 
-        return (double) languageChars / sentence.length() > minLanguageRatio;
+        int languageChars = ScriptClassifier.count(text, start, end, language);
+        return (double) languageChars / (end - start) > minLanguageRatio;
     }
 }
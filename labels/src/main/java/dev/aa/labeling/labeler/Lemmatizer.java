@@ -1,5 +1,23 @@
 package dev.aa.labeling.labeler;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public interface Lemmatizer {
     String lemmatize(String word);
+
+    /** Lemmas of the given words, keyed by word; words without a lemma are left out. */
+    default Map<String, String> lemmatizeAll(Collection<String> words) {
+        Map<String, String> lemmas = new LinkedHashMap<>();
+        for (String word : words) {
+            if (!lemmas.containsKey(word)) {
+                String lemma = lemmatize(word);
+                if (lemma != null) {
+                    lemmas.put(word, lemma);
+                }
+            }
+        }
+        return lemmas;
+    }
 }
@@ -1,21 +1,100 @@
 package dev.aa.labeling.labeler;
 
+import dev.aa.labeling.Constants;
+
 import java.util.Locale;
 
 public class LemmatizerFactory {
-    
+
+    /** Where Russian words are lemmatized. */
+    public enum RussianBackend {
+        /** Embedded model when one can be loaded, otherwise the HTTP service */
+        AUTO,
+        /** In-JVM LemmaGen model only; fails when no model can be loaded */
+        EMBEDDED,
+        /** The external Python lemma service */
+        HTTP;
+
+        /** Parses the lemmaBackend setting; null means AUTO, unknown names fail. */
+        public static RussianBackend of(String name) {
+            if (name == null || name.isBlank()) {
+                return AUTO;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown lemmaBackend '" + name + "', expected AUTO, EMBEDDED or HTTP");
+            }
+        }
+    }
+
+    private static volatile EmbeddedRussianLemmatizer embeddedRussian;
+    private static volatile boolean embeddedRussianLoaded;
+
     public static Lemmatizer createLemmatizer(String language) {
+        return createLemmatizer(language, RussianBackend.AUTO);
+    }
+
+    public static Lemmatizer createLemmatizer(String language, RussianBackend backend) {
+        return createLemmatizer(language, backend, Constants.DEFAULT_LEMMA_BATCH_SIZE, Constants.DEFAULT_LEMMA_CONCURRENT_REQUESTS);
+    }
+
+    /** Batch size and concurrent requests apply to lemmatizeAll of the HTTP service. */
+    public static Lemmatizer createLemmatizer(String language, RussianBackend backend, int batchSize, int concurrentRequests) {
         if (language == null) {
             return new NoOpLemmatizer();
         }
-        
+
         String lang = language.toLowerCase(Locale.ROOT);
-        
+
         return switch (lang) {
-            case "ru", "ru-ru" -> new RussianLemmatizer();
+            case "ru", "ru-ru" -> createRussianLemmatizer(backend, batchSize, concurrentRequests);
             case "en", "en-us" -> new EnglishLemmatizer();
             case "he", "he-il" -> new HebrewLemmatizer();
             default -> new NoOpLemmatizer();
         };
     }
+
+    /** True when a Russian model is available in process, so the HTTP service is not needed. */
+    public static boolean hasEmbeddedRussian() {
+        return embeddedRussian() != null;
+    }
+
+    /** True when Russian words go to the HTTP lemma service under the given backend. */
+    public static boolean usesRussianService(RussianBackend backend) {
+        return switch (backend) {
+            case HTTP -> true;
+            case EMBEDDED -> false;
+            case AUTO -> !hasEmbeddedRussian();
+        };
+    }
+
+    private static Lemmatizer createRussianLemmatizer(RussianBackend backend, int batchSize, int concurrentRequests) {
+        if (backend == RussianBackend.HTTP) {
+            return new RussianLemmatizer(batchSize, concurrentRequests);
+        }
+        EmbeddedRussianLemmatizer embedded = embeddedRussian();
+        if (embedded != null) {
+            return embedded;
+        }
+        if (backend == RussianBackend.EMBEDDED) {
+            throw new IllegalStateException("lemmaBackend EMBEDDED needs a Russian LemmaGen model at " +
+                Constants.RU_LEMMA_MODEL_PATH);
+        }
+        System.out.println("No embedded Russian lemma model, using the HTTP lemma service");
+        return new RussianLemmatizer(batchSize, concurrentRequests);
+    }
+
+    /** The model is loaded once per JVM and shared, since it is read-only. */
+    private static EmbeddedRussianLemmatizer embeddedRussian() {
+        if (!embeddedRussianLoaded) {
+            synchronized (LemmatizerFactory.class) {
+                if (!embeddedRussianLoaded) {
+                    embeddedRussian = EmbeddedRussianLemmatizer.loadDefault();
+                    embeddedRussianLoaded = true;
+                }
+            }
+        }
+        return embeddedRussian;
+    }
 }
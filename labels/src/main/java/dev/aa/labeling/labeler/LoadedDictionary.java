@@ -0,0 +1,23 @@
+package dev.aa.labeling.labeler;
+
+import java.util.List;
+
+public record LoadedDictionary(
+    String path,
+    String name,
+    String entryType,
+    List<DictionaryEntry> entries
+) {
+    public static String nameFromPath(String path) {
+        if (path == null) return null;
+        String fileName = path.replace('\\', '/');
+        fileName = fileName.substring(fileName.lastIndexOf('/') + 1);
+        if (fileName.endsWith("_dict.json")) {
+            return fileName.substring(0, fileName.length() - "_dict.json".length());
+        }
+        if (fileName.endsWith(".json")) {
+            return fileName.substring(0, fileName.length() - ".json".length());
+        }
+        return fileName;
+    }
+}
@@ -0,0 +1,44 @@
+package dev.aa.labeling.labeler;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/** How many label lookups each validation tier settled, cheapest tier first. */
+public class LookupTierCounts {
+
+    public enum Tier {
+        REJECTED_BEFORE,
+        SEEN_TERM,
+        EXACT,
+        STEM_ACCEPT,
+        STEM_REJECT,
+        LEMMA_ACCEPT,
+        LEMMA_REJECT,
+        LLM_ACCEPT,
+        LLM_REJECT,
+        UNRESOLVED
+    }
+
+    private final EnumMap<Tier, Long> counts = new EnumMap<>(Tier.class);
+
+    public void increment(Tier tier) {
+        counts.merge(tier, 1L, Long::sum);
+    }
+
+    public long get(Tier tier) {
+        return counts.getOrDefault(tier, 0L);
+    }
+
+    public long total() {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public String summary() {
+        StringJoiner joiner = new StringJoiner(", ", "Lookups by tier (" + total() + "): ", "");
+        for (Map.Entry<Tier, Long> entry : counts.entrySet()) {
+            joiner.add(entry.getKey().name().toLowerCase() + "=" + entry.getValue());
+        }
+        return joiner.toString();
+    }
+}
@@ -1,5 +1,7 @@
 package dev.aa.labeling.labeler;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.aa.labeling.Constants;
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -7,48 +9,144 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Russian lemmatizer backed by the external Python lemma service: one GET per word, or for
+ * lemmatizeAll batches of words POSTed to the bulk endpoint, several batches in flight at once.
+ * Fallback for when no embedded model is available (see EmbeddedRussianLemmatizer); when the
+ * service fails the result is null, so the word is neither cached nor matched by lemma, and the
+ * failure is reported once.
+ */
 public class RussianLemmatizer implements Lemmatizer {
-    
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> LEMMAS_TYPE = new TypeReference<>() {};
+
     private final HttpClient httpClient;
-    
+    private final String serviceUrl;
+    private final String bulkUrl;
+    private final int batchSize;
+    private final int concurrentRequests;
+    private final AtomicBoolean failureReported = new AtomicBoolean();
+
     public RussianLemmatizer() {
+        this(Constants.DEFAULT_LEMMA_BATCH_SIZE, Constants.DEFAULT_LEMMA_CONCURRENT_REQUESTS);
+    }
+
+    public RussianLemmatizer(int batchSize, int concurrentRequests) {
+        this(Constants.LEMMA_SERVICE_URL, Constants.LEMMA_SERVICE_BULK_URL, batchSize, concurrentRequests);
+    }
+
+    RussianLemmatizer(String serviceUrl, String bulkUrl, int batchSize, int concurrentRequests) {
         this.httpClient = HttpClient.newHttpClient();
+        this.serviceUrl = serviceUrl;
+        this.bulkUrl = bulkUrl;
+        this.batchSize = Math.max(1, batchSize);
+        this.concurrentRequests = Math.max(1, concurrentRequests);
     }
-    
+
     @Override
     public String lemmatize(String word) {
         try {
             String encodedWord = URLEncoder.encode(word, StandardCharsets.UTF_8);
-            String url = Constants.LEMMA_SERVICE_URL + "?word=" + encodedWord;
-            
+            String url = serviceUrl + "?word=" + encodedWord;
+
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(url))
                     .timeout(java.time.Duration.ofSeconds(5))
                     .GET()
                     .build();
-            
+
             HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
+
             if (response.statusCode() == 200) {
                 return response.body();
-            } else {
-                System.err.println("Lemma service returned status: " + response.statusCode());
-                System.exit(1);
-                return null;
             }
+            reportFailure("Lemma service returned status: " + response.statusCode());
         } catch (java.net.http.HttpTimeoutException e) {
-            System.err.println("Lemma service timeout");
-            System.exit(1);
-            return null;
+            reportFailure("Lemma service timeout");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             String msg = e.getMessage();
             if (msg == null) {
                 msg = e.getClass().getName();
             }
-            System.err.println("Lemma service error: " + msg);
-            System.exit(1);
-            return null;
+            reportFailure("Lemma service error: " + msg);
+        }
+        return null;
+    }
+
+    /** Words of a failed batch are left out, like words the service has no lemma for. */
+    @Override
+    public Map<String, String> lemmatizeAll(Collection<String> words) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(words));
+        Map<String, String> lemmas = new LinkedHashMap<>();
+        List<CompletableFuture<Map<String, String>>> inFlight = new ArrayList<>();
+        for (int start = 0; start < distinct.size(); start += batchSize) {
+            inFlight.add(sendBatch(distinct.subList(start, Math.min(distinct.size(), start + batchSize))));
+            if (inFlight.size() == concurrentRequests) {
+                collect(inFlight, lemmas);
+            }
+        }
+        collect(inFlight, lemmas);
+        return lemmas;
+    }
+
+    private CompletableFuture<Map<String, String>> sendBatch(List<String> batch) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(bulkUrl))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(Map.of("words", batch))))
+                    .build();
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .thenApply(response -> {
+                        if (response.statusCode() != 200) {
+                            reportFailure("Lemma service returned status: " + response.statusCode());
+                            return Map.<String, String>of();
+                        }
+                        try {
+                            return MAPPER.readValue(response.body(), LEMMAS_TYPE);
+                        } catch (java.io.IOException e) {
+                            reportFailure("Lemma service sent an unreadable response: " + e.getMessage());
+                            return Map.<String, String>of();
+                        }
+                    })
+                    .exceptionally(e -> {
+                        reportFailure("Lemma service error: " + e.getMessage());
+                        return Map.of();
+                    });
+        } catch (java.io.IOException e) {
+            reportFailure("Lemma service error: " + e.getMessage());
+            return CompletableFuture.completedFuture(Map.of());
+        }
+    }
+
+    private static void collect(List<CompletableFuture<Map<String, String>>> inFlight, Map<String, String> lemmas) {
+        for (CompletableFuture<Map<String, String>> batch : inFlight) {
+            batch.join().forEach((word, lemma) -> {
+                if (lemma != null && !lemma.isEmpty()) {
+                    lemmas.put(word, lemma);
+                }
+            });
+        }
+        inFlight.clear();
+    }
+
+    private void reportFailure(String message) {
+        if (failureReported.compareAndSet(false, true)) {
+            System.err.println(message + " (lemmas unavailable)");
         }
     }
 }
@@ -0,0 +1,24 @@
+package dev.aa.labeling.labeler;
+
+/**
+ * Counts, in one pass and without allocating, how many characters of a text belong to the script
+ * of a language: Cyrillic (U+0400–U+04FF) for RU, ASCII letters for EN, Hebrew (U+0590–U+05FF)
+ * for HE. These are the ranges of the languages' word patterns, so a count equals the total
+ * length of the word-pattern matches.
+ */
+public final class ScriptClassifier {
+
+    private ScriptClassifier() {
+    }
+
+    /** Characters of text[start, end) in the language's script. */
+    public static int count(CharSequence text, int start, int end, LanguageConfig.Language language) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (language.isScriptChar(text.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,184 @@
+package dev.aa.labeling.labeler;
+
+import java.util.Arrays;
+
+/**
+ * Normalizes a text and splits it into sentences in one pass over the characters, without
+ * regexes or intermediate strings. The sentences are spans into one reusable buffer and are the
+ * same as those of the previous pipeline:
+ * <pre>
+ *   text.replaceAll("[\r\n]", " ")
+ *       .replaceAll("([.,!?;:])([^ ])", "$1 $2")
+ *       .replaceAll("\\s+", " ")
+ *       .trim()
+ *       .split(language sentence pattern)
+ * </pre>
+ * A run of . ! ? ends a sentence when whitespace and a sentence-starting letter of the language
+ * follow it, or the text ends. An instance is not thread-safe; results are valid until the next
+ * call to segment.
+ */
+public final class SentenceSegmenter {
+
+    /** Buffers that grew past this are dropped after use rather than kept. */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private StringBuilder buffer = new StringBuilder(4096);
+    private int[] spans = new int[64];
+    private int count;
+
+    /** Normalizes the text into the buffer and finds its sentences; returns how many. */
+    public int segment(CharSequence text, LanguageConfig.Language language) {
+        buffer.setLength(0);
+        count = 0;
+        normalize(text);
+
+        int from = 0;
+        int to = buffer.length();
+        while (from < to && buffer.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && buffer.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        split(from, to, language);
+        return count;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int start(int sentence) {
+        return spans[2 * sentence];
+    }
+
+    public int end(int sentence) {
+        return spans[2 * sentence + 1];
+    }
+
+    /** The normalized text the spans point into. */
+    public CharSequence buffer() {
+        return buffer;
+    }
+
+    public String sentence(int sentence) {
+        return buffer.substring(start(sentence), end(sentence));
+    }
+
+    /** Lets go of buffers that a very long text made large. */
+    public void release() {
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = new StringBuilder(4096);
+        }
+        if (spans.length > MAX_RETAINED_CAPACITY / 8) {
+            spans = new int[64];
+        }
+    }
+
+    /**
+     * Line breaks become spaces; a punctuation mark followed by anything but a space gets a space
+     * after it, and that next character is copied as is (the regex consumed it with the mark);
+     * whitespace runs collapse to one space. Trimming is left to the caller.
+     */
+    private void normalize(CharSequence text) {
+        int length = text.length();
+        boolean inSpace = false;
+        int i = 0;
+        while (i < length) {
+            char c = lineBreakToSpace(text.charAt(i));
+            i++;
+            inSpace = append(c, inSpace);
+            if (isSpacedPunctuation(c) && i < length) {
+                char next = lineBreakToSpace(text.charAt(i));
+                if (next != ' ') {
+                    inSpace = append(' ', inSpace);
+                    inSpace = append(next, inSpace);
+                    i++;
+                }
+            }
+        }
+    }
+
+    private boolean append(char c, boolean inSpace) {
+        if (isRegexSpace(c)) {
+            if (!inSpace) {
+                buffer.append(' ');
+            }
+            return true;
+        }
+        buffer.append(c);
+        return false;
+    }
+
+    /** Java String.split semantics: a leading empty sentence is kept, trailing empty ones are not. */
+    private void split(int from, int to, LanguageConfig.Language language) {
+        int sentenceStart = from;
+        boolean matched = false;
+        int i = from;
+        while (i < to) {
+            if (!isTerminator(buffer.charAt(i))) {
+                i++;
+                continue;
+            }
+            int runEnd = i + 1;
+            while (runEnd < to && isTerminator(buffer.charAt(runEnd))) {
+                runEnd++;
+            }
+            if (endsSentence(runEnd, to, language)) {
+                addSpan(sentenceStart, i);
+                sentenceStart = runEnd;
+                matched = true;
+            }
+            i = runEnd;
+        }
+        addSpan(sentenceStart, to);
+        if (matched) {
+            while (count > 0 && end(count - 1) == start(count - 1)) {
+                count--;
+            }
+        }
+    }
+
+    /** The lookahead (?=\s+[sentence start]|$) after a run of terminators. */
+    private boolean endsSentence(int position, int to, LanguageConfig.Language language) {
+        if (position == to || (position == to - 1 && isLineTerminator(buffer.charAt(position)))) {
+            return true;
+        }
+        int next = position;
+        while (next < to && isRegexSpace(buffer.charAt(next))) {
+            next++;
+        }
+        return next > position && next < to && language.isSentenceStart(buffer.charAt(next));
+    }
+
+    private void addSpan(int start, int end) {
+        if (2 * count + 2 > spans.length) {
+            spans = Arrays.copyOf(spans, spans.length * 2);
+        }
+        spans[2 * count] = start;
+        spans[2 * count + 1] = end;
+        count++;
+    }
+
+    private static char lineBreakToSpace(char c) {
+        return c == '\r' || c == '\n' ? ' ' : c;
+    }
+
+    private static boolean isSpacedPunctuation(char c) {
+        return c == '.' || c == ',' || c == '!' || c == '?' || c == ';' || c == ':';
+    }
+
+    private static boolean isTerminator(char c) {
+        return c == '.' || c == '!' || c == '?';
+    }
+
+    /** Regex \s: [ \t\n\x0B\f\r]. */
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Line terminators that regex $ may precede at the end of input. */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,167 @@
+package dev.aa.labeling.labeler;
+
+import java.util.Arrays;
+
+/**
+ * Token model of one trimmed sentence, built once and shared by candidate matching, label
+ * validation and context extraction. It holds the lowercase characters of the sentence and the
+ * offsets of two kinds of tokens:
+ * <ul>
+ *   <li>words: runs of letters and digits, used to widen dictionary hits to whole words;</li>
+ *   <li>tokens: runs of non-whitespace (regex \S+), used for context windows.</li>
+ * </ul>
+ * Lookups are binary searches over the offsets; nothing is split or copied.
+ */
+public final class SentenceTokens {
+
+    private final String text;
+    private final char[] lower;
+    private int[] words = new int[16];
+    private int wordCount;
+    private int[] tokens = new int[16];
+    private int tokenCount;
+
+    private SentenceTokens(String text) {
+        this.text = text;
+        this.lower = new char[text.length()];
+        int wordStart = -1;
+        int tokenStart = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            lower[i] = Character.toLowerCase(c);
+            if (Character.isLetterOrDigit(c)) {
+                if (wordStart < 0) {
+                    wordStart = i;
+                }
+            } else if (wordStart >= 0) {
+                words = add(words, wordCount++, wordStart, i);
+                wordStart = -1;
+            }
+            if (!isRegexSpace(c)) {
+                if (tokenStart < 0) {
+                    tokenStart = i;
+                }
+            } else if (tokenStart >= 0) {
+                tokens = add(tokens, tokenCount++, tokenStart, i);
+                tokenStart = -1;
+            }
+        }
+        if (wordStart >= 0) {
+            words = add(words, wordCount++, wordStart, text.length());
+        }
+        if (tokenStart >= 0) {
+            tokens = add(tokens, tokenCount++, tokenStart, text.length());
+        }
+    }
+
+    public static SentenceTokens of(String sentence) {
+        return new SentenceTokens(sentence);
+    }
+
+    public String text() {
+        return text;
+    }
+
+    public int length() {
+        return lower.length;
+    }
+
+    public char lowerCharAt(int index) {
+        return lower[index];
+    }
+
+    /** Start of the word a hit starting at index belongs to: back over letters and digits. */
+    public int wordStart(int index) {
+        if (index <= 0 || !Character.isLetterOrDigit(text.charAt(index - 1))) {
+            return index;
+        }
+        return words[2 * wordContaining(index - 1)];
+    }
+
+    /** End of the word a hit ending at index belongs to: on over letters and digits. */
+    public int wordEnd(int index) {
+        if (index >= text.length() || !Character.isLetterOrDigit(text.charAt(index))) {
+            return index;
+        }
+        return words[2 * wordContaining(index) + 1];
+    }
+
+    /** Whether a word may start (isStart) or end at index: no letter or digit on that side. */
+    public boolean isWordBoundary(int index, boolean isStart) {
+        return isStart ? wordStart(index) == index : wordEnd(index) == index;
+    }
+
+    public int tokenCount() {
+        return tokenCount;
+    }
+
+    public int tokenStart(int token) {
+        return tokens[2 * token];
+    }
+
+    public int tokenEnd(int token) {
+        return tokens[2 * token + 1];
+    }
+
+    /**
+     * Index of the last token starting before position (0 for position 0), as the previous
+     * prefix.split("\\s+").length - 1 computed it; for a label that starts a token this is the
+     * token before it.
+     */
+    public int tokenIndexAt(int position) {
+        if (position <= 0) {
+            return 0;
+        }
+        int low = 0;
+        int high = tokenCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tokens[2 * mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    /** Tokens [from, to) joined by single spaces. */
+    public String join(int from, int to) {
+        StringBuilder joined = new StringBuilder();
+        for (int token = from; token < to; token++) {
+            if (token > from) {
+                joined.append(' ');
+            }
+            joined.append(text, tokenStart(token), tokenEnd(token));
+        }
+        return joined.toString();
+    }
+
+    private int wordContaining(int index) {
+        int low = 0;
+        int high = wordCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (words[2 * mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static int[] add(int[] spans, int index, int start, int end) {
+        if (2 * index + 2 > spans.length) {
+            spans = Arrays.copyOf(spans, spans.length * 2);
+        }
+        spans[2 * index] = start;
+        spans[2 * index + 1] = end;
+        return spans;
+    }
+
+    /** Regex \s: [ \t\n\x0B\f\r]. */
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
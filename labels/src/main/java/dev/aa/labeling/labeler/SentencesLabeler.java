@@ -1,13 +1,16 @@
 package dev.aa.labeling.labeler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.aa.labeling.Constants;
 import dev.aa.labeling.config.LabelerConfiguration;
 import dev.aa.labeling.interfaces.IfTopicLabeler;
+import dev.aa.labeling.model.Post;
 import dev.aa.labeling.model.Topic;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -15,20 +18,33 @@ import java.util.*;
 public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
     private final LabelerConfiguration config;
     private final OutputWriter streamWriter;
+    private final Map<String, OutputWriter> dictionaryWriters;
     private final CacheManager cacheManager;
     private final LLMAdapter llmAdapter;
     private final Lemmatizer lemmatizer;
+    private final CachingLemmatizer lemmaCache;
+    private final LLMVerdictCache verdictCache;
     private final DictionaryLoader dictionaryLoader;
-    private CountersManager countersManager;
     
+    private List<LoadedDictionary> dictionaries;
     private List<DictionaryEntry> dictionary;
+    private final List<DictionaryOutput> outputs = new ArrayList<>();
+    private final Map<String, DictionaryOutput> outputsByDictionary = new HashMap<>();
+    private DictionaryMatcher dictionaryMatcher;
     private int rejectedTermsLimit = 1000;
     private LinkedHashMap<String, Long> rejectedTerms;
     private int cacheSaveInterval = 5;
     private int lastCacheSave = 0;
     private LanguageConfig languageConfig;
+    private Map<String, String> prefetchedLemmas = Map.of();
+    private final StemPreFilter stemPreFilter = new StemPreFilter();
+    private final SentenceSegmenter segmenter = new SentenceSegmenter();
+    private final LookupTierCounts lookupTiers = new LookupTierCounts();
     
+    /** Labeled sentences, kept only by labelers without writers; see {@link #isStreaming()}. */
     private final List<LabeledSentence> results = new ArrayList<>();
+    private final boolean streaming;
+    private int sentencesLabeled = 0;
     private int topicsProcessed = 0;
     private int sentencesProcessed = 0;
     private int labelsAdded = 0;
@@ -43,8 +59,35 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
     }
     
     public SentencesLabeler(LabelerConfiguration config, OutputWriter streamWriter, Path llmConfigDir, Lemmatizer customLemmatizer) throws Exception {
+        this(config, streamWriter, null, llmConfigDir, customLemmatizer);
+    }
+    
+    /**
+     * Creates a labeler that matches every configured dictionary in one pass but writes
+     * each dictionary to its own valid/invalid streams and counters.
+     * Writers are keyed by dictionary path as listed in {@link LabelerConfiguration#dictionaryPaths()}.
+     */
+    public static SentencesLabeler withDictionaryWriters(LabelerConfiguration config, Map<String, OutputWriter> dictionaryWriters, 
+                                                         Path llmConfigDir, Lemmatizer customLemmatizer) throws Exception {
+        return new SentencesLabeler(config, null, dictionaryWriters, llmConfigDir, customLemmatizer);
+    }
+    
+    /** A labeler that asks the given adapter instead of configured LLM providers (for tests). */
+    static SentencesLabeler withLLMAdapter(LabelerConfiguration config, OutputWriter streamWriter, LLMAdapter llmAdapter,
+                                           Lemmatizer customLemmatizer) throws Exception {
+        return new SentencesLabeler(config, streamWriter, null, null, llmAdapter, customLemmatizer);
+    }
+    
+    private SentencesLabeler(LabelerConfiguration config, OutputWriter streamWriter, Map<String, OutputWriter> dictionaryWriters, 
+                             Path llmConfigDir, Lemmatizer customLemmatizer) throws Exception {
+        this(config, streamWriter, dictionaryWriters, llmConfigDir, null, customLemmatizer);
+    }
+    
+    private SentencesLabeler(LabelerConfiguration config, OutputWriter streamWriter, Map<String, OutputWriter> dictionaryWriters, 
+                             Path llmConfigDir, LLMAdapter customLLMAdapter, Lemmatizer customLemmatizer) throws Exception {
         this.config = config;
         this.streamWriter = streamWriter;
+        this.dictionaryWriters = dictionaryWriters;
         this.dictionaryLoader = new DictionaryLoader(new ObjectMapper());
         
         String forumName = config.forumName() != null ? config.forumName() : "default";
@@ -57,32 +100,71 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
         this.cacheManager = new CacheManager(termsPath, lemmasPath);
         this.cacheManager.load();
         
-        if (llmConfigDir != null) {
-            this.llmAdapter = new LLMAdapterImpl(llmConfigDir);
+        if (customLLMAdapter != null) {
+            this.verdictCache = null;
+            this.llmAdapter = customLLMAdapter;
+        } else if (llmConfigDir != null) {
+            this.verdictCache = new LLMVerdictCache(dataDir.resolve(Constants.LLM_VERDICT_CACHE_FILE),
+                Duration.ofDays(Constants.LLM_VERDICT_TTL_DAYS));
+            this.verdictCache.load();
+            this.llmAdapter = new LLMAdapterImpl(llmConfigDir, verdictCache);
         } else {
+            this.verdictCache = null;
             this.llmAdapter = null;
         }
         
-        this.lemmatizer = customLemmatizer != null ? customLemmatizer : LemmatizerFactory.createLemmatizer("RU");
+        if (customLemmatizer != null) {
+            this.lemmaCache = null;
+            this.lemmatizer = customLemmatizer;
+        } else {
+            Lemmatizer base = LemmatizerFactory.createLemmatizer("RU", LemmatizerFactory.RussianBackend.of(config.lemmaBackend()),
+                config.lemmaBatchSize(), config.lemmaConcurrentRequests());
+            this.lemmaCache = new CachingLemmatizer(base, "ru",
+                dataDir.resolve(Constants.LEMMA_CACHE_FILE), Constants.LEMMA_CACHE_MAX_ENTRIES);
+            this.lemmaCache.load();
+            this.lemmatizer = lemmaCache;
+        }
         
         System.out.println("Loading dictionary...");
         loadDictionary();
+        openOutputs();
+        this.streaming = hasWriters();
+    }
+    
+    private void openOutputs() {
+        if (dictionaryWriters == null) {
+            DictionaryOutput shared = openOutput("all", streamWriter, "counters.json");
+            for (LoadedDictionary loaded : dictionaries) {
+                outputsByDictionary.put(loaded.name(), shared);
+            }
+            return;
+        }
         
-        if (streamWriter != null) {
+        for (LoadedDictionary loaded : dictionaries) {
+            DictionaryOutput output = openOutput(loaded.name(), dictionaryWriters.get(loaded.path()), loaded.name() + "_counters.json");
+            outputsByDictionary.put(loaded.name(), output);
+        }
+    }
+    
+    private DictionaryOutput openOutput(String name, OutputWriter writer, String countersFileName) {
+        DictionaryOutput output = new DictionaryOutput(name, writer);
+        outputs.add(output);
+        
+        if (writer != null) {
             try {
-                streamWriter.open();
+                writer.open();
                 
                 Path outputDir = config.outputDirectory() != null ? config.outputDirectory() : Path.of("output");
-                String countersFileName = "counters.json";
                 if (config.siteId() != null && !config.siteId().isEmpty()) {
-                    countersFileName = config.siteId() + "_counters.json";
+                    countersFileName = config.siteId() + "_" + countersFileName;
                 }
-                this.countersManager = new CountersManager(outputDir, countersFileName);
+                output.counters = new CountersManager(outputDir, countersFileName);
                 
             } catch (IOException e) {
-                System.err.println("Failed to open stream writer: " + e.getMessage());
+                System.err.println("Failed to open stream writer for " + name + ": " + e.getMessage());
             }
         }
+        return output;
     }
     
     @Override
@@ -94,100 +176,181 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
         
         this.languageConfig = LanguageConfig.forLanguage(language);
         
-        String content = topic.getCleanedContent();
-        if (content == null || content.isEmpty()) {
-            content = topic.getContent();
-        }
-        if (content == null || content.isEmpty()) {
+        if (stopped) {
             return;
         }
         
-        if (stopped) {
-            return;
+        String lang = language.toLowerCase();
+        SentenceCounts counts = new SentenceCounts();
+        List<String> texts = new ArrayList<>();
+        List<Post> posts = topic.getPosts();
+        if (posts != null) {
+            for (Post post : posts) {
+                texts.add(post.text());
+            }
+        } else {
+            String content = topic.getCleanedContent();
+            if (content == null || content.isEmpty()) {
+                content = topic.getContent();
+            }
+            if (content == null || content.isEmpty()) {
+                return;
+            }
+            texts.add(content);
         }
         
-        List<LabeledSentence> topicSentences = processSentences(content, topic.getForumUrl(), topic.getTopicUrl(), language.toLowerCase());
-        results.addAll(topicSentences);
+        List<List<PendingSentence>> pendingTexts = new ArrayList<>();
+        for (String text : texts) {
+            pendingTexts.add(findCandidateSentences(text, counts));
+        }
+        prefetchLemmas(pendingTexts);
+        
+        // Post by post, so a post's sentences are written before the next one is labeled
+        for (List<PendingSentence> pending : pendingTexts) {
+            if (stopped) {
+                break;
+            }
+            emit(labelSentences(pending, topic.getForumUrl(), topic.getTopicUrl(), lang, counts));
+        }
+        prefetchedLemmas = Map.of();
+        segmenter.release();
         topicsProcessed++;
         
-        if (streamWriter != null) {
-            for (LabeledSentence sentence : topicSentences) {
-                int maxSentences = config.maxSentences();
-                if (maxSentences > 0 && sentencesProcessed >= maxSentences) {
-                    System.out.println("Max sentences reached: " + maxSentences);
-                    stopped = true;
-                    break;
+        if (counts.labeled == 0 && counts.raw > 0) {
+            String topicUrl = topic.getTopicUrl();
+            System.out.println("  Topic " + topicUrl.substring(topicUrl.lastIndexOf('=')+1) + ": " + 
+                counts.raw + " total, " + counts.tooShort + " short, " + counts.otherLanguage + " lang, " + counts.noCandidate + " no candidate, " + counts.labeled + " labeled");
+        }
+    }
+    
+    private void emit(List<RoutedSentence> sentences) {
+        sentencesLabeled += sentences.size();
+        if (!streaming) {
+            for (RoutedSentence routed : sentences) {
+                results.add(routed.sentence());
+            }
+            return;
+        }
+        
+        for (RoutedSentence routed : sentences) {
+            OutputWriter writer = routed.output().writer;
+            if (writer == null) {
+                continue;
+            }
+            int maxSentences = config.maxSentences();
+            if (maxSentences > 0 && sentencesProcessed >= maxSentences) {
+                System.out.println("Max sentences reached: " + maxSentences);
+                stopped = true;
+                break;
+            }
+            try {
+                writer.writeData(routed.sentence());
+                sentencesProcessed++;
+                if (sentencesProcessed % 10 == 0) {
+                    System.out.println("Written " + sentencesProcessed + " sentences... (terms: " + 
+                        cacheManager.getTermsSeenCount() + ", lemmas: " + cacheManager.getLemmasSeenCount() + ")");
                 }
-                try {
-                    streamWriter.writeData(sentence);
-                    sentencesProcessed++;
-                    if (sentencesProcessed % 10 == 0) {
-                        System.out.println("Written " + sentencesProcessed + " sentences... (terms: " + 
-                            cacheManager.getTermsSeenCount() + ", lemmas: " + cacheManager.getLemmasSeenCount() + ")");
-                    }
-                    
-                    // Periodic cache save every 5 sentences
-                    if (sentencesProcessed - lastCacheSave >= cacheSaveInterval) {
-                        saveCache();
-                        lastCacheSave = sentencesProcessed;
-                    }
-                } catch (IOException e) {
-                    System.err.println("Error writing sentence: " + e.getMessage());
+                
+                // Periodic cache save every 5 sentences
+                if (sentencesProcessed - lastCacheSave >= cacheSaveInterval) {
+                    saveCache();
+                    lastCacheSave = sentencesProcessed;
                 }
+            } catch (IOException e) {
+                System.err.println("Error writing sentence: " + e.getMessage());
             }
         }
     }
     
-    private List<LabeledSentence> processSentences(String content, String forumUrl, String topicUrl, String lang) {
-        List<LabeledSentence> sentences = new ArrayList<>();
-        
-        content = normalizeText(content);
-        String[] rawSentences = languageConfig.getSentencePattern().split(content);
-        
-        int rawCount = rawSentences.length;
-        int minLenCount = 0;
-        int langFilteredCount = 0;
-        int labeledCount = 0;
-        int noCandidateCount = 0;
-        
-        for (String raw : rawSentences) {
-            if (raw.length() < config.minSentenceLength()) {
-                minLenCount++;
+    private boolean hasWriters() {
+        for (DictionaryOutput output : outputs) {
+            if (output.writer != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /** Sentences of one text that pass the length and language filters and have dictionary candidates. */
+    private List<PendingSentence> findCandidateSentences(String content, SentenceCounts counts) {
+        List<PendingSentence> pending = new ArrayList<>();
+        
+        int sentenceCount = segmenter.segment(content, languageConfig.getLanguage());
+        counts.raw += sentenceCount;
+        CharSequence normalized = segmenter.buffer();
+        
+        for (int i = 0; i < sentenceCount; i++) {
+            int start = segmenter.start(i);
+            int end = segmenter.end(i);
+            if (end - start < config.minSentenceLength()) {
+                counts.tooShort++;
                 continue;
             }
             
-            raw = raw.trim();
-            if (raw.isEmpty()) continue;
+            while (start < end && normalized.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && normalized.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            if (start == end) continue;
             
-            if (!languageConfig.isTargetLanguageSentence(raw)) {
-                langFilteredCount++;
+            if (!languageConfig.isTargetLanguageSentence(normalized, start, end)) {
+                counts.otherLanguage++;
                 continue;
             }
             
-            String originalText = raw.trim();
-            String cleanedText = originalText;
-            String lowerCleaned = cleanedText.toLowerCase();
-            
-            // Check if any dictionary value found
-            boolean hasCandidate = false;
-            for (DictionaryEntry entry : dictionary) {
-                for (DictValue dv : entry.values()) {
-                    if (lowerCleaned.contains(dv.value().toLowerCase())) {
-                        hasCandidate = true;
-                        break;
+            SentenceTokens tokens = SentenceTokens.of(normalized.subSequence(start, end).toString());
+            List<Candidate> candidates = dictionaryMatcher.findCandidatesIn(tokens);
+            if (candidates.isEmpty()) {
+                counts.noCandidate++;
+                continue;
+            }
+            pending.add(new PendingSentence(tokens, candidates));
+        }
+        
+        return pending;
+    }
+    
+    /**
+     * Lemmatizes, in one batch, every surface of the topic that getLabels would otherwise send to
+     * the lemmatizer one at a time: not duality-checked, rejected, already seen, an exact match or
+     * settled by stem.
+     */
+    private void prefetchLemmas(List<List<PendingSentence>> pendingTexts) {
+        Set<String> surfaces = new LinkedHashSet<>();
+        for (List<PendingSentence> pending : pendingTexts) {
+            for (PendingSentence sentence : pending) {
+                for (Candidate candidate : sentence.candidates()) {
+                    DictValue dictValue = candidate.dictValue();
+                    String surfaceLower = candidate.surface().toLowerCase();
+                    String valueLower = dictValue.value().toLowerCase();
+                    if (dictValue.duality() == null && !shouldSkip(surfaceLower) && !cacheManager.containsTerm(surfaceLower)
+                            && !valueLower.equals(surfaceLower)
+                            && stemVerdict(surfaceLower, valueLower) == StemPreFilter.Verdict.UNSURE) {
+                        surfaces.add(surfaceLower);
                     }
                 }
-                if (hasCandidate) break;
             }
+        }
+        prefetchedLemmas = surfaces.size() > 1 ? lemmatizer.lemmatizeAll(surfaces) : Map.of();
+    }
+    
+    private List<RoutedSentence> labelSentences(List<PendingSentence> pending, String forumUrl, String topicUrl, String lang, SentenceCounts counts) {
+        List<RoutedSentence> sentences = new ArrayList<>();
+        
+        for (PendingSentence sentence : pending) {
+            String originalText = sentence.tokens().text();
+            List<Candidate> candidates = sentence.candidates();
             
-            if (!hasCandidate) {
-                noCandidateCount++;
-                continue;
-            }
-            
-            List<LabelEntry> foundLabels = findLabels(originalText, cleanedText, true);
-            
-            if (!foundLabels.isEmpty()) {
+            boolean labeled = false;
+            for (Map.Entry<DictionaryOutput, List<Candidate>> group : groupByOutput(candidates).entrySet()) {
+                DictionaryOutput output = group.getKey();
+                List<LabelEntry> foundLabels = getLabels(group.getValue(), originalText);
+                if (foundLabels.isEmpty()) {
+                    continue;
+                }
+                
                 List<LabelEntry> validLabels = foundLabels.stream()
                     .filter(LabelEntry::isValid)
                     .toList();
@@ -197,52 +360,51 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
                 
                 int maxContextLength = config.maxSentenceLengthForContext();
                 if (originalText.length() > maxContextLength && !validLabels.isEmpty()) {
-                    List<LabeledSentence> contextSentences = extractContext(originalText, cleanedText, validLabels, forumUrl, topicUrl, lang);
-                    sentences.addAll(contextSentences);
+                    List<LabeledSentence> contextSentences = extractContext(sentence.tokens(), validLabels, forumUrl, topicUrl, lang);
+                    for (LabeledSentence contextSentence : contextSentences) {
+                        sentences.add(new RoutedSentence(output, contextSentence));
+                    }
                     labelsAdded += contextSentences.stream().mapToInt(s -> s.validLabels().size()).sum();
                 } else {
-                    sentences.add(new LabeledSentence(forumUrl, topicUrl, lang, originalText, validLabels, invalidLabels));
+                    sentences.add(new RoutedSentence(output, new LabeledSentence(forumUrl, topicUrl, lang, originalText, validLabels, invalidLabels)));
                     labelsAdded += foundLabels.size();
                 }
-                labeledCount++;
-                if (labeledCount % 10 == 0) {
-                    System.out.println("Labeled so far: " + labeledCount);
+                labeled = true;
+            }
+            
+            if (labeled) {
+                counts.labeled++;
+                if (counts.labeled % 10 == 0) {
+                    System.out.println("Labeled so far: " + counts.labeled);
                 }
             }
         }
         
-        if (labeledCount == 0 && rawCount > 0) {
-            System.out.println("  Topic " + topicUrl.substring(topicUrl.lastIndexOf('=')+1) + ": " + 
-                rawCount + " total, " + minLenCount + " short, " + langFilteredCount + " lang, " + noCandidateCount + " no candidate, " + labeledCount + " labeled");
-        }
-        
         return sentences;
     }
     
-    private List<LabeledSentence> extractContext(String originalText, String cleanedText, List<LabelEntry> validLabels, String forumUrl, String topicUrl, String lang) {
+    private Map<DictionaryOutput, List<Candidate>> groupByOutput(List<Candidate> candidates) {
+        Map<DictionaryOutput, List<Candidate>> groups = new LinkedHashMap<>();
+        for (Candidate candidate : candidates) {
+            DictionaryOutput output = outputsByDictionary.get(candidate.dictionary());
+            groups.computeIfAbsent(output, k -> new ArrayList<>()).add(candidate);
+        }
+        return groups;
+    }
+    
+    private List<LabeledSentence> extractContext(SentenceTokens tokens, List<LabelEntry> validLabels, String forumUrl, String topicUrl, String lang) {
         List<LabeledSentence> contexts = new ArrayList<>();
         String contextSource = topicUrl + "(context)";
         
-        String[] words = cleanedText.split("\\s+");
-        
         for (LabelEntry label : validLabels) {
-            int labelStart = label.start();
-            int labelEnd = label.end();
-            String surface = label.surface();
+            int wordIndex = tokens.tokenIndexAt(label.start());
             
-            int wordIndex = getWordIndexAtPosition(cleanedText, labelStart);
-            
-            if (wordIndex >= 0 && wordIndex < words.length) {
+            if (wordIndex >= 0 && wordIndex < tokens.tokenCount()) {
                 int contextStart = Math.max(0, wordIndex - 5);
-                int contextEnd = Math.min(words.length, wordIndex + 6);
+                int contextEnd = Math.min(tokens.tokenCount(), wordIndex + 6);
                 
                 if (contextStart < contextEnd) {
-                    StringBuilder contextBuilder = new StringBuilder();
-                    for (int i = contextStart; i < contextEnd; i++) {
-                        if (i > contextStart) contextBuilder.append(" ");
-                        contextBuilder.append(words[i]);
-                    }
-                    String contextText = contextBuilder.toString().trim();
+                    String contextText = tokens.join(contextStart, contextEnd).trim();
                     
                     if (contextText.length() >= config.minSentenceLength()) {
                         List<LabelEntry> singleLabel = List.of(label);
@@ -255,63 +417,6 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
         return contexts;
     }
     
-    private int getWordIndexAtPosition(String text, int charPosition) {
-        if (charPosition <= 0) return 0;
-        String prefix = text.substring(0, Math.min(charPosition, text.length()));
-        return prefix.split("\\s+").length - 1;
-    }
-    
-    private String normalizeText(String text) {
-        return text.replaceAll("[\r\n]", " ")
-                   .replaceAll("([.,!?;:])([^\s])", "$1 $2")
-                   .replaceAll("\\s+", " ")
-                   .trim();
-    }
-    
-    private List<Candidate> getCandidates(String sentence) {
-        List<Candidate> candidates = new ArrayList<>();
-        String lowerSentence = sentence.toLowerCase();
-        String entryType = dictionaryLoader.getEntryType();
-        
-        for (DictionaryEntry entry : dictionary) {
-            String canonical = entry.getCanonical();
-            if (canonical == null) continue;
-            
-            for (DictValue dictValue : entry.values()) {
-                String value = dictValue.value();
-                String valueLower = value.toLowerCase();
-                
-                int idx = 0;
-                while ((idx = lowerSentence.indexOf(valueLower, idx)) != -1) {
-                    int end = idx + valueLower.length();
-                    
-                    // Extract surface preserving case
-                    int wordStart = idx;
-                    int wordEnd = end;
-                    
-                    while (wordStart > 0 && Character.isLetterOrDigit(sentence.charAt(wordStart - 1))) {
-                        wordStart--;
-                    }
-                    while (wordEnd < sentence.length() && Character.isLetterOrDigit(sentence.charAt(wordEnd))) {
-                        wordEnd++;
-                    }
-                    
-                    String surface = sentence.substring(wordStart, wordEnd);
-                    candidates.add(new Candidate(surface, wordStart, wordEnd, canonical, entryType, dictValue));
-                    
-                    idx = end;
-                }
-            }
-        }
-        
-        return candidates;
-    }
-    
-    private List<LabelEntry> findLabels(String originalText, String cleanedText, boolean debug) {
-        List<Candidate> candidates = getCandidates(cleanedText);
-        return getLabels(candidates, cleanedText);
-    }
-    
     private List<LabelEntry> getLabels(List<Candidate> candidates, String sentence) {
         List<LabelEntry> found = new ArrayList<>();
         
@@ -341,10 +446,7 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
                         boolean llmSaysMatch = llmAdapter.isRelevantType(surface, sentence, entryType, candidate.start(), candidate.end());
                         if (llmSaysMatch) {
                             found.add(createLabel(surface, canonical, dictValue, candidate.start(), candidate.end(), true));
-                            if (countersManager != null) {
-                                countersManager.incrementDictionary(value);
-                                countersManager.incrementSurface(surface);
-                            }
+                            countMatch(candidate);
                         } else {
                             found.add(createLabel(surface, canonical, dictValue, candidate.start(), candidate.end(), false));
                         }
@@ -356,10 +458,7 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
                     // Same case or different length - treat as valid (add to cache)
                     found.add(createLabel(surface, canonical, dictValue, candidate.start(), candidate.end(), true));
                     cacheManager.addTerm(surfaceLower);
-                    if (countersManager != null) {
-                        countersManager.incrementDictionary(value);
-                        countersManager.incrementSurface(surface);
-                    }
+                    countMatch(candidate);
                 }
                 continue;
             }
@@ -367,6 +466,7 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
             // Normal validation (no duality)
             if (shouldSkip(surfaceLower)) {
                 found.add(createLabel(surface, canonical, dictValue, candidate.start(), candidate.end(), false));
+                lookupTiers.increment(LookupTierCounts.Tier.REJECTED_BEFORE);
                 continue;
             }
             
@@ -374,33 +474,54 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
             
             // Step: seenTerms check
             if (cacheManager.containsTerm(surfaceLower)) {
+                lookupTiers.increment(LookupTierCounts.Tier.SEEN_TERM);
                 isMatch = true;
             } else if (valueLower.equals(surfaceLower)) {
                 // Exact match
                 cacheManager.addTerm(surfaceLower);
+                lookupTiers.increment(LookupTierCounts.Tier.EXACT);
                 isMatch = true;
             } else {
-                // Lemma
-                String lemma = getLemma(surfaceLower);
-                if (lemma != null && !lemma.contains(valueLower)) {
-                    found.add(createLabel(surface, canonical, dictValue, candidate.start(), candidate.end(), false));
-                } else if (lemma != null && lemma.length() == valueLower.length()) {
-                    // Exact match (no suffix added)
-                    cacheManager.addTerm(surfaceLower);
-                    cacheManager.addLemma(lemma);
+                StemPreFilter.Verdict stemVerdict = stemVerdict(surfaceLower, valueLower);
+                if (stemVerdict == StemPreFilter.Verdict.ACCEPT) {
+                    // Same stem and an ending of the value's declension: an inflected form, no lemma
+                    // needed. Not remembered as seen: only lemma- or LLM-confirmed terms are
+                    lookupTiers.increment(LookupTierCounts.Tier.STEM_ACCEPT);
                     isMatch = true;
-                } else if (llmAdapter != null) {
-                    // LLM
-                    boolean llmSaysMatch = llmAdapter.isFormOf(surfaceLower, value, languageConfig.getLanguageCode(), entryType);
-                    if (llmSaysMatch) {
+                } else if (stemVerdict == StemPreFilter.Verdict.REJECT) {
+                    found.add(createLabel(surface, canonical, dictValue, candidate.start(), candidate.end(), false));
+                    lookupTiers.increment(LookupTierCounts.Tier.STEM_REJECT);
+                } else {
+                    // Lemma
+                    String lemma = getLemma(surfaceLower);
+                    if (lemma != null && !lemma.contains(valueLower)) {
+                        found.add(createLabel(surface, canonical, dictValue, candidate.start(), candidate.end(), false));
+                        lookupTiers.increment(LookupTierCounts.Tier.LEMMA_REJECT);
+                    } else if (lemma != null && lemma.length() == valueLower.length()) {
+                        // Exact match (no suffix added)
                         cacheManager.addTerm(surfaceLower);
                         cacheManager.addLemma(lemma);
+                        lookupTiers.increment(LookupTierCounts.Tier.LEMMA_ACCEPT);
                         isMatch = true;
-                    } else {
-                        found.add(createLabel(surface, canonical, dictValue, candidate.start(), candidate.end(), false));
-                        if (rejectedTerms != null) {
-                            rejectedTerms.put(surfaceLower, System.currentTimeMillis());
+                    } else if (llmAdapter != null) {
+                        // LLM
+                        boolean llmSaysMatch = llmAdapter.isFormOf(surfaceLower, value, languageConfig.getLanguageCode(), entryType);
+                        if (llmSaysMatch) {
+                            cacheManager.addTerm(surfaceLower);
+                            if (lemma != null) {
+                                cacheManager.addLemma(lemma);
+                            }
+                            lookupTiers.increment(LookupTierCounts.Tier.LLM_ACCEPT);
+                            isMatch = true;
+                        } else {
+                            found.add(createLabel(surface, canonical, dictValue, candidate.start(), candidate.end(), false));
+                            lookupTiers.increment(LookupTierCounts.Tier.LLM_REJECT);
+                            if (rejectedTerms != null) {
+                                rejectedTerms.put(surfaceLower, System.currentTimeMillis());
+                            }
                         }
+                    } else {
+                        lookupTiers.increment(LookupTierCounts.Tier.UNRESOLVED);
                     }
                 }
             }
@@ -408,40 +529,33 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
             if (isMatch) {
                 found.add(createLabel(surface, canonical, dictValue, candidate.start(), candidate.end(), true));
                 
-                if (countersManager != null) {
-                    countersManager.incrementDictionary(value);
-                    countersManager.incrementSurface(surface);
-                }
+                countMatch(candidate);
             }
         }
         
         return found;
     }
     
-    private String getLemma(String word) {
-        return lemmatizer.lemmatize(word.toLowerCase());
+    private void countMatch(Candidate candidate) {
+        DictionaryOutput output = outputsByDictionary.get(candidate.dictionary());
+        if (output != null && output.counters != null) {
+            output.counters.incrementDictionary(candidate.dictValue().value());
+            output.counters.incrementSurface(candidate.surface());
+        }
     }
     
-    private static final Set<Character> PUNCTUATION_SET = Set.of(',', '.', '!', '?', ';', ':', '-', '"', '\'', ')', ']', ' ');
-
-    private boolean isWordBoundary(String text, int index, boolean isStart) {
-        if (isStart) {
-            if (index == 0) return true;
-            char prev = text.charAt(index - 1);
-            if (!Character.isLetterOrDigit(prev)) return true;
-            if (PUNCTUATION_SET.contains(prev)) return true;
-            return false;
-        } else {
-            if (index >= text.length()) return true;
-            char next = text.charAt(index);
-            if (!Character.isLetterOrDigit(next)) return true;
-            if (PUNCTUATION_SET.contains(next)) return true;
-            return false;
+    /** Stem tier, for Russian only; other languages go straight to the lemmatizer. */
+    private StemPreFilter.Verdict stemVerdict(String surfaceLower, String valueLower) {
+        if (!"ru".equals(languageConfig.getLanguageCode())) {
+            return StemPreFilter.Verdict.UNSURE;
         }
+        return stemPreFilter.check(surfaceLower, valueLower);
     }
     
-    private String extractWord(String text, int start, int end) {
-        return text.substring(start, end);
+    private String getLemma(String word) {
+        String lower = word.toLowerCase();
+        String lemma = prefetchedLemmas.get(lower);
+        return lemma != null ? lemma : lemmatizer.lemmatize(lower);
     }
     
     private boolean shouldSkip(String word) {
@@ -466,7 +580,9 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
     }
     
     private void loadDictionary() {
+        dictionaries = new ArrayList<>();
         dictionary = new ArrayList<>();
+        dictionaryMatcher = new DictionaryMatcher(dictionaries);
         List<String> paths = config.dictionaryPaths();
         
         if (paths == null || paths.isEmpty()) {
@@ -474,9 +590,14 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
             return;
         }
         
-        dictionary = dictionaryLoader.loadDictionaries(paths, config.language());
+        dictionaries = dictionaryLoader.loadDictionarySet(paths, config.language());
+        for (LoadedDictionary loaded : dictionaries) {
+            dictionary.addAll(loaded.entries());
+        }
+        dictionaryMatcher = new DictionaryMatcher(dictionaries);
         
-        System.out.println("Dictionary loaded: " + dictionary.size() + " entries");
+        System.out.println("Dictionary loaded: " + dictionaries.size() + " dictionaries, " + dictionary.size() + 
+            " entries, " + dictionaryMatcher.size() + " values");
         
         rejectedTerms = new LinkedHashMap<String, Long>(16, 0.75f, true) {
             @Override
@@ -489,21 +610,36 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
     private void saveCache() {
         try {
             cacheManager.save();
+            if (lemmaCache != null) {
+                lemmaCache.save();
+            }
+            if (verdictCache != null) {
+                verdictCache.save();
+            }
         } catch (IOException e) {
             System.err.println("Error saving cache: " + e.getMessage());
         }
     }
     
+    /**
+     * Whether sentences go straight to the output writers and only counts are kept, so memory does
+     * not grow with the corpus. True for every labeler created with writers.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+    
+    /** Counts of the run; the sentences themselves only when not streaming. */
     public LabelingResult getResult() {
         LabelingMetadata metadata = new LabelingMetadata(
             "RU",
             LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-            results.size(),
+            sentencesLabeled,
             dictionary.size(),
             topicsProcessed
         );
         
-        return new LabelingResult(results, metadata);
+        return new LabelingResult(streaming ? List.of() : List.copyOf(results), metadata);
     }
     
     public int getCacheTermsCount() {
@@ -514,29 +650,46 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
         return cacheManager.getLemmasSeenCount();
     }
     
+    public LookupTierCounts getLookupTiers() {
+        return lookupTiers;
+    }
+    
     @Override
     public void close() {
-        if (streamWriter != null) {
-            try {
-                streamWriter.close();
-                System.out.println("Stream writer closed. Total sentences: " + sentencesProcessed);
-            } catch (IOException e) {
-                System.err.println("Error closing stream writer: " + e.getMessage());
+        for (DictionaryOutput output : outputs) {
+            if (output.writer != null) {
+                try {
+                    output.writer.close();
+                    System.out.println("Stream writer closed for " + output.name + ". Total sentences: " + sentencesProcessed);
+                } catch (IOException e) {
+                    System.err.println("Error closing stream writer: " + e.getMessage());
+                }
             }
         }
         
         try {
-            cacheManager.save();
+            cacheManager.close();
             System.out.println("Cache saved. Terms: " + cacheManager.getTermsSeenCount() + 
                 ", Lemmas: " + cacheManager.getLemmasSeenCount());
+            if (lemmaCache != null) {
+                lemmaCache.save();
+                System.out.println(lemmaCache.stats());
+            }
+            if (verdictCache != null) {
+                verdictCache.save();
+                System.out.println(verdictCache.stats());
+            }
         } catch (IOException e) {
             System.err.println("Error saving cache: " + e.getMessage());
         }
+        System.out.println(lookupTiers.summary());
         
-        if (countersManager != null) {
-            countersManager.save();
-            System.out.println("Counters saved. Dictionary entries: " + countersManager.getDictionaryTotal() + 
-                ", Surface forms: " + countersManager.getSurfaceTotal());
+        for (DictionaryOutput output : outputs) {
+            if (output.counters != null) {
+                output.counters.save();
+                System.out.println("Counters saved for " + output.name + ". Dictionary entries: " + output.counters.getDictionaryTotal() + 
+                    ", Surface forms: " + output.counters.getSurfaceTotal());
+            }
         }
         
         if (llmAdapter instanceof LLMAdapterImpl) {
@@ -548,4 +701,29 @@ public class SentencesLabeler implements IfTopicLabeler, AutoCloseable {
     public boolean isStopped() {
         return stopped;
     }
+    
+    /** Valid/invalid streams and counters that one or more dictionaries write to. */
+    private static final class DictionaryOutput {
+        private final String name;
+        private final OutputWriter writer;
+        private CountersManager counters;
+        
+        private DictionaryOutput(String name, OutputWriter writer) {
+            this.name = name;
+            this.writer = writer;
+        }
+    }
+    
+    private record RoutedSentence(DictionaryOutput output, LabeledSentence sentence) {}
+    
+    private record PendingSentence(SentenceTokens tokens, List<Candidate> candidates) {}
+    
+    /** Sentence filter counts summed over the posts of one topic. */
+    private static final class SentenceCounts {
+        private int raw;
+        private int tooShort;
+        private int otherLanguage;
+        private int noCandidate;
+        private int labeled;
+    }
 }
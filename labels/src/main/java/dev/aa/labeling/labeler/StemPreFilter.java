@@ -0,0 +1,88 @@
+package dev.aa.labeling.labeler;
+
+import org.apache.lucene.analysis.ru.RussianLightStemmer;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cheap first opinion on whether a Russian surface is a form of a dictionary value, before the
+ * lemmatizer or the LLM are asked. The surface always contains the value (DictionaryMatcher widens
+ * hits to whole words), so the Lucene light stemmer, which strips case endings only, settles most
+ * forms. A surface that extends a value word to the left, or whose stem runs DERIVED_SUFFIX_LENGTH
+ * or more letters past the value word, is another word. A surface is accepted only when every word
+ * has the value word's stem, at least MIN_STEM_LENGTH letters long, followed by an ending of the
+ * value word's own declension (жерех takes жереха/жерехом but not жерехой); everything else,
+ * such as сырой/сыр or линия/линь, is left to the lemmatizer.
+ */
+public class StemPreFilter {
+
+    public enum Verdict { ACCEPT, REJECT, UNSURE }
+
+    /** Letters a stem may run past the value word and still be an inflected form of it. */
+    static final int DERIVED_SUFFIX_LENGTH = 3;
+
+    /** Shorter stems are shared by too many unrelated words (сыр/сырой, лин/линия) to settle anything. */
+    static final int MIN_STEM_LENGTH = 4;
+
+    private static final Set<String> ADJECTIVE_ENDINGS = Set.of(
+        "ый", "ий", "ой", "ая", "яя", "ое", "ее", "ые", "ие", "ого", "его", "ому", "ему",
+        "ым", "им", "ом", "ем", "ую", "юю", "ых", "их", "ыми", "ими");
+
+    /** Endings a word may take, by the ending the stemmer strips from its dictionary form. */
+    private static final Map<String, Set<String>> ENDINGS_BY_VALUE_ENDING = Map.ofEntries(
+        Map.entry("", Set.of("", "а", "у", "ом", "е", "ы", "и", "ов", "ей", "ем", "ам", "ами", "ах")),
+        Map.entry("ь", Set.of("ь", "я", "ю", "ем", "ём", "е", "и", "ей", "ью", "ям", "ями", "ях")),
+        Map.entry("а", Set.of("а", "ы", "и", "е", "у", "ой", "ою", "ей", "", "ам", "ами", "ах")),
+        Map.entry("я", Set.of("я", "и", "е", "ю", "ей", "ею", "ь", "ям", "ями", "ях")),
+        Map.entry("о", Set.of("о", "а", "у", "ом", "е", "ы", "", "ам", "ами", "ах")),
+        Map.entry("е", Set.of("е", "я", "ю", "ем", "и", "ей", "ям", "ями", "ях")),
+        Map.entry("ый", ADJECTIVE_ENDINGS),
+        Map.entry("ий", ADJECTIVE_ENDINGS),
+        Map.entry("ой", ADJECTIVE_ENDINGS),
+        Map.entry("ая", ADJECTIVE_ENDINGS),
+        Map.entry("яя", ADJECTIVE_ENDINGS),
+        Map.entry("ое", ADJECTIVE_ENDINGS),
+        Map.entry("ее", ADJECTIVE_ENDINGS),
+        Map.entry("ые", ADJECTIVE_ENDINGS),
+        Map.entry("ие", ADJECTIVE_ENDINGS));
+
+    private final RussianLightStemmer stemmer = new RussianLightStemmer();
+
+    public Verdict check(String surfaceLower, String valueLower) {
+        String[] surfaceWords = surfaceLower.split("\\s+");
+        String[] valueWords = valueLower.split("\\s+");
+        if (surfaceWords.length != valueWords.length) {
+            return Verdict.UNSURE;
+        }
+        boolean allInflected = true;
+        for (int i = 0; i < surfaceWords.length; i++) {
+            String surfaceWord = surfaceWords[i];
+            String valueWord = valueWords[i];
+            String valueStem = stem(valueWord);
+            if (!surfaceWord.startsWith(valueStem)) {
+                return surfaceWord.contains(valueWord) ? Verdict.REJECT : Verdict.UNSURE;
+            }
+            String surfaceStem = stem(surfaceWord);
+            if (surfaceStem.length() - valueWord.length() >= DERIVED_SUFFIX_LENGTH) {
+                return Verdict.REJECT;
+            }
+            allInflected &= surfaceStem.equals(valueStem) && isInflection(surfaceWord, valueWord, valueStem);
+        }
+        return allInflected ? Verdict.ACCEPT : Verdict.UNSURE;
+    }
+
+    /** Whether what follows the stem in the surface is an ending of the value word's declension. */
+    private static boolean isInflection(String surfaceWord, String valueWord, String valueStem) {
+        if (valueStem.length() < MIN_STEM_LENGTH) {
+            return false;
+        }
+        Set<String> endings = ENDINGS_BY_VALUE_ENDING.get(valueWord.substring(valueStem.length()));
+        return endings != null && endings.contains(surfaceWord.substring(valueStem.length()));
+    }
+
+    String stem(String word) {
+        char[] chars = word.toCharArray();
+        return new String(chars, 0, stemmer.stem(chars, chars.length));
+    }
+}
@@ -11,7 +11,9 @@ import dev.aa.labeling.labeler.SentencesLabeler;
 import dev.aa.labeling.labeler.OutputWriter;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class IsrafishMain {
     private static volatile SentencesLabeler currentLabeler;
@@ -81,9 +83,8 @@ public class IsrafishMain {
             : Path.of("output");
         
         String siteId = config.site() != null ? config.site().siteId() : "default";
-        String outputFileName = generateOutputFileName(baseConfig.dictionaryPaths(), siteId);
-        
-        Path outputFile = outputDirectory.resolve(outputFileName);
+        List<String> dictionaryPaths = baseConfig.dictionaryPaths() != null ? baseConfig.dictionaryPaths() : List.of();
+        String outputFileName = generateOutputFileName(dictionaryPaths.isEmpty() ? null : dictionaryPaths.get(0), siteId);
         
         Path dataDirectory = baseConfig.dataDirectory() != null 
             ? baseConfig.dataDirectory() 
@@ -92,8 +93,12 @@ public class IsrafishMain {
         LabelerConfiguration labelerConfig = createLabelerConfiguration(
             baseConfig, outputDirectory, outputFileName, forum.language(), siteId, dataDirectory, siteId);
         
-        OutputWriter writer = new OutputWriter(outputDirectory, outputFileName);
-        SentencesLabeler labeler = new SentencesLabeler(labelerConfig, writer, llmConfigDir);
+        // One crawl feeds every dictionary; each dictionary gets its own valid/invalid streams
+        Map<String, OutputWriter> writers = new LinkedHashMap<>();
+        for (String dictionaryPath : dictionaryPaths) {
+            writers.put(dictionaryPath, new OutputWriter(outputDirectory, generateOutputFileName(dictionaryPath, siteId)));
+        }
+        SentencesLabeler labeler = SentencesLabeler.withDictionaryWriters(labelerConfig, writers, llmConfigDir, null);
         currentLabeler = labeler;
         
         Configuration forumConfig = new Configuration(
@@ -138,18 +143,22 @@ public class IsrafishMain {
             language,
             forumName,
             base.maxSentences(),
-            siteId
+            siteId,
+            base.lemmaBatchSize(),
+            base.lemmaConcurrentRequests(),
+            base.lemmaBackend(),
+            base.lemmaServicePython(),
+            base.lemmaServiceScript()
         );
     }
     
-    private static String generateOutputFileName(List<String> dictionaryPaths, String siteId) {
+    private static String generateOutputFileName(String dictPath, String siteId) {
         String sitePrefix = (siteId != null && !siteId.isEmpty()) ? siteId + "_" : "";
         
-        if (dictionaryPaths == null || dictionaryPaths.isEmpty()) {
+        if (dictPath == null) {
             return sitePrefix + "output_labeled.json";
         }
         
-        String dictPath = dictionaryPaths.get(0);
         String fileName = Paths.get(dictPath).getFileName().toString();
         
         if (fileName.endsWith("_dict.json")) {
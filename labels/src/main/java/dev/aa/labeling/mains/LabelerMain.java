@@ -4,6 +4,7 @@ import dev.aa.labeling.Constants;
 import dev.aa.labeling.config.*;
 import dev.aa.labeling.factory.DownloaderFactory;
 import dev.aa.labeling.interfaces.IfDownloader;
+import dev.aa.labeling.labeler.LemmatizerFactory;
 import dev.aa.labeling.labeler.MaxSentencesReachedException;
 import dev.aa.labeling.labeler.SentencesLabeler;
 import dev.aa.labeling.labeler.OutputWriter;
@@ -12,40 +13,36 @@ import dev.aa.labeling.labeler.OutputWriter;
 import dev.aa.labeling.engine.BaseDownloader;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ArrayList;
 
 public class LabelerMain {
     private static volatile SentencesLabeler currentLabeler;
     private static volatile Path currentOutputFile;
+    private static boolean replay = false;
+    private static Path replayArchiveDir;
     
-    private static void startLemmaService() {
+    /** Starts the Python lemma service when the configured backend sends Russian words to it. */
+    private static void startLemmaService(LabelerConfiguration labeler) {
+        LemmatizerFactory.RussianBackend backend = LemmatizerFactory.RussianBackend.of(labeler.lemmaBackend());
+        if (!LemmatizerFactory.usesRussianService(backend)) {
+            System.out.println("Using embedded Russian lemma model");
+            return;
+        }
         List<String> commands = new ArrayList<>();
-        commands.add("python");
-        commands.add("C:\\AnglerAsistant\\labels\\tools\\FlaskService\\lemma_service.py");
-        
-        Process lemmaServiceProcess = null;
+        commands.add(labeler.lemmaServicePython());
+        commands.add(labeler.lemmaServiceScript());
         
         try {
             ProcessBuilder pb = new ProcessBuilder(commands);
             pb.redirectErrorStream(true);
-            lemmaServiceProcess = pb.start();
-            System.out.println("Lemma service starting...");
+            pb.start();
+            System.out.println("Lemma service starting: " + String.join(" ", commands));
         } catch (Exception e) {
-            System.out.println("Failed to start with 'python', trying full path...");
-            List<String> fallbackCommands = new ArrayList<>();
-            fallbackCommands.add("C:\\Tools\\Python311\\python.exe");
-            fallbackCommands.add("C:\\AnglerAsistant\\labels\\tools\\FlaskService\\lemma_service.py");
-            
-            try {
-                ProcessBuilder fb = new ProcessBuilder(fallbackCommands);
-                fb.redirectErrorStream(true);
-                lemmaServiceProcess = fb.start();
-                System.out.println("Lemma service starting with full path...");
-            } catch (Exception ex) {
-                System.err.println("Failed to start lemma service: " + ex.getMessage());
-                System.exit(1);
-            }
+            System.err.println("Failed to start lemma service: " + e.getMessage());
+            System.exit(1);
         }
         
         try {
@@ -56,12 +53,13 @@ public class LabelerMain {
     }
     
     public static void main(String[] args) {
-        startLemmaService();
         if (args.length == 0) {
             System.out.println("Usage: java LabelerMain -config <config_path>");
             System.out.println("  -config <path>  : Path to config file");
             System.out.println("                     - absolute path: external file (e.g., C:/config/my.json)");
             System.out.println("                     - relative path: file in resources (e.g., config/my_config.json)");
+            System.out.println("  -replay [dir]   : Label topics from the local archive instead of downloading");
+            System.out.println("                     (default dir: data/raw/<siteId>/archive)");
             System.out.println("");
             System.out.println("Examples:");
             System.out.println("  java LabelerMain -config config/israfish_config.json");
@@ -79,6 +77,12 @@ public class LabelerMain {
                         configPath = args[++i];
                     }
                 }
+                case "-replay" -> {
+                    replay = true;
+                    if (i + 1 < args.length && !args[i + 1].startsWith("-")) {
+                        replayArchiveDir = Path.of(args[++i]);
+                    }
+                }
                 default -> {
                     if (!args[i].startsWith("-")) {
                         configPath = args[i];
@@ -124,6 +128,10 @@ public class LabelerMain {
                 System.out.println("No forums configured");
                 return;
             }
+            if (config.labeler() == null) {
+                throw new IllegalArgumentException("Labeler configuration is null");
+            }
+            startLemmaService(config.labeler());
             
             for (ForumConfiguration forum : forums) {
                 if (forum == null) {
@@ -176,9 +184,8 @@ public class LabelerMain {
             : Path.of("output");
         
         String siteId = config.site() != null ? config.site().siteId() : "default";
-        String outputFileName = generateOutputFileName(baseConfig.dictionaryPaths(), siteId);
-        
-        Path outputFile = outputDirectory.resolve(outputFileName);
+        List<String> dictionaryPaths = baseConfig.dictionaryPaths() != null ? baseConfig.dictionaryPaths() : List.of();
+        String outputFileName = generateOutputFileName(dictionaryPaths.isEmpty() ? null : dictionaryPaths.get(0), siteId);
         
         Path dataDirectory = baseConfig.dataDirectory() != null 
             ? baseConfig.dataDirectory() 
@@ -187,8 +194,12 @@ public class LabelerMain {
         LabelerConfiguration labelerConfig = createLabelerConfiguration(
             baseConfig, outputDirectory, outputFileName, forum.language(), siteId, dataDirectory, siteId);
         
-        OutputWriter writer = new OutputWriter(outputDirectory, outputFileName);
-        SentencesLabeler labeler = new SentencesLabeler(labelerConfig, writer, llmConfigDir);
+        // One crawl feeds every dictionary; each dictionary gets its own valid/invalid streams
+        Map<String, OutputWriter> writers = new LinkedHashMap<>();
+        for (String dictionaryPath : dictionaryPaths) {
+            writers.put(dictionaryPath, new OutputWriter(outputDirectory, generateOutputFileName(dictionaryPath, siteId)));
+        }
+        SentencesLabeler labeler = SentencesLabeler.withDictionaryWriters(labelerConfig, writers, llmConfigDir, null);
         currentLabeler = labeler;
         
         Configuration forumConfig = new Configuration(
@@ -200,7 +211,9 @@ public class LabelerMain {
             List.of(forum)
         );
         
-        IfDownloader downloader = DownloaderFactory.create(forumConfig, labeler);
+        IfDownloader downloader = replay
+            ? DownloaderFactory.createReplay(forumConfig, labeler, replayArchiveDir)
+            : DownloaderFactory.create(forumConfig, labeler);
         
         try {
             downloader.download();
@@ -237,18 +250,22 @@ public class LabelerMain {
             language,
             forumName,
             baseConfig.maxSentences(),
-            siteId
+            siteId,
+            baseConfig.lemmaBatchSize(),
+            baseConfig.lemmaConcurrentRequests(),
+            baseConfig.lemmaBackend(),
+            baseConfig.lemmaServicePython(),
+            baseConfig.lemmaServiceScript()
         );
     }
     
-    private static String generateOutputFileName(List<String> dictionaryPaths, String siteId) {
+    private static String generateOutputFileName(String dictPath, String siteId) {
         String sitePrefix = (siteId != null && !siteId.isEmpty()) ? siteId + "_" : "";
         
-        if (dictionaryPaths == null || dictionaryPaths.isEmpty()) {
+        if (dictPath == null) {
             return sitePrefix + "output_labeled.json";
         }
         
-        String dictPath = dictionaryPaths.get(0);
         String fileName = Paths.get(dictPath).getFileName().toString();
         
         if (fileName.endsWith("_dict.json")) {
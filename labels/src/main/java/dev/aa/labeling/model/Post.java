@@ -0,0 +1,9 @@
+package dev.aa.labeling.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One cleaned post of a topic. {@code postId} is the forum's own post id when the page shows one,
+ * otherwise a fingerprint of the text; {@code author} and {@code timestamp} are null when not found.
+ */
+public record Post(String postId, String author, LocalDateTime timestamp, String text) {}
@@ -1,8 +1,12 @@
 package dev.aa.labeling.model;
 
+import org.jsoup.nodes.Document;
+
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class Topic {
     
@@ -29,7 +33,9 @@ public class Topic {
     private final String topicId;
     
     private String content;
+    private Document document;
     private String cleanedContent;
+    private List<Post> posts;
     private String author;
     private LocalDateTime creationDate;
     private String language;
@@ -58,9 +64,23 @@ public class Topic {
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
     
-    public String getCleanedContent() { return cleanedContent; }
+    /** Parsed page held between fetch and cleaning; released once the topic is cleaned. */
+    public Document getDocument() { return document; }
+    public void setDocument(Document document) { this.document = document; }
+    
+    /** Cleaned text; when only posts were set, their texts joined by blank lines. */
+    public String getCleanedContent() {
+        if (cleanedContent == null && posts != null) {
+            return posts.stream().map(Post::text).collect(Collectors.joining("\n\n"));
+        }
+        return cleanedContent;
+    }
     public void setCleanedContent(String cleanedContent) { this.cleanedContent = cleanedContent; }
     
+    /** Cleaned posts in page order, or null when the topic was cleaned into a single string. */
+    public List<Post> getPosts() { return posts; }
+    public void setPosts(List<Post> posts) { this.posts = posts; }
+    
     public String getAuthor() { return author; }
     public void setAuthor(String author) { this.author = author; }
     
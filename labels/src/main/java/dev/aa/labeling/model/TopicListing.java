@@ -0,0 +1,38 @@
+package dev.aa.labeling.model;
+
+/**
+ * One topic row from a forum listing page. {@code replyCount} is -1 and {@code lastPost} null
+ * when the listing does not show them; {@code lastPost} is kept as the raw listing text.
+ */
+public record TopicListing(String topicUrl, String topicId, int replyCount, String lastPost) {
+    
+    public static TopicListing of(String topicUrl) {
+        return new TopicListing(topicUrl, topicIdOf(topicUrl), -1, null);
+    }
+    
+    /** Crawl-state key: the topic id, or the URL for forums whose URLs carry no t=/p= id. */
+    public String key() {
+        return topicId != null && !topicId.isEmpty() ? topicId : topicUrl;
+    }
+    
+    public boolean hasActivity() {
+        return replyCount >= 0 || lastPost != null;
+    }
+    
+    public static String topicIdOf(String topicUrl) {
+        // Match t=123 (topic) or p=123 (post) - prefer t over p
+        String[] parts = topicUrl.split("[?&]");
+        for (String part : parts) {
+            if (part.startsWith("t=")) {
+                return part.substring(2);
+            }
+        }
+        // If no t= found, check for p= (post ID - less ideal)
+        for (String part : parts) {
+            if (part.startsWith("p=")) {
+                return part.substring(2);
+            }
+        }
+        return "";
+    }
+}
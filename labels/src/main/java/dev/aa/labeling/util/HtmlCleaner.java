@@ -1,11 +1,20 @@
 package dev.aa.labeling.util;
 
+import dev.aa.labeling.extractors.ForumProfile;
+import dev.aa.labeling.model.Post;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class HtmlCleaner {
@@ -51,12 +60,24 @@ public class HtmlCleaner {
         "navbar", "breadcrumb", "pagination", "navlinks"
     );
     
-    private static final Pattern BBCODE_PATTERN = Pattern.compile(
-        "\\[/?\\w+\\]|\\[img\\].*?\\[/img\\]|\\[url\\].*?\\[/url\\]|\\[table\\].*?\\[/table\\]|\\[td\\].*?\\[/td\\]|\\[tr\\].*?\\[/tr\\]|\\[b\\].*?\\[/b\\]|\\[i\\].*?\\[/i\\]|\\[u\\].*?\\[/u\\]",
-        Pattern.DOTALL
+    /** Navigation, quotes, galleries and forms, removed in one walk per post. */
+    private static final HtmlRemovalPlan REMOVAL_PLAN = new HtmlRemovalPlan(
+        new HtmlRemovalPlan.Rules(
+            union(NAVIGATION_TAGS, QUOTE_CLASSES), // quote "classes" have always been selected as tag names
+            union(NAVIGATION_CLASSES, Set.of("signature", "notice")),
+            NAVIGATION_IDS,
+            List.of("viewforum.php", "index.php", "viewtopic.php")),
+        List.of("[img]", "PhotoAlbums"),
+        new HtmlRemovalPlan.Rules(
+            union(FORM_TAGS, Set.of("img")),
+            Set.of(),
+            Set.of(),
+            List.of("PhotoAlbums", ".jpg", ".png", "thumbnails"))
     );
     
-    private static final Pattern ARROW_SYMBOLS = Pattern.compile("[⇧⇩↧↨↩⇒⇐↔⇑⇓]");
+    private static final Pattern POST_ID_PATTERN = Pattern.compile("(?:p|post_?|post-|post_message_)(\\d+)");
+    
+    private static final ThreadLocal<PostTextBuilder> POST_TEXT = ThreadLocal.withInitial(PostTextBuilder::new);
     
     public static String cleanHtml(String htmlContent) {
         return cleanHtml(htmlContent, null);
@@ -67,20 +88,31 @@ public class HtmlCleaner {
             return "";
         }
         
+        return cleanDocument(Jsoup.parse(htmlContent), topicUrl);
+    }
+    
+    public static String cleanDocument(Document doc) {
+        return cleanDocument(doc, null);
+    }
+    
+    /**
+     * Cleans an already parsed page. Navigation, quotes, galleries and forms are removed
+     * from the document in place, so run metadata extraction on it first.
+     */
+    public static String cleanDocument(Document doc, String topicUrl) {
+        if (doc == null) {
+            return "";
+        }
+        
         try {
-            Document doc = Jsoup.parse(htmlContent);
-            
-            Elements postContents = extractPostContent(doc);
+            Elements postContents = ForumProfile.generic().postContent().select(doc);
             
             if (postContents.isEmpty()) {
                 return "";
             }
             
             for (Element post : postContents) {
-                removeNavigationElements(post);
-                removeQuoteBlocks(post);
-                removeImageGalleries(post);
-                removeForms(post);
+                removeNoise(post);
             }
             
             StringBuilder content = new StringBuilder();
@@ -92,21 +124,7 @@ public class HtmlCleaner {
             }
             
             for (Element post : postContents) {
-                String postText = post.text().trim();
-                
-                postText = removeBBCode(postText);
-                postText = removeArrowSymbols(postText);
-                postText = cleanWhitespace(postText);
-                
-                if (postText.length() < 50) {
-                    continue;
-                }
-                
-                if (isLikelyNavigation(postText)) {
-                    continue;
-                }
-                
-                content.append(postText).append("\n\n");
+                appendPostText(post, content);
             }
             
             return content.toString().trim();
@@ -116,101 +134,161 @@ public class HtmlCleaner {
         }
     }
     
-    private static Elements extractPostContent(Document doc) {
-        Elements postContents = doc.select("div.postbody > div.content");
-        if (!postContents.isEmpty()) return postContents;
-        
-        postContents = doc.select("div.postbody div.content");
-        if (!postContents.isEmpty()) return postContents;
-        
-        postContents = doc.select("div.content");
-        if (!postContents.isEmpty()) return postContents;
-        
-        postContents = doc.select(".postbody .content");
-        if (!postContents.isEmpty()) return postContents;
-        
-        postContents = doc.select("div.postbody");
-        if (!postContents.isEmpty()) return postContents;
-        
-        postContents = doc.select("div.message");
-        if (!postContents.isEmpty()) return postContents;
+    /**
+     * Cleans an already parsed page into its posts, in page order. Post id, author and time are
+     * read from the post markup around each content element; posts that cleanDocument would
+     * drop are left out. Like cleanDocument this modifies the document.
+     */
+    public static List<Post> extractPosts(Document doc) {
+        return extractPosts(doc, ForumProfile.generic());
+    }
+    
+    /** Like extractPosts(Document), with the selectors of the site's forum profile. */
+    public static List<Post> extractPosts(Document doc, ForumProfile profile) {
+        if (doc == null) {
+            return List.of();
+        }
         
-        postContents = doc.select("article.post");
-        if (!postContents.isEmpty()) return postContents;
+        Elements postContents = profile.postContent().select(doc);
+        // Read headers first: the content element itself can be detached by the removal rules
+        List<PostHeader> headers = new ArrayList<>(postContents.size());
+        for (Element post : postContents) {
+            headers.add(readHeader(post, profile));
+        }
+        for (Element post : postContents) {
+            removeNoise(post);
+        }
         
-        return new Elements();
+        List<Post> posts = new ArrayList<>(postContents.size());
+        PostTextBuilder builder = POST_TEXT.get();
+        try {
+            for (int i = 0; i < postContents.size(); i++) {
+                CharSequence postText = builder.build(postContents.get(i));
+                if (postText.length() < 50 || isLikelyNavigation(postText)) {
+                    continue;
+                }
+                String text = postText.toString();
+                PostHeader header = headers.get(i);
+                String postId = header.postId() != null
+                    ? header.postId()
+                    : "h" + Long.toHexString(FingerprintUtil.computeFingerprint(text));
+                posts.add(new Post(postId, header.author(), header.timestamp(), text));
+            }
+        } finally {
+            builder.release();
+        }
+        return posts;
     }
     
-    private static void removeNavigationElements(Element element) {
-        for (String tag : NAVIGATION_TAGS) {
-            element.select(tag).remove();
+    private record PostHeader(String postId, String author, LocalDateTime timestamp) {}
+    
+    /** phpBB wraps posts in div#p123, vBulletin in li#post_123 around div#post_message_123. */
+    private static PostHeader readHeader(Element post, ForumProfile profile) {
+        String postId = null;
+        Element container = null;
+        for (Element element = post; element != null; element = element.parent()) {
+            Matcher matcher = POST_ID_PATTERN.matcher(element.id());
+            if (matcher.matches()) {
+                if (postId == null) {
+                    postId = matcher.group(1);
+                }
+                container = element;
+            }
         }
-        
-        for (String cls : NAVIGATION_CLASSES) {
-            element.select("." + cls).remove();
+        if (container == null) {
+            return new PostHeader(null, null, null);
         }
         
-        for (String id : NAVIGATION_IDS) {
-            element.select("#" + id).remove();
+        String author = null;
+        for (Element candidate : container.select(profile.postAuthor())) {
+            if (!isWithin(candidate, post) && !candidate.text().isBlank()) {
+                author = candidate.text().trim();
+                break;
+            }
         }
         
-        element.select("a[href*='viewforum.php']").remove();
-        element.select("a[href*='index.php']").remove();
-        element.select("a[href*='viewtopic.php']").remove();
+        LocalDateTime timestamp = null;
+        for (Element time : container.select(profile.postTime())) {
+            if (!isWithin(time, post)) {
+                timestamp = parseDateTime(time.attr("datetime"));
+                break;
+            }
+        }
+        return new PostHeader(postId, author, timestamp);
     }
     
-    private static void removeQuoteBlocks(Element element) {
-        for (String cls : QUOTE_CLASSES) {
-            element.select(cls).remove();
+    private static boolean isWithin(Element element, Element ancestor) {
+        for (Element current = element; current != null; current = current.parent()) {
+            if (current == ancestor) {
+                return true;
+            }
         }
-        element.select(".signature").remove();
-        element.select(".notice").remove();
+        return false;
     }
     
-    private static void removeImageGalleries(Element element) {
-        element.select("table:contains([img]), table:contains(PhotoAlbums)").remove();
-        element.select("a[href*='PhotoAlbums']").remove();
-        element.select("a[href*='.jpg']").remove();
-        element.select("a[href*='.png']").remove();
-        element.select("a[href*='thumbnails']").remove();
-        element.select("img").remove();
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return OffsetDateTime.parse(value).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value.trim().replace(' ', 'T'));
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
     }
     
-    private static void removeForms(Element element) {
-        for (String tag : FORM_TAGS) {
-            element.select(tag).remove();
-        }
+    /** Removes navigation, quotes, galleries and forms from a post in a single walk. */
+    public static void removeNoise(Element post) {
+        REMOVAL_PLAN.apply(post);
     }
     
-    private static String removeBBCode(String text) {
-        return BBCODE_PATTERN.matcher(text).replaceAll("");
+    /**
+     * Appends the post's cleaned text and a blank line, unless it is too short or looks like
+     * navigation. Built in a per-thread buffer without intermediate strings.
+     */
+    public static boolean appendPostText(Element post, StringBuilder content) {
+        PostTextBuilder builder = POST_TEXT.get();
+        try {
+            CharSequence postText = builder.build(post);
+            if (postText.length() < 50 || isLikelyNavigation(postText)) {
+                return false;
+            }
+            content.append(postText).append("\n\n");
+            return true;
+        } finally {
+            builder.release();
+        }
     }
     
-    private static String removeArrowSymbols(String text) {
-        return ARROW_SYMBOLS.matcher(text).replaceAll("");
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> union = new HashSet<>(first);
+        union.addAll(second);
+        return union;
     }
     
-    private static boolean isLikelyNavigation(String text) {
-        if (text.length() > 2000 && (text.contains("↳") || text.contains("Перейти"))) {
+    static boolean isLikelyNavigation(CharSequence text) {
+        if (text.length() > 2000 && (contains(text, "↳") || contains(text, "Перейти"))) {
             return true;
         }
         
-        if (text.contains("↳")) {
+        if (contains(text, "↳")) {
             return true;
         }
         
-        if (text.contains("[img]") || text.contains("[url]") || 
-            text.contains("PhotoAlbums") || text.contains("thumbnails") ||
-            text.contains("[table]") || text.contains("↧")) {
+        if (contains(text, "[img]") || contains(text, "[url]") || 
+            contains(text, "PhotoAlbums") || contains(text, "thumbnails") ||
+            contains(text, "[table]") || contains(text, "↧")) {
             return text.length() > 500;
         }
         
         return false;
     }
     
-    private static String cleanWhitespace(String text) {
-        text = text.replaceAll("[ \t]+", " ");
-        text = text.replaceAll("\n{3,}", "\n\n");
-        return text.trim();
+    private static boolean contains(CharSequence text, String token) {
+        if (text instanceof StringBuilder builder) {
+            return builder.indexOf(token) >= 0;
+        }
+        return text.toString().contains(token);
     }
 }
@@ -0,0 +1,150 @@
+package dev.aa.labeling.util;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Removal rules compiled for a single walk over a post. Tag, class, id and href rules only look
+ * at the element itself, so applying them together gives the same result as one select per rule.
+ * The table text rule depends on what is left inside the table: it sees the table after the early
+ * rules have run but before the late ones, which is the order HtmlCleaner always applied them in.
+ */
+public final class HtmlRemovalPlan {
+
+    /** Element rules matched the way jsoup selectors do: tag by name, class case-insensitive, id exact, href substring. */
+    public record Rules(Set<String> tags, Set<String> classes, Set<String> ids, List<String> linkHrefFragments) {
+
+        public Rules {
+            tags = lowerCase(tags);
+            classes = lowerCase(classes);
+            ids = Set.copyOf(ids);
+            linkHrefFragments = linkHrefFragments.stream().map(fragment -> fragment.toLowerCase(Locale.ROOT)).toList();
+        }
+
+        boolean matches(Element element) {
+            if (tags.contains(element.normalName())) {
+                return true;
+            }
+            if (!ids.isEmpty() && ids.contains(element.id())) {
+                return true;
+            }
+            if (!classes.isEmpty() && hasAnyClass(element.className())) {
+                return true;
+            }
+            if (!linkHrefFragments.isEmpty() && element.normalName().equals("a") && element.hasAttr("href")) {
+                String href = element.attr("href").toLowerCase(Locale.ROOT);
+                for (String fragment : linkHrefFragments) {
+                    if (href.contains(fragment)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean hasAnyClass(String className) {
+            int length = className.length();
+            int start = 0;
+            while (start < length) {
+                while (start < length && Character.isWhitespace(className.charAt(start))) {
+                    start++;
+                }
+                int end = start;
+                while (end < length && !Character.isWhitespace(className.charAt(end))) {
+                    end++;
+                }
+                if (end > start && classes.contains(className.substring(start, end).toLowerCase(Locale.ROOT))) {
+                    return true;
+                }
+                start = end;
+            }
+            return false;
+        }
+
+        private static Set<String> lowerCase(Set<String> values) {
+            return values.stream().map(value -> value.toLowerCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+        }
+    }
+
+    private final Rules early;
+    private final List<String> tableTextTokens;
+    private final Rules late;
+
+    /**
+     * @param early rules applied before the table text check
+     * @param tableTextTokens tables whose remaining text contains any of these (case-insensitive) are removed
+     * @param late rules applied after the table text check
+     */
+    public HtmlRemovalPlan(Rules early, List<String> tableTextTokens, Rules late) {
+        this.early = early;
+        this.tableTextTokens = tableTextTokens.stream().map(token -> token.toLowerCase(Locale.ROOT)).toList();
+        this.late = late;
+    }
+
+    /**
+     * Removes every matching element below the root. A matching root is detached from its parent
+     * but its own subtree is still cleaned, as removing it via select would do.
+     */
+    public void apply(Element root) {
+        boolean removeRoot = matches(root);
+        NodeTraversor.filter(new NodeFilter() {
+            @Override
+            public FilterResult head(Node node, int depth) {
+                if (node == root || !(node instanceof Element element)) {
+                    return FilterResult.CONTINUE;
+                }
+                return matches(element) ? FilterResult.REMOVE : FilterResult.CONTINUE;
+            }
+
+            @Override
+            public FilterResult tail(Node node, int depth) {
+                return FilterResult.CONTINUE;
+            }
+        }, root);
+        if (removeRoot && root.parent() != null) {
+            root.remove();
+        }
+    }
+
+    private boolean matches(Element element) {
+        if (early.matches(element)) {
+            return true;
+        }
+        if (!tableTextTokens.isEmpty() && element.normalName().equals("table") && tableTextMatches(element)) {
+            return true;
+        }
+        return late.matches(element);
+    }
+
+    /** Drops early matches inside the table first, so its text is what the original select saw. */
+    private boolean tableTextMatches(Element table) {
+        NodeTraversor.filter(new NodeFilter() {
+            @Override
+            public FilterResult head(Node node, int depth) {
+                if (node != table && node instanceof Element element && early.matches(element)) {
+                    return FilterResult.REMOVE;
+                }
+                return FilterResult.CONTINUE;
+            }
+
+            @Override
+            public FilterResult tail(Node node, int depth) {
+                return FilterResult.CONTINUE;
+            }
+        }, table);
+        String text = table.text().toLowerCase(Locale.ROOT);
+        for (String token : tableTextTokens) {
+            if (text.contains(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
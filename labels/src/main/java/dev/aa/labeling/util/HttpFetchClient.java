@@ -0,0 +1,420 @@
+package dev.aa.labeling.util;
+
+import dev.aa.labeling.Constants;
+import dev.aa.labeling.config.SiteConfiguration;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * One HTTP client per site, shared by the listing and topic fetches. Connections are kept alive
+ * and HTTP/2 is negotiated where the server supports it; gzip/deflate bodies are decoded while
+ * they stream into the parser. Timeout and user agent come from the site configuration; the timeout
+ * bounds both the wait for the headers and, separately, reading the body.
+ */
+public class HttpFetchClient {
+
+    private static final Pattern CHARSET_PATTERN = Pattern.compile("charset=\"?([^\";\\s]+)", Pattern.CASE_INSENSITIVE);
+
+    /** Closes bodies that are still being read when their deadline passes. */
+    private static final ScheduledExecutorService BODY_WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "http-body-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final HttpClient client;
+    private final Duration timeout;
+    private final String userAgent;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder wireBytes = new LongAdder();
+    private final LongAdder decodedBytes = new LongAdder();
+    private final LongAdder headersNanos = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final Map<String, HostConnections> hosts = new ConcurrentHashMap<>();
+
+    public HttpFetchClient(SiteConfiguration site) {
+        int timeoutMs = site != null && site.httpTimeout() > 0 ? site.httpTimeout() : Constants.DEFAULT_HTTP_TIMEOUT_MS;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.userAgent = site != null && site.httpUserAgent() != null && !site.httpUserAgent().isBlank()
+            ? site.httpUserAgent()
+            : Constants.DEFAULT_HTTP_USER_AGENT;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(timeout)
+            .build();
+    }
+
+    /** Sends a GET; the caller reads the body through the returned response and checks the status. */
+    public Response get(String url, Map<String, String> headers) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(timeout)
+            .header("User-Agent", userAgent)
+            .header("Accept", "text/html,application/xhtml+xml;q=0.9,*/*;q=0.8")
+            .header("Accept-Encoding", "gzip, deflate")
+            .GET();
+        headers.forEach(request::header);
+
+        HostConnections host = hosts.computeIfAbsent(hostKey(url), key -> new HostConnections());
+        host.begin();
+        long started = System.nanoTime();
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            host.end();
+            throw e;
+        }
+        requests.increment();
+        long toHeaders = System.nanoTime() - started;
+        headersNanos.add(toHeaders);
+        if (response.version() == HttpClient.Version.HTTP_2) {
+            http2Responses.increment();
+            host.http2 = true;
+        }
+        // The connection stays busy until the body is read, so the host is released when it is closed
+        return new Response(response, host, started, toHeaders / 1_000_000);
+    }
+
+    public Response get(String url) throws IOException, InterruptedException {
+        return get(url, Map.of());
+    }
+
+    /** Fetches a page and parses it, failing on HTTP error statuses. */
+    public Document getDocument(String url) throws IOException, InterruptedException {
+        Response response = get(url);
+        if (response.statusCode() >= 400) {
+            response.discard();
+            throw new IOException("HTTP " + response.statusCode() + " fetching " + url);
+        }
+        return response.parse();
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /** Body bytes as received, before decompression. */
+    public long getWireBytes() {
+        return wireBytes.sum();
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes.sum();
+    }
+
+    /**
+     * Upper bound on connections opened: java.net.http does not expose its pool, so each HTTP/2
+     * host counts as one multiplexed connection and each HTTP/1.1 host as its peak concurrency.
+     */
+    public long getEstimatedConnections() {
+        return hosts.values().stream().mapToLong(host -> host.http2 ? 1 : host.peak.get()).sum();
+    }
+
+    /** Share of requests that went over an already open connection, from getEstimatedConnections. */
+    public double getConnectionReuse() {
+        long count = getRequests();
+        return count == 0 ? 0.0 : Math.max(0, count - getEstimatedConnections()) / (double) count;
+    }
+
+    public String stats() {
+        long count = getRequests();
+        long wire = getWireBytes();
+        long decoded = getDecodedBytes();
+        return String.format(Locale.ROOT,
+            "HTTP: %d requests (%d over HTTP/2), %d KB received / %d KB decoded (%.0f%% saved), " +
+                "avg %.0f ms to headers, %.0f ms total, ~%.0f%% connection reuse",
+            count, http2Responses.sum(), wire / 1024, decoded / 1024,
+            decoded == 0 ? 0.0 : 100.0 * (decoded - wire) / decoded,
+            count == 0 ? 0.0 : headersNanos.sum() / 1e6 / count,
+            count == 0 ? 0.0 : totalNanos.sum() / 1e6 / count,
+            100.0 * getConnectionReuse());
+    }
+
+    private static String hostKey(String url) {
+        URI uri = URI.create(url);
+        return (uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort()).toLowerCase(Locale.ROOT);
+    }
+
+    private static final class HostConnections {
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+        private volatile boolean http2;
+
+        void begin() {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+        }
+
+        void end() {
+            active.decrementAndGet();
+        }
+    }
+
+    /** A response whose body has not been read yet; read it once with parse, bodyAsBytes or discard. */
+    public final class Response {
+        private final HttpResponse<InputStream> response;
+        private final HostConnections host;
+        private final long started;
+        private final long headersMs;
+        private long bytes = -1;
+        private long latencyMs = -1;
+
+        private Response(HttpResponse<InputStream> response, HostConnections host, long started, long headersMs) {
+            this.response = response;
+            this.host = host;
+            this.started = started;
+            this.headersMs = headersMs;
+        }
+
+        public int statusCode() {
+            return response.statusCode();
+        }
+
+        public String header(String name) {
+            return response.headers().firstValue(name).orElse(null);
+        }
+
+        /** URL after redirects. */
+        public String url() {
+            return response.uri().toString();
+        }
+
+        public boolean isHttp2() {
+            return response.version() == HttpClient.Version.HTTP_2;
+        }
+
+        /** Charset from Content-Type, or null to let the parser detect it. */
+        public String charset() {
+            String contentType = header("Content-Type");
+            if (contentType == null) {
+                return null;
+            }
+            Matcher matcher = CHARSET_PATTERN.matcher(contentType);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+
+        /** Streams the decoded body straight into jsoup. */
+        public Document parse() throws IOException {
+            try (InputStream body = openBody()) {
+                return Jsoup.parse(body, charset(), url());
+            }
+        }
+
+        public byte[] bodyAsBytes() throws IOException {
+            try (InputStream body = openBody()) {
+                return body.readAllBytes();
+            }
+        }
+
+        public void discard() throws IOException {
+            try (InputStream body = openBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+
+        /** Compressed body bytes of this response, once read. */
+        public long bytes() {
+            return bytes;
+        }
+
+        /** Time from sending the request until the status line and headers arrived. */
+        public long headersMs() {
+            return headersMs;
+        }
+
+        /** Time from sending the request until the body was fully read. */
+        public long latencyMs() {
+            return latencyMs;
+        }
+
+        private InputStream openBody() throws IOException {
+            InputStream body = new DeadlineInputStream(response.body(), timeout, url());
+            InputStream wire = new CountingInputStream(body, count -> {
+                bytes = count;
+                wireBytes.add(count);
+                host.end();
+            });
+            String encoding = header("Content-Encoding");
+            InputStream decoded;
+            try {
+                decoded = decode(wire, encoding == null ? "" : encoding.trim().toLowerCase(Locale.ROOT));
+            } catch (IOException e) {
+                wire.close();
+                throw e;
+            }
+            return new CountingInputStream(decoded, count -> {
+                decodedBytes.add(count);
+                long elapsed = System.nanoTime() - started;
+                totalNanos.add(elapsed);
+                latencyMs = elapsed / 1_000_000;
+            });
+        }
+    }
+
+    private static InputStream decode(InputStream in, String encoding) throws IOException {
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(in, 8192);
+            case "deflate" -> inflate(in);
+            default -> in;
+        };
+    }
+
+    /** "deflate" should be zlib-wrapped but some servers send raw deflate; check the zlib header. */
+    private static InputStream inflate(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        int cmf = buffered.read();
+        int flg = buffered.read();
+        buffered.reset();
+        boolean zlib = cmf >= 0 && flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new InflaterInputStream(buffered, new Inflater(!zlib), 8192);
+    }
+
+    /**
+     * Fails reads with HttpTimeoutException once the deadline has passed. The request timeout stops
+     * at the headers; without this a server that stalls mid-body would block the reader forever.
+     * The watchdog closes the stream to wake a blocked read, which then reports the timeout rather
+     * than a truncated body.
+     */
+    private static final class DeadlineInputStream extends FilterInputStream {
+        private final Duration timeout;
+        private final String url;
+        private final ScheduledFuture<?> watchdog;
+        private volatile boolean expired;
+
+        DeadlineInputStream(InputStream in, Duration timeout, String url) {
+            super(in);
+            this.timeout = timeout;
+            this.url = url;
+            this.watchdog = BODY_WATCHDOG.schedule(this::expire, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private void expire() {
+            expired = true;
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // The reader gets the timeout either way
+            }
+        }
+
+        private void checkDeadline() throws HttpTimeoutException {
+            if (expired) {
+                throw new HttpTimeoutException("Body read timed out after " + timeout.toMillis() + "ms: " + url);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkDeadline();
+            int b;
+            try {
+                b = super.read();
+            } catch (IOException e) {
+                checkDeadline();
+                throw e;
+            }
+            checkDeadline();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            checkDeadline();
+            int n;
+            try {
+                n = super.read(buffer, offset, length);
+            } catch (IOException e) {
+                checkDeadline();
+                throw e;
+            }
+            checkDeadline();
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            watchdog.cancel(false);
+            super.close();
+        }
+    }
+
+    /** Counts bytes read and reports the total once when closed. */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final LongConsumer onClose;
+        private long count;
+        private boolean closed;
+
+        CountingInputStream(InputStream in, LongConsumer onClose) {
+            super(in);
+            this.onClose = onClose;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                onClose.accept(count);
+            }
+            super.close();
+        }
+    }
+}
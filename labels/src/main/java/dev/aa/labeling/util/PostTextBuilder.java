@@ -0,0 +1,187 @@
+package dev.aa.labeling.util;
+
+import org.jsoup.nodes.CDataNode;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+/**
+ * Builds the cleaned text of one post into reusable buffers. The result is identical to
+ * post.text() with BBCode tokens and arrow symbols removed and whitespace collapsed, but no
+ * intermediate strings are created: the text nodes are collected once (with the same spacing
+ * rules as Element.text()) and then filtered in a single pass.
+ */
+final class PostTextBuilder implements NodeVisitor {
+
+    /** Buffers that grew past this are dropped after use rather than kept per thread. */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private StringBuilder raw = new StringBuilder(4096);
+    private StringBuilder text = new StringBuilder(4096);
+
+    /** Builds the cleaned text of the post; valid until the next build on this instance. */
+    CharSequence build(Element post) {
+        raw.setLength(0);
+        text.setLength(0);
+        NodeTraversor.traverse(this, post);
+        filter();
+        return text;
+    }
+
+    /** Lets go of buffers that a very long post made large. */
+    void release() {
+        if (raw.capacity() > MAX_RETAINED_CAPACITY) {
+            raw = new StringBuilder(4096);
+        }
+        if (text.capacity() > MAX_RETAINED_CAPACITY) {
+            text = new StringBuilder(4096);
+        }
+    }
+
+    // Element.text() spacing: a space before block elements and <br>, and after a block followed by inline content
+
+    @Override
+    public void head(Node node, int depth) {
+        if (node instanceof TextNode textNode) {
+            if (preservesWhitespace(textNode.parent()) || textNode instanceof CDataNode) {
+                raw.append(textNode.getWholeText());
+            } else {
+                appendNormalisedWhitespace(textNode.getWholeText(), endsWithSpace(raw));
+            }
+        } else if (node instanceof Element element) {
+            if (raw.length() > 0 && (element.isBlock() || element.nameIs("br")) && !endsWithSpace(raw)) {
+                raw.append(' ');
+            }
+        }
+    }
+
+    @Override
+    public void tail(Node node, int depth) {
+        if (node instanceof Element element && element.isBlock() && !endsWithSpace(raw)) {
+            Node next = node.nextSibling();
+            if (next instanceof TextNode || next instanceof Element nextElement && !nextElement.tag().formatAsBlock()) {
+                raw.append(' ');
+            }
+        }
+    }
+
+    /**
+     * Element.text() whitespace rules: runs of whitespace (including no-break space) become one
+     * space, dropped at the start when stripLeading; zero-width spaces and soft hyphens are dropped.
+     */
+    private void appendNormalisedWhitespace(String string, boolean stripLeading) {
+        boolean lastWasWhite = false;
+        boolean reachedNonWhite = false;
+        int length = string.length();
+        int c;
+        for (int i = 0; i < length; i += Character.charCount(c)) {
+            c = string.codePointAt(i);
+            if (isActuallyWhitespace(c)) {
+                if ((stripLeading && !reachedNonWhite) || lastWasWhite) {
+                    continue;
+                }
+                raw.append(' ');
+                lastWasWhite = true;
+            } else if (c != '\u200b' && c != '\u00ad') {
+                raw.appendCodePoint(c);
+                lastWasWhite = false;
+                reachedNonWhite = true;
+            }
+        }
+    }
+
+    private static boolean isActuallyWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r' || c == '\u00a0';
+    }
+
+    /** Same lookup as jsoup: the element and five levels up. */
+    private static boolean preservesWhitespace(Node node) {
+        if (node instanceof Element element) {
+            int level = 0;
+            do {
+                if (element.tag().preserveWhitespace()) {
+                    return true;
+                }
+                element = element.parent();
+                level++;
+            } while (level < 6 && element != null);
+        }
+        return false;
+    }
+
+    private static boolean endsWithSpace(StringBuilder builder) {
+        return builder.length() != 0 && builder.charAt(builder.length() - 1) == ' ';
+    }
+
+    /**
+     * One pass over the collected text: drops [tag]/[/tag] tokens, then arrow symbols, collapses
+     * runs of spaces/tabs to one space and of 3+ newlines to two, and trims both ends.
+     */
+    private void filter() {
+        int length = raw.length();
+        int newlines = 0;
+        int i = 0;
+        while (i < length) {
+            char c = raw.charAt(i);
+            if (c == '[') {
+                int end = bbCodeEnd(i);
+                if (end > 0) {
+                    i = end;
+                    continue;
+                }
+            }
+            i++;
+            if (isArrow(c)) {
+                continue;
+            }
+            if (c == ' ' || c == '\t') {
+                if (text.length() > 0 && !endsWithSpace(text)) {
+                    text.append(' ');
+                }
+                newlines = 0;
+            } else if (c == '\n') {
+                if (text.length() > 0 && ++newlines <= 2) {
+                    text.append('\n');
+                }
+            } else if (c > ' ' || text.length() > 0) {
+                text.append(c);
+                newlines = 0;
+            }
+        }
+        int end = text.length();
+        while (end > 0 && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        text.setLength(end);
+    }
+
+    /** End of a \[/?\w+\] token starting at start, or -1. */
+    private int bbCodeEnd(int start) {
+        int i = start + 1;
+        int length = raw.length();
+        if (i < length && raw.charAt(i) == '/') {
+            i++;
+        }
+        int wordStart = i;
+        while (i < length && isWordChar(raw.charAt(i))) {
+            i++;
+        }
+        if (i == wordStart || i >= length || raw.charAt(i) != ']') {
+            return -1;
+        }
+        return i + 1;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isArrow(char c) {
+        return switch (c) {
+            case '⇧', '⇩', '↧', '↨', '↩', '⇒', '⇐', '↔', '⇑', '⇓' -> true;
+            default -> false;
+        };
+    }
+}
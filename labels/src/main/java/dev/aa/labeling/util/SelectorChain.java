@@ -0,0 +1,71 @@
+package dev.aa.labeling.util;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import java.util.List;
+
+/**
+ * Fallback CSS selectors parsed once: the first selector that matches anything wins.
+ * A remembering chain tries the last winner first, so pages of one site that share a layout
+ * skip the selectors that never match there; it goes back to the full chain when that fails.
+ */
+public final class SelectorChain {
+
+    private final List<String> selectors;
+    private final Evaluator[] evaluators;
+    private final boolean remember;
+    private volatile int preferred = -1;
+
+    private SelectorChain(List<String> selectors, boolean remember) {
+        this.selectors = List.copyOf(selectors);
+        this.evaluators = this.selectors.stream().map(QueryParser::parse).toArray(Evaluator[]::new);
+        this.remember = remember;
+    }
+
+    /** A chain always tried in the given order. */
+    public static SelectorChain of(String... selectors) {
+        return new SelectorChain(List.of(selectors), false);
+    }
+
+    /** A copy with its own memory of the winning selector; use one per site. */
+    public SelectorChain remembering() {
+        return new SelectorChain(selectors, true);
+    }
+
+    /** Matches of the winning selector, or empty when none matches. */
+    public Elements select(Element root) {
+        int first = preferred;
+        if (first >= 0) {
+            Elements matches = root.select(evaluators[first]);
+            if (!matches.isEmpty()) {
+                return matches;
+            }
+        }
+        for (int i = 0; i < evaluators.length; i++) {
+            if (i == first) {
+                continue;
+            }
+            Elements matches = root.select(evaluators[i]);
+            if (!matches.isEmpty()) {
+                if (remember) {
+                    preferred = i;
+                }
+                return matches;
+            }
+        }
+        return new Elements();
+    }
+
+    public List<String> getSelectors() {
+        return selectors;
+    }
+
+    /** The selector tried first, or null before anything matched (or when not remembering). */
+    public String getPreferredSelector() {
+        int index = preferred;
+        return index >= 0 ? selectors.get(index) : null;
+    }
+}
@@ -0,0 +1,112 @@
+package dev.aa.labeling.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdRateControllerTest {
+
+    private static AimdRateController controller(TokenBucketRateLimiter limiter) {
+        return new AimdRateController(limiter, 0.1, 2.0, 0.1, 0.5, 2.0);
+    }
+
+    @Test
+    void testAdditiveIncreaseUpToCeiling() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1.0, 1);
+        AimdRateController controller = controller(limiter);
+
+        controller.onSuccess(100);
+        assertEquals(1.1, controller.getRate(), 1e-9);
+        for (int i = 0; i < 50; i++) {
+            controller.onSuccess(100);
+        }
+        assertEquals(2.0, controller.getRate(), 1e-9);
+        assertEquals(2.0, limiter.getPermitsPerSecond(), 1e-9);
+    }
+
+    @Test
+    void testMultiplicativeDecreaseOncePerCooldown() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1.0, 1);
+        AimdRateController controller = controller(limiter);
+
+        controller.onThrottle(0);
+        controller.onThrottle(0);
+
+        assertEquals(0.5, controller.getRate(), 1e-9);
+        assertEquals(1, controller.getDecreases());
+        assertEquals(2, controller.getThrottles());
+        assertEquals(0.5, limiter.getPermitsPerSecond(), 1e-9);
+    }
+
+    @Test
+    void testLatencySpikeReducesRate() {
+        AimdRateController controller = controller(new TokenBucketRateLimiter(1.0, 1));
+        for (int i = 0; i < 5; i++) {
+            controller.onSuccess(100);
+        }
+        double before = controller.getRate();
+
+        controller.onSuccess(2000);
+
+        assertTrue(controller.getRate() < before);
+        assertEquals(1, controller.getDecreases());
+    }
+
+    @Test
+    void testLatencyStepBecomesNewBaseline() {
+        AimdRateController controller = controller(new TokenBucketRateLimiter(1.0, 1));
+        for (int i = 0; i < 10; i++) {
+            controller.onSuccess(100);
+        }
+
+        controller.onSuccess(1000);
+        assertEquals(1, controller.getDecreases());
+        double cut = controller.getRate();
+        for (int i = 0; i < 200; i++) {
+            controller.onSuccess(1000);
+        }
+
+        assertTrue(controller.getRate() > cut);
+        assertEquals(2.0, controller.getRate(), 1e-9);
+        assertEquals(1000, controller.getLatencyBaselineMs(), 50);
+    }
+
+    @Test
+    void testFastFirstSampleDoesNotPinBaseline() {
+        AimdRateController controller = controller(new TokenBucketRateLimiter(1.0, 1));
+        controller.onSuccess(10);
+        for (int i = 0; i < 200; i++) {
+            controller.onSuccess(100);
+        }
+
+        assertEquals(2.0, controller.getRate(), 1e-9);
+        assertEquals(100, controller.getLatencyBaselineMs(), 5);
+    }
+
+    @Test
+    void testRetryAfterPausesRequests() throws InterruptedException {
+        AimdRateController controller = controller(new TokenBucketRateLimiter(100.0, 10));
+
+        controller.onThrottle(150);
+        assertTrue(controller.isPaused());
+
+        long start = System.nanoTime();
+        controller.acquire("https://forum.example.com/t=1");
+        assertTrue((System.nanoTime() - start) / 1_000_000 >= 100);
+    }
+
+    @Test
+    void testParseRetryAfter() {
+        assertEquals(120_000, AimdRateController.parseRetryAfterMs("120"));
+        assertEquals(0, AimdRateController.parseRetryAfterMs(null));
+        assertEquals(0, AimdRateController.parseRetryAfterMs("soon"));
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30));
+        long parsed = AimdRateController.parseRetryAfterMs(date);
+        assertTrue(parsed > 25_000 && parsed <= 30_000, "parsed " + parsed);
+    }
+}
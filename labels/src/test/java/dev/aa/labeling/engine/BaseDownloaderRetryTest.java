@@ -0,0 +1,136 @@
+package dev.aa.labeling.engine;
+
+import dev.aa.labeling.config.Configuration;
+import dev.aa.labeling.config.ForumConfiguration;
+import dev.aa.labeling.config.RuntimeConfiguration;
+import dev.aa.labeling.config.SiteConfiguration;
+import dev.aa.labeling.extractors.ForumType;
+import dev.aa.labeling.extractors.TopicsListExtractor;
+import dev.aa.labeling.interfaces.IfTopicLabeler;
+import dev.aa.labeling.model.Topic;
+import dev.aa.labeling.model.TopicListing;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseDownloaderRetryTest {
+
+    private static final String FORUM_URL = "https://forum.example.com/viewforum.php?f=1";
+    private static final String PAGE = "<html><body><div class=\"postbody\"><div class=\"content\">" +
+        "Вчера на рыбалке я поймал большого карпа на кукурузу у самого берега озера</div></div></body></html>";
+
+    /** Fails each URL with the given status a set number of times, then serves the page. */
+    private static class FlakyDownloader extends BaseDownloader {
+        private final Map<String, Integer> failuresLeft = new ConcurrentHashMap<>();
+        private final int status;
+        private String listingPage;
+
+        FlakyDownloader(int status, Map<String, Integer> failures) {
+            this.status = status;
+            this.failuresLeft.putAll(failures);
+        }
+
+        @Override
+        protected Document fetchDocument(String url) throws Exception {
+            int left = failuresLeft.getOrDefault(url, 0);
+            if (left > 0) {
+                failuresLeft.put(url, left - 1);
+                throw new FetchException(status, 0, url);
+            }
+            return Jsoup.parse(url.equals(FORUM_URL) && listingPage != null ? listingPage : PAGE, url);
+        }
+
+        @Override
+        protected long retryDelayMs(Exception e, int attempt) {
+            long delay = super.retryDelayMs(e, attempt);
+            return delay < 0 ? delay : 20;
+        }
+    }
+
+    private static String topicUrl(int id) {
+        return "https://forum.example.com/viewtopic.php?f=1&t=" + id;
+    }
+
+    private static List<Topic> run(BaseDownloader downloader, int topics) {
+        downloader.bindAdapter(new TopicsListExtractor() {
+            @Override
+            public TopicsListExtractor.ListingIterator iterateTopicListings(ForumType forumType, String forumUrl) {
+                List<TopicListing> listings = new ArrayList<>();
+                for (int i = 1; i <= topics; i++) {
+                    listings.add(TopicListing.of(topicUrl(i)));
+                }
+                return TopicsListExtractor.ListingIterator.of(listings.iterator());
+            }
+        });
+        return run(downloader);
+    }
+
+    private static List<Topic> run(BaseDownloader downloader) {
+        List<Topic> labeled = Collections.synchronizedList(new ArrayList<>());
+        downloader.bindExtractor(new IfTopicLabeler() {
+            @Override
+            public void processTopic(Topic topic) { labeled.add(topic); }
+            @Override
+            public boolean isStopped() { return false; }
+        });
+        downloader.setConfiguration(new Configuration(null, null,
+            new SiteConfiguration("site", "Site", "https://forum.example.com/", 30000, "Agent"),
+            new RuntimeConfiguration(0.99, 2, 1, 1000, 0, 0, 0, false, false, false, 0), null,
+            List.of(new ForumConfiguration(FORUM_URL, "Forum", null, true, "PHPBB", "RU", null, null))));
+        downloader.download();
+        return labeled;
+    }
+
+    @Test
+    void testThrottledTopicIsRetriedAfterOthers() {
+        FlakyDownloader downloader = new FlakyDownloader(503, Map.of(topicUrl(1), 1));
+
+        List<Topic> labeled = run(downloader, 3);
+
+        assertEquals(3, labeled.size());
+        assertEquals(topicUrl(2), labeled.get(0).getTopicUrl());
+        assertEquals(topicUrl(1), labeled.get(2).getTopicUrl());
+        assertEquals(1, downloader.rateController.getThrottles());
+    }
+
+    @Test
+    void testGivesUpAfterMaxRetries() {
+        FlakyDownloader downloader = new FlakyDownloader(429, Map.of(topicUrl(1), 5));
+
+        List<Topic> labeled = run(downloader, 2);
+
+        assertEquals(1, labeled.size());
+        assertEquals(3, downloader.rateController.getThrottles());
+    }
+
+    @Test
+    void testNotFoundIsNotRetried() {
+        FlakyDownloader downloader = new FlakyDownloader(404, Map.of(topicUrl(1), 1));
+
+        List<Topic> labeled = run(downloader, 2);
+
+        assertEquals(1, labeled.size());
+        assertEquals(0, downloader.rateController.getThrottles());
+    }
+
+    @Test
+    void testThrottledListingPageIsRetried() {
+        FlakyDownloader downloader = new FlakyDownloader(503, Map.of(FORUM_URL, 1));
+        downloader.listingPage = "<html><body>" +
+            "<a class=\"topictitle\" href=\"viewtopic.php?f=1&t=1\">A</a>" +
+            "<a class=\"topictitle\" href=\"viewtopic.php?f=1&t=2\">B</a></body></html>";
+
+        List<Topic> labeled = run(downloader);
+
+        assertEquals(2, labeled.size());
+        assertEquals(1, downloader.rateController.getThrottles());
+    }
+}
@@ -0,0 +1,85 @@
+package dev.aa.labeling.engine;
+
+import dev.aa.labeling.model.Post;
+import dev.aa.labeling.model.Topic;
+import dev.aa.labeling.model.TopicListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlStateStoreTest {
+
+    private static final String URL = "https://forum.example.com/viewtopic.php?f=1&t=42";
+
+    @TempDir
+    Path tempDir;
+
+    private static Topic topic(Topic.ProcessingStatus status) {
+        Topic topic = new Topic("site", "Site", "Forum", "https://forum.example.com/viewforum.php?f=1", URL, "42");
+        topic.setCleanedContent("Поймал карпа");
+        topic.setProcessingStatus(status);
+        return topic;
+    }
+
+    @Test
+    void testUnchangedAfterSuccessfulRun() {
+        CrawlStateStore store = new CrawlStateStore(tempDir.resolve("state.json"), 100);
+        TopicListing listing = new TopicListing(URL, "42", 7, "18.11.2024 13:40");
+
+        assertFalse(store.isUnchanged(listing));
+        store.record(topic(Topic.ProcessingStatus.PROCESSED), listing);
+
+        assertTrue(store.isUnchanged(listing));
+        assertFalse(store.isUnchanged(new TopicListing(URL, "42", 8, "19.11.2024 09:00")));
+    }
+
+    @Test
+    void testFailedOrUnknownActivityIsNeverSkipped() {
+        CrawlStateStore store = new CrawlStateStore(tempDir.resolve("state.json"), 100);
+        TopicListing listing = new TopicListing(URL, "42", 7, null);
+
+        store.record(topic(Topic.ProcessingStatus.ERROR), listing);
+        assertFalse(store.isUnchanged(listing));
+
+        store.record(topic(Topic.ProcessingStatus.PROCESSED), TopicListing.of(URL));
+        assertFalse(store.isUnchanged(TopicListing.of(URL)));
+    }
+
+    @Test
+    void testPersistsAcrossInstances() {
+        Path file = tempDir.resolve("nested").resolve("state.json");
+        CrawlStateStore store = new CrawlStateStore(file, 100);
+        TopicListing listing = new TopicListing(URL, "42", 3, null);
+        store.record(topic(Topic.ProcessingStatus.PROCESSED), listing);
+        store.save();
+
+        CrawlStateStore reloaded = new CrawlStateStore(file, 100);
+        assertEquals(1, reloaded.size());
+        assertTrue(reloaded.isUnchanged(listing));
+        assertNotEquals(0L, reloaded.get("42").fingerprint());
+    }
+
+    @Test
+    void testAccumulatesLabeledPostIds() {
+        Path file = tempDir.resolve("state.json");
+        CrawlStateStore store = new CrawlStateStore(file, 100);
+        TopicListing listing = new TopicListing(URL, "42", 1, null);
+
+        Topic first = topic(Topic.ProcessingStatus.PROCESSED);
+        first.setPosts(List.of(new Post("101", "angler", null, "Поймал карпа"), new Post("102", null, null, "Где?")));
+        store.record(first, listing);
+        Topic failed = topic(Topic.ProcessingStatus.ERROR);
+        failed.setPosts(List.of(new Post("103", null, null, "На кукурузу")));
+        store.record(failed, listing);
+        store.save();
+
+        CrawlStateStore reloaded = new CrawlStateStore(file, 100);
+        assertEquals(Set.of("101", "102"), reloaded.labeledPostIds("42"));
+        assertEquals(Set.of(), reloaded.labeledPostIds("43"));
+    }
+}
@@ -0,0 +1,67 @@
+package dev.aa.labeling.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTrip() {
+        PageCache cache = new PageCache(tempDir);
+        byte[] body = "<html><body>Карп</body></html>".getBytes(StandardCharsets.UTF_8);
+
+        cache.put("https://forum.example.com/viewtopic.php?t=1", body, "UTF-8", "\"abc\"", "Wed, 01 Jan 2025 00:00:00 GMT");
+        PageCache.CachedPage page = cache.get("https://forum.example.com/viewtopic.php?t=1");
+
+        assertNotNull(page);
+        assertArrayEquals(body, page.body());
+        assertEquals("UTF-8", page.charset());
+        assertEquals("\"abc\"", page.etag());
+        assertEquals("Wed, 01 Jan 2025 00:00:00 GMT", page.lastModified());
+        assertTrue(page.hasValidators());
+        assertEquals(1, cache.getStoredCount());
+    }
+
+    @Test
+    void testMissingEntry() {
+        assertNull(new PageCache(tempDir).get("https://forum.example.com/viewtopic.php?t=404"));
+    }
+
+    @Test
+    void testEquivalentUrlsShareEntry() {
+        PageCache cache = new PageCache(tempDir);
+        cache.put("https://Forum.Example.com:443/viewtopic.php?t=5&f=2&sid=deadbeef#p10", new byte[] {1, 2, 3}, null, null, null);
+
+        PageCache.CachedPage page = cache.get("https://forum.example.com/viewtopic.php?f=2&t=5");
+        assertNotNull(page);
+        assertFalse(page.hasValidators());
+    }
+
+    @Test
+    void testCanonicalUrl() {
+        assertEquals("https://forum.example.com/viewtopic.php?f=2&t=5",
+            PageCache.canonicalUrl("https://FORUM.example.com/viewtopic.php?t=5&sid=abc&f=2#p1"));
+        assertEquals("http://example.com:8080/",
+            PageCache.canonicalUrl("http://example.com:8080"));
+        assertEquals("not a url", PageCache.canonicalUrl("not a url"));
+    }
+
+    @Test
+    void testRevalidatedStats() {
+        PageCache cache = new PageCache(tempDir);
+        cache.put("https://example.com/t=1", new byte[2048], null, "\"x\"", null);
+
+        cache.recordRevalidated(cache.get("https://example.com/t=1"));
+
+        assertEquals(1, cache.getRevalidatedCount());
+        assertEquals(2048, cache.getBytesReused());
+    }
+}
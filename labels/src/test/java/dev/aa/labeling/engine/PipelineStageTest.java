@@ -0,0 +1,103 @@
+package dev.aa.labeling.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineStageTest {
+
+    @Test
+    void testItemsFlowThroughStages() throws InterruptedException {
+        BlockingQueue<Integer> source = new ArrayBlockingQueue<>(4);
+        BlockingQueue<Integer> doubled = new ArrayBlockingQueue<>(4);
+        List<Integer> sink = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean sourceDone = new AtomicBoolean(false);
+
+        PipelineStage<Integer, Integer> first = new PipelineStage<>("double", 3, source, doubled,
+            i -> i % 5 == 0 ? null : i * 2);
+        PipelineStage<Integer, Integer> second = new PipelineStage<>("collect", 1, doubled, null, i -> {
+            sink.add(i);
+            return i;
+        });
+        first.start(sourceDone::get);
+        second.start(first::isFinished);
+
+        for (int i = 1; i <= 20; i++) {
+            source.put(i);
+        }
+        sourceDone.set(true);
+
+        assertTrue(second.awaitFinished(5, TimeUnit.SECONDS));
+        assertEquals(16, sink.size());
+        assertEquals(20, first.metrics().getProcessed());
+        assertEquals(4, first.metrics().getDropped());
+        assertEquals(16, second.metrics().getProcessed());
+        assertEquals(0, first.metrics().getQueueDepth());
+        assertEquals(4, first.metrics().getQueueCapacity());
+    }
+
+    @Test
+    void testCheckedFailureSkipsItemOnly() throws InterruptedException {
+        BlockingQueue<Integer> source = new ArrayBlockingQueue<>(4);
+        PipelineStage<Integer, Integer> stage = new PipelineStage<>("fail", 1, source, null, i -> {
+            if (i == 2) throw new IOException("boom");
+            return i;
+        });
+        stage.start(() -> true);
+        source.put(1);
+        source.put(2);
+        source.put(3);
+
+        assertTrue(stage.awaitFinished(5, TimeUnit.SECONDS));
+        assertEquals(2, stage.metrics().getProcessed());
+        assertEquals(1, stage.metrics().getFailed());
+        assertNull(stage.getFatalError());
+    }
+
+    @Test
+    void testUncheckedFailureStopsStage() throws InterruptedException {
+        BlockingQueue<Integer> source = new ArrayBlockingQueue<>(4);
+        PipelineStage<Integer, Integer> stage = new PipelineStage<>("fatal", 1, source, null, i -> {
+            throw new IllegalStateException("stop");
+        });
+        source.put(1);
+        stage.start(() -> false);
+
+        assertTrue(stage.awaitFinished(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, stage.getFatalError());
+    }
+
+    @Test
+    void testFullOutputQueueBlocksWorkers() throws InterruptedException {
+        BlockingQueue<Integer> source = new ArrayBlockingQueue<>(8);
+        BlockingQueue<Integer> output = new ArrayBlockingQueue<>(2);
+        CountDownLatch processed = new CountDownLatch(3);
+        PipelineStage<Integer, Integer> stage = new PipelineStage<>("produce", 1, source, output, i -> {
+            processed.countDown();
+            return i;
+        });
+        for (int i = 0; i < 8; i++) {
+            source.put(i);
+        }
+        stage.start(() -> true);
+
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(2, output.size());
+        assertEquals(3, stage.metrics().getProcessed());
+        assertFalse(stage.isFinished());
+
+        stage.cancel();
+        assertTrue(stage.awaitFinished(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,45 @@
+package dev.aa.labeling.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void testBurstIsImmediateThenPaced() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(20.0, 2);
+
+        long start = System.nanoTime();
+        limiter.acquire("example.com");
+        limiter.acquire("example.com");
+        long burstMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(burstMillis < 40, "burst took " + burstMillis + "ms");
+
+        limiter.acquire("example.com");
+        long pacedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(pacedMillis >= 40, "third permit came after " + pacedMillis + "ms");
+    }
+
+    @Test
+    void testHostsHaveSeparateBuckets() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1.0, 1);
+
+        long start = System.nanoTime();
+        limiter.acquireForUrl("https://a.example.com/topic/1");
+        limiter.acquireForUrl("https://b.example.com/topic/1");
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 500);
+    }
+
+    @Test
+    void testHostOf() {
+        assertEquals("forum.example.com", TokenBucketRateLimiter.hostOf("https://Forum.Example.com/t/1"));
+        assertEquals("", TokenBucketRateLimiter.hostOf("not a url"));
+    }
+
+    @Test
+    void testRejectsInvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(1, 0));
+    }
+}
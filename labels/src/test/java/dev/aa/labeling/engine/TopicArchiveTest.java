@@ -0,0 +1,115 @@
+package dev.aa.labeling.engine;
+
+import dev.aa.labeling.config.Configuration;
+import dev.aa.labeling.config.ForumConfiguration;
+import dev.aa.labeling.config.RuntimeConfiguration;
+import dev.aa.labeling.config.SiteConfiguration;
+import dev.aa.labeling.interfaces.IfTopicLabeler;
+import dev.aa.labeling.model.Topic;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopicArchiveTest {
+
+    private static final String FORUM_URL = "https://forum.example.com/viewforum.php?f=1";
+    private static final String POST_HTML = "<html><body><div class=\"postbody\"><div class=\"content\">" +
+        "Вчера на рыбалке я поймал большого карпа на кукурузу у самого берега озера</div></div></body></html>";
+
+    @TempDir
+    Path tempDir;
+
+    private static ArchivedTopic topic(String id, String html) {
+        return new ArchivedTopic("site", "Site", "Forum", FORUM_URL,
+            "https://forum.example.com/viewtopic.php?t=" + id, id, "RU", 1L, html);
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        try (TopicArchiveWriter writer = new TopicArchiveWriter(tempDir, 1024 * 1024)) {
+            writer.append(topic("1", "<p>один</p>"));
+            writer.append(topic("2", "<p>два</p>"));
+        }
+
+        try (TopicArchiveReader reader = new TopicArchiveReader(tempDir)) {
+            List<TopicArchiveReader.IndexEntry> entries = reader.entries();
+            assertEquals(2, entries.size());
+            ArchivedTopic second = reader.read(entries.get(1));
+            assertEquals("2", second.topicId());
+            assertEquals("<p>два</p>", second.html());
+            assertEquals(FORUM_URL, second.forumUrl());
+        }
+    }
+
+    @Test
+    void testRollsOverAndKeepsLatestCopy() throws IOException {
+        try (TopicArchiveWriter writer = new TopicArchiveWriter(tempDir, 200)) {
+            writer.append(topic("1", "a".repeat(300)));
+            writer.append(topic("2", "старое"));
+        }
+        try (TopicArchiveWriter writer = new TopicArchiveWriter(tempDir, 1024 * 1024)) {
+            writer.append(topic("2", "новое"));
+        }
+
+        try (TopicArchiveReader reader = new TopicArchiveReader(tempDir)) {
+            assertEquals(3, TopicArchiveReader.segmentNumbers(tempDir).size());
+            List<TopicArchiveReader.IndexEntry> latest = reader.latestEntries();
+            assertEquals(2, latest.size());
+            assertEquals("новое", reader.read(latest.get(1)).html());
+        }
+    }
+
+    @Test
+    void testScansSegmentWithoutIndexAndStopsAtTruncatedTail() throws IOException {
+        try (TopicArchiveWriter writer = new TopicArchiveWriter(tempDir, 1024 * 1024)) {
+            writer.append(topic("1", "<p>один</p>"));
+            writer.append(topic("2", "<p>два</p>"));
+        }
+        Files.delete(tempDir.resolve(TopicArchiveReader.indexFileName(1)));
+        Path segment = tempDir.resolve(TopicArchiveReader.segmentFileName(1));
+        byte[] data = Files.readAllBytes(segment);
+        Files.write(segment, java.util.Arrays.copyOf(data, data.length - 5));
+
+        try (TopicArchiveReader reader = new TopicArchiveReader(tempDir)) {
+            List<TopicArchiveReader.IndexEntry> entries = reader.entries();
+            assertEquals(1, entries.size());
+            assertEquals("<p>один</p>", reader.read(entries.get(0)).html());
+        }
+    }
+
+    @Test
+    void testReplayFeedsLabelerFromArchive() throws IOException {
+        try (TopicArchiveWriter writer = new TopicArchiveWriter(tempDir, 1024 * 1024)) {
+            writer.append(topic("1", POST_HTML));
+            writer.append(topic("2", POST_HTML));
+        }
+        List<Topic> labeled = new ArrayList<>();
+        IfTopicLabeler labeler = new IfTopicLabeler() {
+            @Override
+            public void processTopic(Topic topic) { labeled.add(topic); }
+            @Override
+            public boolean isStopped() { return false; }
+        };
+        Configuration config = new Configuration(null, null,
+            new SiteConfiguration("site", "Site", "https://forum.example.com/", 30000, "Agent"),
+            new RuntimeConfiguration(0.8, 3), null,
+            List.of(new ForumConfiguration(FORUM_URL, "Forum", null, true, "PHPBB", "RU", null, null)));
+
+        ArchiveReplayDownloader downloader = new ArchiveReplayDownloader(tempDir);
+        downloader.bindExtractor(labeler);
+        downloader.setConfiguration(config);
+        downloader.download();
+
+        assertEquals(2, labeled.size());
+        assertTrue(labeled.get(0).getCleanedContent().contains("карпа"));
+        assertEquals(Topic.ProcessingStatus.PROCESSED, labeled.get(1).getProcessingStatus());
+        assertNull(labeled.get(0).getDocument());
+    }
+}
@@ -0,0 +1,163 @@
+package dev.aa.labeling.extractors;
+
+import dev.aa.labeling.model.TopicListing;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopicsListExtractorTest {
+
+    private static TopicsListExtractor withPage(String html) {
+        return new TopicsListExtractor("https://forum.example.com") {
+            @Override
+            protected Document getForumDocument(String url) {
+                return parseHtml(html);
+            }
+        };
+    }
+
+    @Test
+    void testPhpBBListingMetadata() {
+        String html = """
+            <html><body><ul class="topiclist">
+            <li class="row"><dl>
+                <dt><a class="topictitle" href="./viewtopic.php?f=1&t=10&sid=abc">Карп</a></dt>
+                <dd class="posts">1,204 <dfn>Replies</dfn></dd>
+                <dd class="lastpost"><span>by angler <time datetime="2024-11-18T13:40:00">18 Nov</time></span></dd>
+            </dl></li>
+            <li class="row"><dl>
+                <dt><a class="topictitle" href="./viewtopic.php?f=1&t=11">Щука</a></dt>
+            </dl></li>
+            </ul></body></html>
+            """;
+
+        List<TopicListing> listings = withPage(html).getTopicListings(ForumType.PHPBB, "https://forum.example.com/viewforum.php?f=1");
+
+        assertEquals(2, listings.size());
+        TopicListing first = listings.get(0);
+        assertEquals("https://forum.example.com/viewtopic.php?f=1&t=10", first.topicUrl());
+        assertEquals("10", first.topicId());
+        assertEquals(1204, first.replyCount());
+        assertEquals("2024-11-18T13:40:00", first.lastPost());
+        assertFalse(listings.get(1).hasActivity());
+    }
+
+    @Test
+    void testTopicsListStillReturnsUrls() {
+        String html = "<html><body><a class=\"topictitle\" href=\"viewtopic.php?t=5\">A</a></body></html>";
+
+        assertEquals(List.of("https://forum.example.com/viewtopic.php?t=5"),
+            withPage(html).getTopicsList(ForumType.PHPBB, "https://forum.example.com/viewforum.php?f=1"));
+    }
+
+    private static String listingPage(int start, int lastStart, boolean relNext) {
+        StringBuilder html = new StringBuilder("<html><body>");
+        for (int i = 0; i < 2; i++) {
+            int id = start + i;
+            html.append("<a class=\"topictitle\" href=\"viewtopic.php?f=1&t=").append(id).append("\">T</a>");
+            html.append("<a href=\"viewtopic.php?f=1&t=").append(id).append("&start=15\">2</a>");
+        }
+        html.append("<div class=\"pagination\">");
+        if (lastStart > 0) {
+            for (int s = 0; s <= lastStart; s += 2) {
+                html.append("<a href=\"./viewforum.php?f=1&start=").append(s).append("\">p</a>");
+            }
+        }
+        if (relNext) {
+            html.append("<a rel=\"next\" href=\"viewforum.php?f=1&start=").append(start + 2).append("\">next</a>");
+        }
+        return html.append("</div></body></html>").toString();
+    }
+
+    private static int startOf(String url) {
+        int index = url.indexOf("&start=");
+        return index < 0 ? 0 : Integer.parseInt(url.substring(index + 7));
+    }
+
+    @Test
+    void testFetchesEveryPageFromPaginationInOrder() {
+        java.util.Set<Integer> fetched = java.util.concurrent.ConcurrentHashMap.newKeySet();
+        TopicsListExtractor extractor = new TopicsListExtractor("https://forum.example.com") {
+            @Override
+            protected Document getForumDocument(String url) {
+                int start = startOf(url);
+                fetched.add(start);
+                return parseHtml(listingPage(start, 22, false));
+            }
+        };
+        extractor.setParallelism(4);
+
+        List<TopicListing> listings = extractor.getTopicListings(ForumType.PHPBB, "https://forum.example.com/viewforum.php?f=1");
+
+        assertEquals(12, fetched.size());
+        assertEquals(24, listings.size());
+        for (int i = 0; i < listings.size(); i++) {
+            assertEquals(String.valueOf(i), listings.get(i).topicId());
+        }
+    }
+
+    @Test
+    void testFollowsRelNextWithoutPageCount() {
+        TopicsListExtractor extractor = new TopicsListExtractor("https://forum.example.com") {
+            @Override
+            protected Document getForumDocument(String url) {
+                int start = startOf(url);
+                return parseHtml(listingPage(start, 0, start < 4));
+            }
+        };
+
+        java.util.Iterator<TopicListing> iterator = extractor.iterateTopicListings(ForumType.PHPBB, "https://forum.example.com/viewforum.php?f=1");
+        int count = 0;
+        while (iterator.hasNext()) {
+            assertEquals(String.valueOf(count), iterator.next().topicId());
+            count++;
+        }
+        assertEquals(6, count);
+    }
+
+    @Test
+    void testPageFetcherServesEveryPage() {
+        java.util.List<String> fetchedUrls = new java.util.concurrent.CopyOnWriteArrayList<>();
+        TopicsListExtractor extractor = new TopicsListExtractor("https://forum.example.com");
+        extractor.setPageFetcher(url -> {
+            fetchedUrls.add(url);
+            return org.jsoup.Jsoup.parse(listingPage(startOf(url), 4, false));
+        });
+
+        List<TopicListing> listings = extractor.getTopicListings(ForumType.PHPBB, "https://forum.example.com/viewforum.php?f=1");
+
+        assertEquals(6, listings.size());
+        assertEquals(3, fetchedUrls.size());
+    }
+
+    @Test
+    void testCloseCancelsPendingPages() throws Exception {
+        java.util.concurrent.CountDownLatch started = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.CountDownLatch interrupted = new java.util.concurrent.CountDownLatch(1);
+        TopicsListExtractor extractor = new TopicsListExtractor("https://forum.example.com");
+        extractor.setPageFetcher(url -> {
+            int start = startOf(url);
+            if (start > 0) {
+                started.countDown();
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            }
+            return org.jsoup.Jsoup.parse(listingPage(start, 22, false));
+        });
+
+        TopicsListExtractor.ListingIterator iterator = extractor.iterateTopicListings(ForumType.PHPBB, "https://forum.example.com/viewforum.php?f=1");
+        assertEquals("0", iterator.next().topicId());
+        assertTrue(started.await(5, java.util.concurrent.TimeUnit.SECONDS));
+        iterator.close();
+
+        assertTrue(interrupted.await(5, java.util.concurrent.TimeUnit.SECONDS), "Pending page fetch should be cancelled");
+        assertFalse(iterator.hasNext());
+    }
+}
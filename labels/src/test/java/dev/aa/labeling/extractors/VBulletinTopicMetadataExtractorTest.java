@@ -44,6 +44,24 @@ class VBulletinTopicMetadataExtractorTest {
         assertNotNull(topic.getCreationDate());
     }
     
+    @Test
+    void testFallbackDateFromTitleAttributeIgnoresScripts() {
+        String html = """
+            <html>
+            <head><script>var built = "2001-01-01 00:00:00";</script></head>
+            <body>
+                <a class="username">TestUser</a>
+                <span class="date" title="2006-11-18 13:40:00">18 Nov</span>
+            </body>
+            </html>
+            """;
+        
+        Topic topic = new Topic("test", "Test", "Forum", "http://test.com/f=1", "http://test.com/t=1", "1");
+        extractor.extractMetadata(topic, html);
+        
+        assertEquals(java.time.LocalDateTime.of(2006, 11, 18, 13, 40), topic.getCreationDate());
+    }
+    
     @Test
     void testExtractTitle() {
         String html = """
@@ -65,4 +83,18 @@ class VBulletinTopicMetadataExtractorTest {
         assertNull(topic.getAuthor());
         assertNull(topic.getCreationDate());
     }
+    
+    @Test
+    void testExtractDocumentMetadata() {
+        org.jsoup.nodes.Document doc = org.jsoup.Jsoup.parse(
+            "<html><head><title>Doc Title</title></head><body><a class=\"username\">DocUser</a>" +
+            "<time datetime=\"2006-11-18 13:40:00\">Test</time></body></html>");
+        
+        Topic topic = new Topic("test", "Test", "Forum", "http://test.com/f=1", "http://test.com/t=1", "1");
+        extractor.extractDocumentMetadata(topic, doc);
+        
+        assertEquals("DocUser", topic.getAuthor());
+        assertEquals(java.time.LocalDateTime.of(2006, 11, 18, 13, 40), topic.getCreationDate());
+        assertEquals("Doc Title", extractor.extractDocumentTitle(doc));
+    }
 }
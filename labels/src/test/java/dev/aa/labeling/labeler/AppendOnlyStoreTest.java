@@ -0,0 +1,64 @@
+package dev.aa.labeling.labeler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSaveAppendsOnlyNewRows() throws Exception {
+        Path file = tempDir.resolve("nested").resolve("store.tsv");
+        AppendOnlyStore store = new AppendOnlyStore(file);
+        store.add("ru", "карпа", "карп");
+        assertEquals(1, store.save());
+        store.add("ru", "щуки", "щука");
+        assertEquals(1, store.save());
+        assertEquals(0, store.save());
+
+        assertEquals(List.of("ru\tкарпа\tкарп", "ru\tщуки\tщука"), Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testReadSkipsCommentsAndOtherWidths() throws Exception {
+        Path file = tempDir.resolve("store.tsv");
+        Files.write(file, List.of("# header", "a\tb", "", "a\tb\tc", "d\te"), StandardCharsets.UTF_8);
+        List<String> firsts = new ArrayList<>();
+
+        int rows = new AppendOnlyStore(file).read(2, parts -> firsts.add(parts[0]));
+
+        assertEquals(2, rows);
+        assertEquals(List.of("a", "d"), firsts);
+    }
+
+    @Test
+    void testRewriteReplacesFileAndKeepsPending() throws Exception {
+        Path file = tempDir.resolve("store.tsv");
+        AppendOnlyStore store = new AppendOnlyStore(file);
+        store.add("old", "1");
+        store.save();
+        store.add("new", "3");
+
+        store.rewrite(List.<String[]>of(new String[] {"kept", "2"}));
+        store.save();
+
+        assertEquals(List.of("kept\t2", "new\t3"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(tempDir.resolve("store.tsv.tmp")));
+    }
+
+    @Test
+    void testBloatedRule() {
+        assertTrue(AppendOnlyStore.isBloated(21, 10));
+        assertFalse(AppendOnlyStore.isBloated(20, 10));
+    }
+}
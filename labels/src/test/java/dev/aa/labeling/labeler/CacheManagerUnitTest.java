@@ -3,7 +3,9 @@ package dev.aa.labeling.labeler;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -71,4 +73,65 @@ class CacheManagerUnitTest {
         assertEquals(0, manager.getTermsSeenCount());
         assertEquals(0, manager.getLemmasSeenCount());
     }
+
+    @Test
+    void testSaveAppendsOnlyNewEntriesToJournal() throws Exception {
+        Path termsPath = tempDir.resolve("terms.txt");
+        Path lemmasPath = tempDir.resolve("lemmas.txt");
+        
+        CacheManager manager = new CacheManager(termsPath, lemmasPath);
+        manager.addTerm("карп");
+        manager.save();
+        manager.addTerm("карп");
+        manager.addTerm("сом");
+        manager.save();
+        manager.save();
+        
+        assertEquals(List.of("карп", "сом"), Files.readAllLines(tempDir.resolve("terms.txt.journal")));
+        assertFalse(Files.exists(termsPath));
+    }
+
+    @Test
+    void testCompactionWritesSortedSnapshot() throws Exception {
+        Path termsPath = tempDir.resolve("terms.txt");
+        Path lemmasPath = tempDir.resolve("lemmas.txt");
+        Files.writeString(termsPath, "щука\n");
+        
+        CacheManager manager = new CacheManager(termsPath, lemmasPath);
+        manager.load();
+        for (int i = 0; i < 1_000; i++) {
+            manager.addTerm(String.format("term%04d", 999 - i));
+        }
+        manager.close();
+        
+        List<String> snapshot = Files.readAllLines(termsPath);
+        assertEquals(1_001, snapshot.size());
+        assertEquals("term0000", snapshot.get(0));
+        assertEquals("щука", snapshot.get(1_000));
+        assertFalse(Files.exists(tempDir.resolve("terms.txt.journal")));
+        assertFalse(Files.exists(tempDir.resolve("terms.txt.journal.compacting")));
+        
+        manager.addTerm("сом");
+        manager.close();
+        CacheManager reloaded = new CacheManager(termsPath, lemmasPath);
+        reloaded.load();
+        assertEquals(1_002, reloaded.getTermsSeenCount());
+        assertTrue(reloaded.containsTerm("сом"));
+    }
+
+    @Test
+    void testNullEntriesAreIgnored() throws Exception {
+        Path termsPath = tempDir.resolve("terms.txt");
+        Path lemmasPath = tempDir.resolve("lemmas.txt");
+        
+        CacheManager manager = new CacheManager(termsPath, lemmasPath);
+        manager.addTerm(null);
+        manager.addLemma(null);
+        manager.addLemma("карп");
+        manager.save();
+        manager.close();
+        
+        assertEquals(0, manager.getTermsSeenCount());
+        assertEquals(List.of("карп"), Files.readAllLines(lemmasPath));
+    }
 }
@@ -0,0 +1,126 @@
+package dev.aa.labeling.labeler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingLemmatizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<String> calls = new ArrayList<>();
+    private final Map<String, String> lemmas = Map.of("карпов", "карп", "щукой", "щука", "лещи", "лещ");
+
+    private Lemmatizer recording() {
+        return word -> {
+            calls.add(word);
+            return lemmas.get(word);
+        };
+    }
+
+    @Test
+    void testRepeatedFormsServedFromMemory() {
+        CachingLemmatizer cache = new CachingLemmatizer(recording(), "ru", null, 100);
+
+        assertEquals("карп", cache.lemmatize("Карпов"));
+        assertEquals("карп", cache.lemmatize("карпов"));
+        assertEquals("карп", cache.lemmatize("КАРПОВ"));
+
+        assertEquals(List.of("карпов"), calls);
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testFailedLookupsNotRemembered() {
+        CachingLemmatizer cache = new CachingLemmatizer(recording(), "ru", null, 100);
+
+        assertNull(cache.lemmatize("окунь"));
+        assertNull(cache.lemmatize("окунь"));
+
+        assertEquals(2, calls.size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEvicted() {
+        CachingLemmatizer cache = new CachingLemmatizer(recording(), "ru", null, 2);
+
+        cache.lemmatize("карпов");
+        cache.lemmatize("щукой");
+        cache.lemmatize("карпов");
+        cache.lemmatize("лещи");
+        calls.clear();
+        cache.lemmatize("карпов");
+        cache.lemmatize("щукой");
+
+        assertEquals(List.of("щукой"), calls);
+        assertEquals(2, cache.size());
+        assertTrue(cache.getEvictions() >= 1);
+    }
+
+    @Test
+    void testStoreReloadedInNextRun() throws Exception {
+        Path store = tempDir.resolve("lemma_cache.tsv");
+        CachingLemmatizer first = new CachingLemmatizer(recording(), "ru", store, 100);
+        first.load();
+        first.lemmatize("карпов");
+        first.lemmatize("щукой");
+        first.save();
+
+        calls.clear();
+        CachingLemmatizer second = new CachingLemmatizer(recording(), "ru", store, 100);
+        second.load();
+
+        assertEquals("карп", second.lemmatize("карпов"));
+        assertEquals("щука", second.lemmatize("щукой"));
+        assertTrue(calls.isEmpty());
+        assertEquals(2, Files.readAllLines(store).size());
+    }
+
+    @Test
+    void testStoreKeyedByLanguage() throws Exception {
+        Path store = tempDir.resolve("lemma_cache.tsv");
+        Files.writeString(store, "he\tкарпов\tother\n");
+
+        CachingLemmatizer cache = new CachingLemmatizer(recording(), "ru", store, 100);
+        cache.load();
+
+        assertEquals("карп", cache.lemmatize("карпов"));
+        assertEquals(List.of("карпов"), calls);
+    }
+
+    @Test
+    void testBatchPassesOnlyMisses() {
+        List<List<String>> batches = new ArrayList<>();
+        Lemmatizer batching = new Lemmatizer() {
+            @Override
+            public String lemmatize(String word) {
+                return lemmas.get(word);
+            }
+
+            @Override
+            public Map<String, String> lemmatizeAll(Collection<String> words) {
+                batches.add(List.copyOf(words));
+                return Lemmatizer.super.lemmatizeAll(words);
+            }
+        };
+        CachingLemmatizer cache = new CachingLemmatizer(batching, "ru", null, 100);
+        cache.lemmatize("карпов");
+
+        Map<String, String> result = cache.lemmatizeAll(List.of("карпов", "щукой", "лещи", "окунь", "щукой"));
+
+        assertEquals(Map.of("карпов", "карп", "щукой", "щука", "лещи", "лещ"), result);
+        assertEquals(List.of(List.of("щукой", "лещи", "окунь")), batches);
+        assertEquals("щука", cache.lemmatize("щукой"));
+    }
+}
@@ -48,6 +48,16 @@ class DictionaryLoaderTest {
         assertFalse(dictionary.isEmpty());
     }
 
+    @Test
+    void testLoadDictionaries_DuplicateNamesRejected() {
+        DictionaryLoader loader = new DictionaryLoader(new ObjectMapper());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+            loader.loadDictionarySet(List.of("ru/species_dict.json", "he/species_dict.json"), "ru")
+        );
+        assertTrue(e.getMessage().contains("'species'"));
+    }
+
     @Test
     void testLoadDictionaries_FindsCanonical() {
         DictionaryLoader loader = new DictionaryLoader(new ObjectMapper());
@@ -0,0 +1,99 @@
+package dev.aa.labeling.labeler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DictionaryMatcherTest {
+
+    private static DictionaryEntry entry(String uid, String canonical, String... variants) {
+        List<DictValue> values = new java.util.ArrayList<>();
+        values.add(new DictValue(canonical, "CANONICAL"));
+        for (String variant : variants) {
+            values.add(new DictValue(variant, "VARIANT"));
+        }
+        return new DictionaryEntry(uid, values);
+    }
+
+    @Test
+    void testFindsAllEntriesInOnePass() {
+        DictionaryMatcher matcher = new DictionaryMatcher(List.of(
+            entry("1", "карп", "сазан"),
+            entry("2", "щука")
+        ), "specie");
+
+        List<Candidate> candidates = matcher.findCandidates("Поймал карпа, сазана, а щука сорвалась");
+
+        assertEquals(3, candidates.size());
+        assertEquals("карпа", candidates.get(0).surface());
+        assertEquals("сазана", candidates.get(1).surface());
+        assertEquals("щука", candidates.get(2).surface());
+        assertEquals("specie", candidates.get(0).entryType());
+        assertEquals("щука", candidates.get(2).canonical());
+    }
+
+    @Test
+    void testExpandsToWordBoundaries() {
+        DictionaryMatcher matcher = new DictionaryMatcher(List.of(entry("1", "сом")), "specie");
+
+        List<Candidate> candidates = matcher.findCandidates("Большой сомик");
+
+        assertEquals(1, candidates.size());
+        Candidate candidate = candidates.get(0);
+        assertEquals("сомик", candidate.surface());
+        assertEquals(8, candidate.start());
+        assertEquals(13, candidate.end());
+    }
+
+    @Test
+    void testCaseInsensitivePreservesSurface() {
+        DictionaryMatcher matcher = new DictionaryMatcher(List.of(entry("1", "Карп")), "specie");
+
+        List<Candidate> candidates = matcher.findCandidates("КАРП и карп");
+
+        assertEquals(2, candidates.size());
+        assertEquals("КАРП", candidates.get(0).surface());
+        assertEquals("карп", candidates.get(1).surface());
+    }
+
+    @Test
+    void testOverlappingValuesReportedPerValue() {
+        DictionaryMatcher matcher = new DictionaryMatcher(List.of(
+            entry("1", "морской окунь"),
+            entry("2", "окунь")
+        ), "specie");
+
+        List<Candidate> candidates = matcher.findCandidates("морской окунь клюет");
+
+        assertEquals(2, candidates.size());
+        assertEquals("морской окунь", candidates.get(0).surface());
+        assertEquals("окунь", candidates.get(1).surface());
+    }
+
+    @Test
+    void testSameValueDoesNotOverlapItself() {
+        DictionaryMatcher matcher = new DictionaryMatcher(List.of(entry("1", "аа")), "specie");
+
+        assertEquals(1, matcher.findCandidates("ааа").size());
+    }
+
+    @Test
+    void testSkipsEntriesWithoutCanonical() {
+        DictionaryEntry noCanonical = new DictionaryEntry("1", List.of(new DictValue("карп", "VARIANT")));
+        DictionaryMatcher matcher = new DictionaryMatcher(List.of(noCanonical), "specie");
+
+        assertTrue(matcher.isEmpty());
+        assertTrue(matcher.findCandidates("карп").isEmpty());
+    }
+
+    @Test
+    void testNoHit() {
+        DictionaryMatcher matcher = new DictionaryMatcher(List.of(entry("1", "карп")), "specie");
+
+        assertTrue(matcher.findCandidates("Хорошая погода").isEmpty());
+        assertTrue(matcher.findCandidates("").isEmpty());
+        assertTrue(matcher.findCandidates(null).isEmpty());
+    }
+}
@@ -0,0 +1,48 @@
+package dev.aa.labeling.labeler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedRussianLemmatizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final Map<String, String> LEMMAS = Map.of("карпов", "карп", "щукой", "щука");
+
+    private static EmbeddedRussianLemmatizer lemmatizer() {
+        return new EmbeddedRussianLemmatizer(word -> LEMMAS.getOrDefault(word.toString(), ""));
+    }
+
+    @Test
+    void testLemmatizesWithModel() {
+        assertEquals("карп", lemmatizer().lemmatize("карпов"));
+        assertEquals("щука", lemmatizer().lemmatize("щукой"));
+    }
+
+    @Test
+    void testWordKeptWhenModelHasNoLemma() {
+        assertEquals("лещ", lemmatizer().lemmatize("лещ"));
+    }
+
+    @Test
+    void testEmptyWordReturnedAsIs() {
+        assertEquals("", lemmatizer().lemmatize(""));
+        assertNull(lemmatizer().lemmatize(null));
+    }
+
+    @Test
+    void testLoadRejectsInvalidModelFile() throws IOException {
+        Path modelFile = tempDir.resolve("ru.lem");
+        Files.writeString(modelFile, "not a model");
+
+        assertThrows(IOException.class, () -> EmbeddedRussianLemmatizer.load(modelFile));
+    }
+}
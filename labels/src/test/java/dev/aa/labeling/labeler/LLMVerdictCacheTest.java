@@ -0,0 +1,67 @@
+package dev.aa.labeling.labeler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LLMVerdictCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Clock at(String instant) {
+        return Clock.fixed(Instant.parse(instant), ZoneOffset.UTC);
+    }
+
+    @Test
+    void testRemembersTrueAndFalseAcrossRuns() throws Exception {
+        Path store = tempDir.resolve("verdicts.tsv");
+        LLMVerdictCache cache = new LLMVerdictCache(store, null);
+        cache.put("isFormOf", "v1", "карпов", "карп", "specie", true);
+        cache.put("isFormOf", "v1", "карпятник", "карп", "specie", false);
+        cache.save();
+
+        LLMVerdictCache reloaded = new LLMVerdictCache(store, null);
+        reloaded.load();
+
+        assertEquals(Boolean.TRUE, reloaded.get("isFormOf", "v1", "карпов", "карп", "specie"));
+        assertEquals(Boolean.FALSE, reloaded.get("isFormOf", "v1", "карпятник", "карп", "specie"));
+        assertNull(reloaded.get("isFormOf", "v1", "карпов", "карп", "method"));
+        assertEquals(2, reloaded.getHits());
+        assertEquals(1, reloaded.getMisses());
+    }
+
+    @Test
+    void testOtherVersionIsAMiss() {
+        LLMVerdictCache cache = new LLMVerdictCache(null, null);
+        cache.put("isRelevantType", "v1", "сом", "Поймал сома\tна донку.", "specie", true);
+
+        assertEquals(Boolean.TRUE, cache.get("isRelevantType", "v1", "сом", "Поймал сома на донку.", "specie"));
+        assertNull(cache.get("isRelevantType", "v2", "сом", "Поймал сома на донку.", "specie"));
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    void testExpiredVerdictsAreDropped() throws Exception {
+        Path store = tempDir.resolve("verdicts.tsv");
+        LLMVerdictCache cache = new LLMVerdictCache(store, Duration.ofDays(1), at("2026-01-01T00:00:00Z"));
+        cache.put("isFormOf", "v1", "карпов", "карп", "specie", true);
+        cache.save();
+
+        LLMVerdictCache sameDay = new LLMVerdictCache(store, Duration.ofDays(1), at("2026-01-01T12:00:00Z"));
+        sameDay.load();
+        assertEquals(1, sameDay.size());
+
+        LLMVerdictCache later = new LLMVerdictCache(store, Duration.ofDays(1), at("2026-01-03T00:00:00Z"));
+        later.load();
+        assertEquals(0, later.size());
+        assertNull(later.get("isFormOf", "v1", "карпов", "карп", "specie"));
+    }
+}
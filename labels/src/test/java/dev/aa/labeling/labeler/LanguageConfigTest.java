@@ -77,4 +77,9 @@ class LanguageConfigTest {
         LanguageConfig config = LanguageConfig.forLanguage("RU");
         assertNotNull(config.getSentencePattern());
     }
+
+    @Test
+    void testForLanguageSharesOneConfigPerLanguage() {
+        assertSame(LanguageConfig.forLanguage("RU"), LanguageConfig.forLanguage("ru"));
+    }
 }
@@ -77,4 +77,33 @@ class LemmatizerFactoryTest {
         Lemmatizer lemmatizer = LemmatizerFactory.createLemmatizer("");
         assertTrue(lemmatizer instanceof NoOpLemmatizer);
     }
+
+    @Test
+    void testCreateRussianLemmatizer_httpBackend() {
+        Lemmatizer lemmatizer = LemmatizerFactory.createLemmatizer("ru", LemmatizerFactory.RussianBackend.HTTP);
+        assertTrue(lemmatizer instanceof RussianLemmatizer);
+    }
+
+    @Test
+    void testCreateRussianLemmatizer_embeddedWithoutModelFails() {
+        // No model file is available to the tests
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> LemmatizerFactory.createLemmatizer("ru", LemmatizerFactory.RussianBackend.EMBEDDED));
+        assertTrue(e.getMessage().contains("EMBEDDED"));
+    }
+
+    @Test
+    void testRussianBackendOf() {
+        assertEquals(LemmatizerFactory.RussianBackend.AUTO, LemmatizerFactory.RussianBackend.of(null));
+        assertEquals(LemmatizerFactory.RussianBackend.HTTP, LemmatizerFactory.RussianBackend.of("http"));
+        assertThrows(IllegalArgumentException.class, () -> LemmatizerFactory.RussianBackend.of("python"));
+    }
+
+    @Test
+    void testUsesRussianService() {
+        // No model file is available to the tests, so AUTO falls back to the service
+        assertTrue(LemmatizerFactory.usesRussianService(LemmatizerFactory.RussianBackend.HTTP));
+        assertTrue(LemmatizerFactory.usesRussianService(LemmatizerFactory.RussianBackend.AUTO));
+        assertFalse(LemmatizerFactory.usesRussianService(LemmatizerFactory.RussianBackend.EMBEDDED));
+    }
 }
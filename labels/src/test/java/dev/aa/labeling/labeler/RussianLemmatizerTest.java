@@ -0,0 +1,94 @@
+package dev.aa.labeling.labeler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RussianLemmatizerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private HttpServer server;
+    private String baseUrl;
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/lemmas", exchange -> {
+            JsonNode words = MAPPER.readTree(exchange.getRequestBody()).get("words");
+            batchSizes.add(words.size());
+            Map<String, String> lemmas = new LinkedHashMap<>();
+            for (JsonNode word : words) {
+                if (!word.asText().equals("окунь")) {
+                    lemmas.put(word.asText(), word.asText() + "-lemma");
+                }
+            }
+            send(exchange, 200, MAPPER.writeValueAsBytes(lemmas));
+        });
+        server.createContext("/broken", exchange -> send(exchange, 500, new byte[0]));
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private static void send(com.sun.net.httpserver.HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    void testLemmatizeAllSplitsIntoBatches() {
+        RussianLemmatizer lemmatizer = new RussianLemmatizer(baseUrl + "/lemma", baseUrl + "/lemmas", 3, 2);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            words.add("слово" + i);
+        }
+        words.add("слово0");
+
+        Map<String, String> lemmas = lemmatizer.lemmatizeAll(words);
+
+        assertEquals(10, lemmas.size());
+        assertEquals("слово7-lemma", lemmas.get("слово7"));
+        assertEquals(List.of(1, 3, 3, 3), batchSizes.stream().sorted().toList());
+    }
+
+    @Test
+    void testWordsWithoutLemmaLeftOut() {
+        RussianLemmatizer lemmatizer = new RussianLemmatizer(baseUrl + "/lemma", baseUrl + "/lemmas", 50, 1);
+
+        Map<String, String> lemmas = lemmatizer.lemmatizeAll(List.of("карпы", "окунь"));
+
+        assertEquals(Map.of("карпы", "карпы-lemma"), lemmas);
+    }
+
+    @Test
+    void testFailedBatchReturnsNoLemmas() {
+        RussianLemmatizer lemmatizer = new RussianLemmatizer(baseUrl + "/lemma", baseUrl + "/broken", 50, 1);
+
+        assertTrue(lemmatizer.lemmatizeAll(List.of("карпы", "щуки")).isEmpty());
+    }
+}
@@ -0,0 +1,42 @@
+package dev.aa.labeling.labeler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptClassifierTest {
+
+    @Test
+    void testCountMatchesWordPattern() {
+        String alphabet = "абвЁёaZzקש 1,.Ԁӿ֐׿Ω";
+        Random random = new Random(11);
+        for (int round = 0; round < 5_000; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = 1 + random.nextInt(30);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            for (LanguageConfig.Language language : LanguageConfig.Language.values()) {
+                int regexCount = 0;
+                Matcher matcher = LanguageConfig.forLanguage(language.name()).getWordPattern().matcher(text);
+                while (matcher.find()) {
+                    regexCount += matcher.group().length();
+                }
+                assertEquals(regexCount, ScriptClassifier.count(text, 0, text.length(), language), text::toString);
+            }
+        }
+    }
+
+    @Test
+    void testTargetLanguageCheckOnSpan() {
+        LanguageConfig config = LanguageConfig.forLanguage("RU");
+        String text = "Hello world. Поймал карпа.";
+
+        assertFalse(config.isTargetLanguageSentence(text, 0, 11));
+        assertTrue(config.isTargetLanguageSentence(text, 13, text.length()));
+        assertFalse(config.isTargetLanguageSentence(text, 5, 5));
+    }
+}
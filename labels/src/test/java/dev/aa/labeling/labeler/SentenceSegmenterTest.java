@@ -0,0 +1,72 @@
+package dev.aa.labeling.labeler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SentenceSegmenterTest {
+
+    private final SentenceSegmenter segmenter = new SentenceSegmenter();
+
+    /** The regex pipeline the segmenter replaces. */
+    private static List<String> regexSentences(String text, LanguageConfig.Language language) {
+        String normalized = text.replaceAll("[\r\n]", " ")
+            .replaceAll("([.,!?;:])([^\s])", "$1 $2")
+            .replaceAll("\\s+", " ")
+            .trim();
+        return Arrays.asList(Pattern.compile(language.getSentencePattern()).split(normalized));
+    }
+
+    private List<String> segmented(String text, LanguageConfig.Language language) {
+        List<String> sentences = new ArrayList<>();
+        int count = segmenter.segment(text, language);
+        for (int i = 0; i < count; i++) {
+            sentences.add(segmenter.sentence(i));
+        }
+        return sentences;
+    }
+
+    @Test
+    void testSplitsOnTerminatorBeforeCapital() {
+        assertEquals(List.of("Поймал карпа", " Клевало с утра", " Потом нет"),
+            segmented("Поймал карпа.\nКлевало с утра! Потом нет.", LanguageConfig.Language.RU));
+        assertEquals(List.of("Клевало! ! а потом нет"),
+            segmented("Клевало!! а потом нет", LanguageConfig.Language.RU));
+    }
+
+    @Test
+    void testNormalizesPunctuationSpacing() {
+        assertEquals(List.of("Крючок, поводок; леска: всё"),
+            segmented("  Крючок,поводок;леска:\tвсё  ", LanguageConfig.Language.RU));
+    }
+
+    @Test
+    void testLeadingTerminatorKeepsEmptySentence() {
+        assertEquals(List.of("", " Hello"), segmented("! Hello.", LanguageConfig.Language.EN));
+        assertEquals(List.of(), segmented("?", LanguageConfig.Language.EN));
+        assertEquals(List.of(""), segmented("   ", LanguageConfig.Language.EN));
+    }
+
+    @Test
+    void testSameSentencesAsRegexPipeline() {
+        String alphabet = "абвгдАБВГДЁёabcXYZאב .,!?;:\t\n\r\u000B\f\u0001\u0085 ";
+        Random random = new Random(7);
+        for (int round = 0; round < 20_000; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            for (LanguageConfig.Language language : LanguageConfig.Language.values()) {
+                assertEquals(regexSentences(text.toString(), language), segmented(text.toString(), language),
+                    () -> language + " " + text.toString().chars().mapToObj(c -> String.format("\\u%04x", c)).toList());
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dev.aa.labeling.labeler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SentenceTokensTest {
+
+    @Test
+    void testWidensHitToWholeWord() {
+        SentenceTokens tokens = SentenceTokens.of("Поймал карпа, 5кг.");
+
+        assertEquals(7, tokens.wordStart(7));
+        assertEquals(12, tokens.wordEnd(11));
+        assertEquals(14, tokens.wordStart(15));
+        assertEquals(17, tokens.wordEnd(17));
+        assertTrue(tokens.isWordBoundary(7, true));
+        assertFalse(tokens.isWordBoundary(11, false));
+        assertEquals('к', tokens.lowerCharAt(7));
+    }
+
+    @Test
+    void testLabelStartingTokenMapsToPreviousToken() {
+        SentenceTokens tokens = SentenceTokens.of("ловлю  карпа на кукурузу");
+
+        assertEquals(4, tokens.tokenCount());
+        assertEquals(0, tokens.tokenIndexAt(0));
+        assertEquals(0, tokens.tokenIndexAt(7));
+        assertEquals(1, tokens.tokenIndexAt(8));
+        assertEquals("карпа на", tokens.join(1, 3));
+    }
+
+    @Test
+    void testMatchesSplitBasedLogic() {
+        String alphabet = "аб cZ9,.-\t ";
+        Random random = new Random(5);
+        for (int round = 0; round < 5_000; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = 1 + random.nextInt(25);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String sentence = text.toString().trim();
+            if (sentence.isEmpty()) {
+                continue;
+            }
+            SentenceTokens tokens = SentenceTokens.of(sentence);
+            String[] words = sentence.split("\\s+");
+            assertEquals(words.length, tokens.tokenCount(), sentence);
+            assertEquals(String.join(" ", words), tokens.join(0, tokens.tokenCount()), sentence);
+
+            for (int position = 0; position <= sentence.length(); position++) {
+                int expectedIndex = position <= 0 ? 0 : sentence.substring(0, position).split("\\s+").length - 1;
+                assertEquals(expectedIndex, tokens.tokenIndexAt(position), sentence + " @" + position);
+
+                int start = position;
+                while (start > 0 && Character.isLetterOrDigit(sentence.charAt(start - 1))) {
+                    start--;
+                }
+                int end = position;
+                while (end < sentence.length() && Character.isLetterOrDigit(sentence.charAt(end))) {
+                    end++;
+                }
+                assertEquals(start, tokens.wordStart(position), sentence + " @" + position);
+                assertEquals(end, tokens.wordEnd(position), sentence + " @" + position);
+            }
+        }
+    }
+}
@@ -8,7 +8,10 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -298,4 +301,94 @@ class SentencesLabelerIntegrationTest {
         
         assertTrue(dataLines >= 2, "Should have at least 2 data lines (карп x2, сазан)");
     }
+
+    @Test
+    void testMultipleDictionariesSinglePass() throws Exception {
+        Path outputDir = tempDir.resolve("output_dicts");
+        String speciesPath = Constants.DEFAULT_DICTIONARY_PATH;
+        String methodsPath = "dictionaries/methods_dict.json";
+        
+        LabelerConfiguration config = new LabelerConfiguration(
+            true, 15, 200, 0.3, 0.2,
+            List.of(speciesPath, methodsPath),
+            tempDir.resolve("data"),
+            outputDir,
+            "test.jsonl",
+            "ru",
+            "test_forum",
+            0,
+            null
+        );
+        
+        Map<String, OutputWriter> writers = new LinkedHashMap<>();
+        writers.put(speciesPath, new OutputWriter(outputDir, "species.txt"));
+        writers.put(methodsPath, new OutputWriter(outputDir, "methods.txt"));
+        SentencesLabeler labeler = SentencesLabeler.withDictionaryWriters(config, writers, null, new NoOpLemmatizer());
+        
+        Topic topic = new Topic("test", "Test", "Test", "http://example.com/forum1", "http://example.com/topic1", "1");
+        topic.setContent("Вчера я поймал карп на фидер у берега.");
+        topic.setLanguage("RU");
+        
+        labeler.processTopic(topic);
+        labeler.close();
+        
+        String species = Files.readString(outputDir.resolve("species_valid.txt"));
+        String methods = Files.readString(outputDir.resolve("methods_valid.txt"));
+        
+        assertTrue(species.contains("\"canonical\" : \"карп\""), "Species stream should contain карп");
+        assertFalse(species.contains("\"canonical\" : \"фидер\""), "Species stream should not contain methods");
+        assertTrue(methods.contains("\"canonical\" : \"фидер\""), "Methods stream should contain фидер");
+        assertFalse(methods.contains("\"canonical\" : \"карп\""), "Methods stream should not contain species");
+        assertEquals(2, labeler.getResult().getTotalSentences());
+        assertTrue(labeler.isStreaming());
+        assertTrue(labeler.getResult().sentences().isEmpty(), "Streaming labeler should not keep written sentences");
+    }
+
+    @Test
+    void testLLMAcceptWithFailingLemmatizerSavesCache() throws Exception {
+        Path outputDir = tempDir.resolve("output_llm");
+        
+        LabelerConfiguration config = new LabelerConfiguration(
+            true, 15, 200, 0.3, 0.2,
+            List.of(Constants.DEFAULT_DICTIONARY_PATH),
+            tempDir.resolve("data"),
+            outputDir,
+            "test.jsonl",
+            "ru",
+            "test_forum",
+            0,
+            null
+        );
+        
+        List<String> asked = new ArrayList<>();
+        LLMAdapter acceptingLLM = new LLMAdapter() {
+            @Override
+            public boolean isFormOf(String key, String candidate, String language, String entryType) {
+                asked.add(key);
+                return true;
+            }
+            
+            @Override
+            public boolean isRelevantType(String term, String sentence, String entryType, int start, int end) {
+                return true;
+            }
+        };
+        Lemmatizer failingLemmatizer = word -> null;
+        
+        OutputWriter writer = new OutputWriter(outputDir, "test.txt");
+        SentencesLabeler labeler = SentencesLabeler.withLLMAdapter(config, writer, acceptingLLM, failingLemmatizer);
+        
+        Topic topic = new Topic("test", "Test", "Test", "http://example.com/forum1", "http://example.com/topic1", "1");
+        topic.setContent("Вчера я поймал сазанка на фидер у берега.");
+        topic.setLanguage("RU");
+        
+        labeler.processTopic(topic);
+        labeler.close();
+        
+        assertEquals(List.of("сазанка"), asked);
+        assertEquals(1, labeler.getLookupTiers().get(LookupTierCounts.Tier.LLM_ACCEPT));
+        Path forumDataDir = tempDir.resolve("data").resolve("test_forum");
+        assertTrue(Files.readString(forumDataDir.resolve("terms_seen.txt")).contains("сазанка"));
+        assertFalse(Files.readString(forumDataDir.resolve("lemmas_seen.txt")).contains("null"));
+    }
 }
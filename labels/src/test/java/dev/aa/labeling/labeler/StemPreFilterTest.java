@@ -0,0 +1,58 @@
+package dev.aa.labeling.labeler;
+
+import org.junit.jupiter.api.Test;
+
+import static dev.aa.labeling.labeler.StemPreFilter.Verdict.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StemPreFilterTest {
+
+    private final StemPreFilter filter = new StemPreFilter();
+
+    @Test
+    void testInflectedFormsAccepted() {
+        assertEquals(ACCEPT, filter.check("карпами", "карп"));
+        assertEquals(ACCEPT, filter.check("плотву", "плотва"));
+        assertEquals(ACCEPT, filter.check("окуней", "окунь"));
+    }
+
+    @Test
+    void testMultiWordValueComparedWordByWord() {
+        assertEquals(ACCEPT, filter.check("серебряного карася", "серебряный карась"));
+        assertEquals(UNSURE, filter.check("серебряный карась крупный", "серебряный карась"));
+    }
+
+    @Test
+    void testOtherDeclensionWithSameStemLeftToLemmatizer() {
+        // Adjective сырой ("raw") stems to сыр (cheese), line линия to лин like линь (tench)
+        for (String surface : new String[] {"сырой", "сырая", "сырые", "сырого"}) {
+            assertEquals(UNSURE, filter.check(surface, "сыр"), surface);
+        }
+        for (String surface : new String[] {"линия", "линии", "линию"}) {
+            assertEquals(UNSURE, filter.check(surface, "линь"), surface);
+        }
+        assertEquals(UNSURE, filter.check("жерехой", "жерех"));
+    }
+
+    @Test
+    void testShortStemLeftToLemmatizer() {
+        assertEquals(UNSURE, filter.check("сыра", "сыр"));
+        assertEquals(UNSURE, filter.check("щуку", "щука"));
+        assertEquals(UNSURE, filter.check("белого амура", "белый амур"));
+    }
+
+    @Test
+    void testDerivedWordRejected() {
+        assertEquals(REJECT, filter.check("сомнение", "сом"));
+    }
+
+    @Test
+    void testLeftExtensionRejected() {
+        assertEquals(REJECT, filter.check("скарпа", "карп"));
+    }
+
+    @Test
+    void testShortSuffixLeftToLemmatizer() {
+        assertEquals(UNSURE, filter.check("карпик", "карп"));
+    }
+}
@@ -0,0 +1,155 @@
+package dev.aa.labeling.mains;
+
+import dev.aa.labeling.util.HtmlCleaner;
+import dev.aa.labeling.util.HtmlCleanerReference;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * Compares the single-walk post cleanup against the original one-select-per-rule removal,
+ * and the streaming post text builder against the regex pipeline, on a synthetic long topic
+ * (or a saved page). Checks both variants give the same result before timing them. Lives with
+ * the tests, next to the reference versions; run it from the test classpath.
+ */
+public class HtmlCleanerBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && (args[0].equals("-h") || args[0].equals("--help"))) {
+            System.out.println("Usage: java HtmlCleanerBenchmark [posts | page.html]");
+            System.out.println("  posts     : number of posts in the synthetic topic (default 300)");
+            System.out.println("  page.html : a saved topic page to clean instead");
+            return;
+        }
+
+        String html;
+        if (args.length > 0 && Files.isRegularFile(Path.of(args[0]))) {
+            html = Files.readString(Path.of(args[0]));
+            System.out.println("Page: " + args[0]);
+        } else {
+            int posts = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+            html = syntheticTopic(posts);
+            System.out.println("Synthetic topic: " + posts + " posts, " + html.length() / 1024 + " KB");
+        }
+
+        String reference = removeAll(html, HtmlCleanerReference::removeWithSelectors);
+        String planned = removeAll(html, HtmlCleaner::removeNoise);
+        if (!reference.equals(planned)) {
+            System.err.println("Output differs between selector and single-walk removal");
+            System.exit(1);
+        }
+        System.out.println("Output identical");
+
+        double selectorsMs = measure(html, HtmlCleanerReference::removeWithSelectors);
+        double planMs = measure(html, HtmlCleaner::removeNoise);
+        System.out.printf(Locale.ROOT, "Per-selector removal: %.2f ms/topic%n", selectorsMs);
+        System.out.printf(Locale.ROOT, "Single-walk removal:  %.2f ms/topic%n", planMs);
+        System.out.printf(Locale.ROOT, "Speedup: %.1fx%n", selectorsMs / planMs);
+
+        Elements cleaned = posts(Jsoup.parse(html));
+        cleaned.forEach(HtmlCleaner::removeNoise);
+        if (!appendAll(cleaned, HtmlCleanerReference::appendPostTextWithRegex).equals(appendAll(cleaned, HtmlCleaner::appendPostText))) {
+            System.err.println("Output differs between regex and streaming post text");
+            System.exit(1);
+        }
+        long[] regex = measureText(cleaned, HtmlCleanerReference::appendPostTextWithRegex);
+        long[] streaming = measureText(cleaned, HtmlCleaner::appendPostText);
+        System.out.printf(Locale.ROOT, "Regex post text:     %.2f ms/topic, %d KB allocated%n", regex[0] / 1e6, regex[1] / 1024);
+        System.out.printf(Locale.ROOT, "Streaming post text: %.2f ms/topic, %d KB allocated%n", streaming[0] / 1e6, streaming[1] / 1024);
+        System.out.printf(Locale.ROOT, "Speedup: %.1fx, allocation %.1fx lower%n",
+            (double) regex[0] / streaming[0], (double) regex[1] / Math.max(1, streaming[1]));
+    }
+
+    private static String appendAll(Elements posts, BiPredicate<Element, StringBuilder> append) {
+        StringBuilder content = new StringBuilder();
+        for (Element post : posts) {
+            append.test(post, content);
+        }
+        return content.toString();
+    }
+
+    /** Average nanoseconds and bytes allocated per topic (bytes need a HotSpot JVM, otherwise 0). */
+    private static long[] measureText(Elements posts, BiPredicate<Element, StringBuilder> append) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            appendAll(posts, append);
+        }
+        StringBuilder content = new StringBuilder(1 << 16);
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            content.setLength(0);
+            for (Element post : posts) {
+                append.test(post, content);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+        return new long[] {nanos / MEASURED_ROUNDS, bytes / MEASURED_ROUNDS};
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static String removeAll(String html, Consumer<Element> removal) {
+        Document document = Jsoup.parse(html);
+        posts(document).forEach(removal);
+        return document.outerHtml();
+    }
+
+    /** Average removal time per topic; parsing is not timed. */
+    private static double measure(String html, Consumer<Element> removal) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            removeAll(html, removal);
+        }
+        long total = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            Elements posts = posts(Jsoup.parse(html));
+            long start = System.nanoTime();
+            posts.forEach(removal);
+            total += System.nanoTime() - start;
+        }
+        return total / 1e6 / MEASURED_ROUNDS;
+    }
+
+    private static Elements posts(Document document) {
+        Elements posts = document.select("div.postbody > div.content");
+        return posts.isEmpty() ? document.select("div.content") : posts;
+    }
+
+    private static String syntheticTopic(int posts) {
+        StringBuilder html = new StringBuilder("<html><body><div class=\"navbar\">Форум » Рыбалка</div>");
+        for (int i = 0; i < posts; i++) {
+            html.append("<div class=\"post\"><div class=\"postbody\"><div class=\"content\">")
+                .append("<blockquote><cite>angler").append(i).append(" wrote:</cite>Где клюёт?</blockquote>")
+                .append("<p>Вчера на рыбалке поймал карпа на кукурузу, клевало с утра до обеда. ")
+                .append("Ловил на фидер, прикормка с конопляным жмыхом, глубина около трёх метров.</p>")
+                .append("<ul><li>Крючок <b>№8</b></li><li>Поводок <i>0.16</i></li></ul>")
+                .append("<a href=\"./viewtopic.php?f=1&t=").append(i).append("\">ссылка</a> ")
+                .append("<a href=\"https://img.example.com/PhotoAlbums/").append(i).append(".jpg\">")
+                .append("<img src=\"thumbnails/").append(i).append(".jpg\"></a>");
+            if (i % 10 == 0) {
+                html.append("<table><tr><td>[img]https://img.example.com/").append(i).append(".png[/img]</td></tr></table>");
+            }
+            html.append("<div class=\"signature\" id=\"sig").append(i).append("\">Удачной рыбалки!</div>")
+                .append("<form><input type=\"text\"><button>Ответить</button></form>")
+                .append("</div></div></div>");
+        }
+        return html.append("<div id=\"jumpbox\">Перейти</div><footer>footer</footer></body></html>").toString();
+    }
+}
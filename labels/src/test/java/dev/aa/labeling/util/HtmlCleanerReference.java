@@ -0,0 +1,109 @@
+package dev.aa.labeling.util;
+
+import org.jsoup.nodes.Element;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The per-selector removal and the regex post text that HtmlCleaner.removeNoise and
+ * HtmlCleaner.appendPostText replaced. Tests and HtmlCleanerBenchmark check the production
+ * versions against these.
+ */
+public final class HtmlCleanerReference {
+
+    private static final Set<String> NAVIGATION_TAGS = Set.of(
+        "nav", "menu", "header", "footer", "aside", "div"
+    );
+
+    private static final Set<String> NAVIGATION_IDS = Set.of(
+        "social", "breadcrumb", "navbar", "pagination", "jumpbox", "action-bar", "back2top", "signature"
+    );
+
+    private static final Set<String> FORM_TAGS = Set.of(
+        "form", "input", "button", "select", "textarea", "option", "label"
+    );
+
+    private static final Set<String> QUOTE_CLASSES = Set.of(
+        "blockquote", "quote"
+    );
+
+    private static final Set<String> NAVIGATION_CLASSES = Set.of(
+        "navbar", "breadcrumb", "pagination", "navlinks"
+    );
+
+    private static final Pattern BBCODE_PATTERN = Pattern.compile(
+        "\\[/?\\w+\\]|\\[img\\].*?\\[/img\\]|\\[url\\].*?\\[/url\\]|\\[table\\].*?\\[/table\\]|\\[td\\].*?\\[/td\\]|\\[tr\\].*?\\[/tr\\]|\\[b\\].*?\\[/b\\]|\\[i\\].*?\\[/i\\]|\\[u\\].*?\\[/u\\]",
+        Pattern.DOTALL
+    );
+
+    private static final Pattern ARROW_SYMBOLS = Pattern.compile("[⇧⇩↧↨↩⇒⇐↔⇑⇓]");
+
+    private HtmlCleanerReference() {
+    }
+
+    /** One subtree walk per rule. */
+    public static void removeWithSelectors(Element post) {
+        removeNavigationElements(post);
+        removeQuoteBlocks(post);
+        removeImageGalleries(post);
+        removeForms(post);
+    }
+
+    /** One new string per step. */
+    public static boolean appendPostTextWithRegex(Element post, StringBuilder content) {
+        String postText = post.text().trim();
+
+        postText = BBCODE_PATTERN.matcher(postText).replaceAll("");
+        postText = ARROW_SYMBOLS.matcher(postText).replaceAll("");
+        postText = postText.replaceAll("[ \t]+", " ");
+        postText = postText.replaceAll("\n{3,}", "\n\n").trim();
+
+        if (postText.length() < 50 || HtmlCleaner.isLikelyNavigation(postText)) {
+            return false;
+        }
+        content.append(postText).append("\n\n");
+        return true;
+    }
+
+    private static void removeNavigationElements(Element element) {
+        for (String tag : NAVIGATION_TAGS) {
+            element.select(tag).remove();
+        }
+
+        for (String cls : NAVIGATION_CLASSES) {
+            element.select("." + cls).remove();
+        }
+
+        for (String id : NAVIGATION_IDS) {
+            element.select("#" + id).remove();
+        }
+
+        element.select("a[href*='viewforum.php']").remove();
+        element.select("a[href*='index.php']").remove();
+        element.select("a[href*='viewtopic.php']").remove();
+    }
+
+    private static void removeQuoteBlocks(Element element) {
+        for (String cls : QUOTE_CLASSES) {
+            element.select(cls).remove();
+        }
+        element.select(".signature").remove();
+        element.select(".notice").remove();
+    }
+
+    private static void removeImageGalleries(Element element) {
+        element.select("table:contains([img]), table:contains(PhotoAlbums)").remove();
+        element.select("a[href*='PhotoAlbums']").remove();
+        element.select("a[href*='.jpg']").remove();
+        element.select("a[href*='.png']").remove();
+        element.select("a[href*='thumbnails']").remove();
+        element.select("img").remove();
+    }
+
+    private static void removeForms(Element element) {
+        for (String tag : FORM_TAGS) {
+            element.select(tag).remove();
+        }
+    }
+}
@@ -176,4 +176,114 @@ class HtmlCleanerTest {
         String result = HtmlCleaner.cleanHtml(html);
         assertEquals("", result);
     }
+    
+    @Test
+    @DisplayName("Should clean an already parsed document the same as raw HTML")
+    void testCleanDocumentMatchesCleanHtml() {
+        String html = """
+            <html><body>
+            <div class="postbody">
+                <div class="content">Post content here with enough text to pass the 50 character minimum filter [b]bold[/b]</div>
+            </div>
+            </body></html>
+            """;
+        
+        assertEquals(HtmlCleaner.cleanHtml(html), HtmlCleaner.cleanDocument(org.jsoup.Jsoup.parse(html)));
+        assertEquals("", HtmlCleaner.cleanDocument(null));
+    }
+    
+    @Test
+    @DisplayName("Single-walk removal should leave the same tree as per-selector removal")
+    void testRemovalPlanMatchesSelectors() {
+        String html = """
+            <html><body>
+            <div class="postbody"><div class="content">
+                Text <span class="Signature">sig</span> <b id="signature">x</b> <b id="Signature">kept</b>
+                <a href="./viewtopic.php?t=1">topic</a> <a href="/img/Fish.JPG">photo</a> <a>no href</a>
+                <blockquote>quoted <i>text</i></blockquote> <quote>q</quote>
+                <table><tr><td><div>[img]inside div[/img]</div> plain cell</td></tr></table>
+                <table><tr><td>see [IMG] here <form><label>x</label></form></td></tr></table>
+                <table><tr><td><button>PhotoAlbums</button></td></tr></table>
+                <table><tr><td><span class="notice">PhotoAlbums</span> ok</td></tr></table>
+                <p class="lead navlinks">nav</p><input value="x"><img src="a.png"> tail
+                <div class="content">nested post <a href="index.php">home</a> <img src="b.png"></div>
+            </div></div>
+            <article class="post"><section>kept <nav>menu</nav></section></article>
+            </body></html>
+            """;
+        org.jsoup.nodes.Document reference = org.jsoup.Jsoup.parse(html);
+        org.jsoup.nodes.Document planned = org.jsoup.Jsoup.parse(html);
+        org.jsoup.select.Elements referencePosts = reference.select("div.content, article.post");
+        org.jsoup.select.Elements plannedPosts = planned.select("div.content, article.post");
+        
+        referencePosts.forEach(HtmlCleanerReference::removeWithSelectors);
+        plannedPosts.forEach(HtmlCleaner::removeNoise);
+        
+        assertEquals(referencePosts.size(), plannedPosts.size());
+        for (int i = 0; i < referencePosts.size(); i++) {
+            assertEquals(referencePosts.get(i).outerHtml(), plannedPosts.get(i).outerHtml());
+        }
+        assertEquals(reference.outerHtml(), planned.outerHtml());
+    }
+    
+    @Test
+    @DisplayName("Streaming post text should match the regex pipeline")
+    void testPostTextMatchesRegexPipeline() {
+        String[] fragments = {
+            "Вчера поймал карпа ", "[b]", "[/b]", "[img]", "[/url]", "[b ]", "[[i]b]", "[/]", "[b⇒]", "⇒", "↧", "↳",
+            " ", "  ", "\t", "\u00a0", "\u200b", "\u00ad", "\r", "&nbsp;", "<br>", "<p>", "</p>", "<div>", "</div>",
+            "<pre>a \n\n\n\n b\t\tc</pre>", "<span>", "</span>", "<i>[</i>", "<b>u]</b>", "\n\n\n", "PhotoAlbums ",
+            "на кукурузу у самого берега озера, клевало с утра и до самого обеда "
+        };
+        java.util.Random random = new java.util.Random(42);
+        for (int round = 0; round < 500; round++) {
+            StringBuilder html = new StringBuilder("<div class=\"content\">");
+            int parts = 1 + random.nextInt(40);
+            for (int i = 0; i < parts; i++) {
+                html.append(fragments[random.nextInt(fragments.length)]);
+            }
+            html.append("</div>");
+            org.jsoup.nodes.Element post = org.jsoup.Jsoup.parse(html.toString()).selectFirst("div.content");
+            
+            StringBuilder expected = new StringBuilder();
+            StringBuilder actual = new StringBuilder();
+            boolean expectedKept = HtmlCleanerReference.appendPostTextWithRegex(post, expected);
+            boolean actualKept = HtmlCleaner.appendPostText(post, actual);
+            
+            assertEquals(expected.toString(), actual.toString(), html.toString());
+            assertEquals(expectedKept, actualKept, html.toString());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should extract posts with id, author and time")
+    void testExtractPosts() {
+        String html = """
+            <html><body>
+            <div id="p101" class="post"><div class="postbody">
+                <p class="author"><a class="username" href="./memberlist.php?mode=viewprofile&u=2">angler</a>
+                    » <time datetime="2024-11-18T13:40:00+00:00">18 Nov 2024</time></p>
+                <div class="content">Вчера на рыбалке поймал большого карпа на кукурузу у самого берега озера</div>
+            </div></div>
+            <div id="p102" class="post"><div class="postbody">
+                <p class="author"><strong>fisher</strong></p>
+                <div class="content">Коротко</div>
+            </div></div>
+            <div class="post"><div class="postbody">
+                <div class="content">Сом клюнул ночью на выползка, вытаскивал минут двадцать, весил около десяти кило</div>
+            </div></div>
+            </body></html>
+            """;
+        
+        java.util.List<dev.aa.labeling.model.Post> posts = HtmlCleaner.extractPosts(org.jsoup.Jsoup.parse(html));
+        
+        assertEquals(2, posts.size());
+        assertEquals("101", posts.get(0).postId());
+        assertEquals("angler", posts.get(0).author());
+        assertEquals(java.time.LocalDateTime.of(2024, 11, 18, 13, 40), posts.get(0).timestamp());
+        assertTrue(posts.get(1).postId().startsWith("h"));
+        assertNull(posts.get(1).author());
+        assertEquals(HtmlCleaner.cleanHtml(html),
+            String.join("\n\n", posts.stream().map(dev.aa.labeling.model.Post::text).toList()));
+    }
 }
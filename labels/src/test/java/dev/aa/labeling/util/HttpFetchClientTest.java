@@ -0,0 +1,175 @@
+package dev.aa.labeling.util;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.aa.labeling.config.SiteConfiguration;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpFetchClientTest {
+
+    private static final String PAGE = "<html><head><title>Рыбалка</title></head><body>" +
+        "<p>Карп на кукурузу</p>".repeat(200) + "</body></html>";
+
+    private HttpServer server;
+    private ExecutorService handlers;
+    private String baseUrl;
+    private final AtomicReference<String> userAgent = new AtomicReference<>();
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            userAgent.set(exchange.getRequestHeaders().getFirst("User-Agent"));
+            assertTrue(exchange.getRequestHeaders().getFirst("Accept-Encoding").contains("gzip"));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(PAGE.getBytes(StandardCharsets.UTF_8));
+            }
+            send(exchange, 200, "gzip", out.toByteArray());
+        });
+        server.createContext("/deflate", exchange -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (DeflaterOutputStream deflate = new DeflaterOutputStream(out)) {
+                deflate.write(PAGE.getBytes(StandardCharsets.UTF_8));
+            }
+            send(exchange, 200, "deflate", out.toByteArray());
+        });
+        server.createContext("/missing", exchange -> send(exchange, 404, null, "gone".getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/etag", exchange -> {
+            boolean fresh = "\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if (fresh) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                send(exchange, 200, null, PAGE.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        server.createContext("/stall", exchange -> {
+            // Headers and half a page, then nothing until the test ends
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write(PAGE.substring(0, PAGE.length() / 2).getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                released.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        handlers = Executors.newCachedThreadPool();
+        server.setExecutor(handlers);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        released.countDown();
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private static void send(com.sun.net.httpserver.HttpExchange exchange, int status, String encoding, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        if (encoding != null) {
+            exchange.getResponseHeaders().add("Content-Encoding", encoding);
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private HttpFetchClient client() {
+        return new HttpFetchClient(new SiteConfiguration("site", "Site", baseUrl, 5000, "TestAgent/1.0"));
+    }
+
+    @Test
+    void testDecodesGzipIntoDocument() throws Exception {
+        HttpFetchClient client = client();
+
+        HttpFetchClient.Response response = client.get(baseUrl + "/gzip");
+        Document document = response.parse();
+
+        assertEquals("Рыбалка", document.title());
+        assertEquals(200, document.select("p").size());
+        assertEquals("UTF-8", response.charset());
+        assertTrue(response.bytes() > 0 && response.bytes() < client.getDecodedBytes());
+        assertTrue(response.latencyMs() >= 0);
+        assertEquals("TestAgent/1.0", userAgent.get());
+    }
+
+    @Test
+    void testDecodesDeflate() throws Exception {
+        Document document = client().get(baseUrl + "/deflate").parse();
+
+        assertEquals("Рыбалка", document.title());
+    }
+
+    @Test
+    void testErrorStatusFailsGetDocument() {
+        IOException e = assertThrows(IOException.class, () -> client().getDocument(baseUrl + "/missing"));
+        assertTrue(e.getMessage().contains("404"));
+    }
+
+    @Test
+    void testConditionalRequestHeaders() throws Exception {
+        HttpFetchClient client = client();
+
+        HttpFetchClient.Response first = client.get(baseUrl + "/etag");
+        assertEquals(200, first.statusCode());
+        first.discard();
+        HttpFetchClient.Response second = client.get(baseUrl + "/etag", Map.of("If-None-Match", first.header("ETag")));
+        assertEquals(304, second.statusCode());
+        second.discard();
+    }
+
+    @Test
+    void testStatsCountSequentialRequestsAsReused() throws Exception {
+        HttpFetchClient client = client();
+        for (int i = 0; i < 4; i++) {
+            client.get(baseUrl + "/gzip").parse();
+        }
+
+        assertEquals(4, client.getRequests());
+        assertEquals(1, client.getEstimatedConnections());
+        assertEquals(0.75, client.getConnectionReuse(), 1e-9);
+        assertTrue(client.getWireBytes() < client.getDecodedBytes());
+        assertTrue(client.stats().startsWith("HTTP: 4 requests"));
+    }
+
+    @Test
+    void testStalledBodyTimesOut() {
+        HttpFetchClient client = new HttpFetchClient(new SiteConfiguration("site", "Site", baseUrl, 500, "TestAgent/1.0"));
+
+        long started = System.nanoTime();
+        HttpTimeoutException e = assertThrows(HttpTimeoutException.class, () -> client.getDocument(baseUrl + "/stall"));
+
+        assertTrue(e.getMessage().contains("/stall"));
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started) < 10);
+    }
+}
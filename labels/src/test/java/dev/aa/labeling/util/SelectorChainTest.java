@@ -0,0 +1,39 @@
+package dev.aa.labeling.util;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectorChainTest {
+
+    private static final Document PHPBB = Jsoup.parse(
+        "<div class='postbody'><div class='content'>a</div></div><div class='message'>m</div>");
+    private static final Document MESSAGES = Jsoup.parse("<div class='message'>one</div><div class='message'>two</div>");
+
+    @Test
+    void testFirstMatchingSelectorWins() {
+        SelectorChain chain = SelectorChain.of("div.postbody > div.content", "div.message");
+
+        assertEquals("a", chain.select(PHPBB).text());
+        assertEquals(2, chain.select(MESSAGES).size());
+        assertTrue(chain.select(Jsoup.parse("<p>none</p>")).isEmpty());
+        assertNull(chain.getPreferredSelector());
+    }
+
+    @Test
+    void testRememberingChainTriesLastWinnerFirst() {
+        SelectorChain chain = SelectorChain.of("div.postbody > div.content", "div.message").remembering();
+
+        assertEquals(2, chain.select(MESSAGES).size());
+        assertEquals("div.message", chain.getPreferredSelector());
+
+        // The remembered selector also matches this page, so it wins over the earlier one
+        assertEquals("m", chain.select(PHPBB).text());
+
+        // Falls back to the full chain when the remembered selector finds nothing
+        assertEquals("x", chain.select(Jsoup.parse("<div class='postbody'><div class='content'>x</div></div>")).text());
+        assertEquals("div.postbody > div.content", chain.getPreferredSelector());
+    }
+}
@@ -1,4 +1,4 @@
-from flask import Flask, request, Response
+from flask import Flask, request, Response, jsonify
 from pymorphy3 import MorphAnalyzer
 import threading
 import time
@@ -36,6 +36,18 @@ def lemmatize():
     lemma = morph.parse(word)[0].normal_form
     return lemma
 
+@app.route('/lemmas', methods=['POST'])
+def lemmatize_all():
+    body = request.get_json(silent=True) or {}
+    words = body.get('words')
+    if not isinstance(words, list):
+        return "Expected JSON body {\"words\": [...]}", 400
+    lemmas = {}
+    for word in words:
+        if isinstance(word, str) and word and word not in lemmas:
+            lemmas[word] = morph.parse(word)[0].normal_form
+    return jsonify(lemmas)
+
 if __name__ == '__main__':
     flask_thread = threading.Thread(target=start_flask, daemon=True)
     flask_thread.start()